@@ -215,8 +215,8 @@ allprojects {
         }
 
         configure<PublishingExtension> {
-            if (project.path == ":") {
-                // Skip the root project
+            if (project.path == ":" || project.name.endsWith("-jmh")) {
+                // Skip the root project and the benchmarks
                 return@configure
             }
 
@@ -0,0 +1,17 @@
+plugins {
+    java
+    id("me.champeau.jmh")
+}
+
+val String.v: String get() = rootProject.extra["$this.version"] as String
+
+dependencies {
+    jmhImplementation(projects.imageComparison)
+    jmhImplementation(testFixtures(projects.imageComparison))
+}
+
+jmh {
+    jmhVersion.set("jmh".v)
+    // e.g. -PjmhIncludes=ResizeBenchmark to run a single stage
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
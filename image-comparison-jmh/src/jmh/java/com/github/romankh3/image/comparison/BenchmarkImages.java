@@ -0,0 +1,101 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.Workload;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+/**
+ * Creates the deterministic workloads and rectangles used by the benchmarks.
+ */
+final class BenchmarkImages {
+
+    /**
+     * Seed of the random generators, so every run compares the same pixels.
+     */
+    static final long SEED = 42;
+
+    private BenchmarkImages() {
+    }
+
+    /**
+     * Map the name of a {@link BufferedImage} type, as used by the benchmark parameters, to the type.
+     *
+     * @param name the name of the type without the {@code TYPE_} prefix, e.g. {@code INT_RGB}.
+     * @return the {@link BufferedImage} type.
+     */
+    static int imageType(String name) {
+        switch (name) {
+            case "INT_RGB":
+                return BufferedImage.TYPE_INT_RGB;
+            case "INT_ARGB":
+                return BufferedImage.TYPE_INT_ARGB;
+            case "3BYTE_BGR":
+                return BufferedImage.TYPE_3BYTE_BGR;
+            case "4BYTE_ABGR":
+                return BufferedImage.TYPE_4BYTE_ABGR;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported image type, type=%s", name));
+        }
+    }
+
+    /**
+     * Generate a square pair of images.
+     *
+     * @param size        the width and height of the images.
+     * @param imageType   the name of the image type, see {@link #imageType(String)}.
+     * @param pattern     the name of the {@link DifferencePattern}.
+     * @param diffDensity the density of the differences.
+     * @return generated {@link Workload}.
+     */
+    static Workload workload(int size, String imageType, String pattern, double diffDensity) {
+        return new WorkloadGenerator(SEED)
+                .setSize(size, size)
+                .setImageType(imageType(imageType))
+                .setPattern(DifferencePattern.valueOf(pattern))
+                .setDensity(diffDensity)
+                .generate();
+    }
+
+    /**
+     * Create rectangles with random positions and sizes inside an image.
+     *
+     * @param count   the count of the rectangles.
+     * @param size    the width and height of the image.
+     * @param maxSide the maximal width and height of the rectangles.
+     * @return created {@link RectangleList}.
+     */
+    static RectangleList rectangles(int count, int size, int maxSide) {
+        Random random = new Random(SEED + 2);
+        RectangleList rectangles = new RectangleList(count);
+        for (int i = 0; i < count; i++) {
+            int minX = random.nextInt(size - maxSide);
+            int minY = random.nextInt(size - maxSide);
+            rectangles.add(minX, minY, minX + random.nextInt(maxSide), minY + random.nextInt(maxSide));
+        }
+        return rectangles;
+    }
+}
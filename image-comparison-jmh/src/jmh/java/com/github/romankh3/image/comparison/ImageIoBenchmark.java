@@ -0,0 +1,89 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of reading and writing PNG images with {@link ImageComparisonUtil}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ImageIoBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_RGB", "INT_ARGB", "3BYTE_BGR"})
+    private String imageType;
+
+    private BufferedImage image;
+
+    private File readFile;
+
+    private File writeFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        image = BenchmarkImages.workload(size, imageType, "SPARSE_NOISE", 0).getExpected();
+        readFile = File.createTempFile("image-comparison-read", ".png");
+        writeFile = File.createTempFile("image-comparison-write", ".png");
+        ImageComparisonUtil.saveImage(readFile, image);
+    }
+
+    @TearDown
+    public void tearDown() {
+        readFile.delete();
+        writeFile.delete();
+    }
+
+    @Benchmark
+    public BufferedImage readPng() {
+        return ImageComparisonUtil.readImageFromResources(readFile.getAbsolutePath());
+    }
+
+    @Benchmark
+    public File writePng() {
+        ImageComparisonUtil.saveImage(writeFile, image);
+        return writeFile;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.romankh3.image.comparison.workload.Workload;
+
+/**
+ * Benchmark of the pixel scan, which populates the matrix of the differences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PixelScanBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"INT_RGB", "INT_ARGB", "3BYTE_BGR"})
+    private String imageType;
+
+    @Param({"SPARSE_NOISE", "TEXT_CLUSTERS", "LARGE_BLOCKS"})
+    private String pattern;
+
+    @Param({"0.0001", "0.01"})
+    private double diffDensity;
+
+    @Param({"0", "10"})
+    private double pixelToleranceLevel;
+
+    private ImageComparison imageComparison;
+
+    @Setup
+    public void setUp() {
+        Workload workload = BenchmarkImages.workload(size, imageType, pattern, diffDensity);
+        imageComparison = new ImageComparison(workload.getExpected(), workload.getActual())
+                .setPixelToleranceLevel(pixelToleranceLevel / 100);
+    }
+
+    @Benchmark
+    public long scan() {
+        return imageComparison.populateTheMatrixOfTheDifferences(null);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.romankh3.image.comparison.workload.Workload;
+
+/**
+ * Benchmark of the region labeling, both of the flood fill on the matrix of {@link ImageComparison} and of the
+ * streaming {@link RegionLabeler}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RegionLabelingBenchmark {
+
+    @Param({"512", "2048"})
+    private int size;
+
+    @Param({"SPARSE_NOISE", "TEXT_CLUSTERS", "LARGE_BLOCKS"})
+    private String pattern;
+
+    @Param({"0.0001", "0.01"})
+    private double diffDensity;
+
+    @Param({"5", "10"})
+    private int threshold;
+
+    private ImageComparison imageComparison;
+
+    /**
+     * The X-coordinates of the different pixels per row.
+     */
+    private int[][] differentPixels;
+
+    @Setup
+    public void setUp() {
+        Workload workload = BenchmarkImages.workload(size, "INT_RGB", pattern, diffDensity);
+        BufferedImage expected = workload.getExpected();
+        BufferedImage actual = workload.getActual();
+        imageComparison = new ImageComparison(expected, actual).setThreshold(threshold);
+
+        differentPixels = new int[size][];
+        int[] xs = new int[size];
+        for (int y = 0; y < size; y++) {
+            int count = 0;
+            for (int x = 0; x < size; x++) {
+                if (expected.getRGB(x, y) != actual.getRGB(x, y)) {
+                    xs[count++] = x;
+                }
+            }
+            differentPixels[y] = Arrays.copyOf(xs, count);
+        }
+    }
+
+    /**
+     * The flood fill relabels the matrix in place, so it's populated again before every invocation.
+     */
+    @Setup(Level.Invocation)
+    public void populateMatrix() {
+        imageComparison.populateTheMatrixOfTheDifferences(null);
+    }
+
+    @Benchmark
+    public RectangleList groupRegions() {
+        return imageComparison.groupRegions();
+    }
+
+    @Benchmark
+    public RectangleList regionLabeler() {
+        RegionLabeler labeler = new RegionLabeler(size, threshold);
+        for (int y = 0; y < size; y++) {
+            labeler.startRow(y);
+            for (int x : differentPixels[y]) {
+                labeler.add(x);
+            }
+        }
+        return labeler.finish();
+    }
+}
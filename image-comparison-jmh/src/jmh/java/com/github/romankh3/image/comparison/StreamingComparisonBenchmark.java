@@ -0,0 +1,92 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+
+/**
+ * Benchmark of {@link StreamingImageComparison} on PNG images of growing height, to show how the time scales with
+ * the height for a given band height.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StreamingComparisonBenchmark {
+
+    @Param({"1000", "8000"})
+    private int height;
+
+    @Param({"64", "256"})
+    private int bandHeight;
+
+    private File expectedFile;
+
+    private File actualFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        BufferedImage image = new BufferedImage(500, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < 500; x++) {
+                image.setRGB(x, y, x * 31 + y * 17);
+            }
+        }
+        expectedFile = File.createTempFile("image-comparison-expected", ".png");
+        actualFile = File.createTempFile("image-comparison-actual", ".png");
+        ImageComparisonUtil.saveImage(expectedFile, image);
+        ImageComparisonUtil.saveImage(actualFile, image);
+    }
+
+    @TearDown
+    public void tearDown() {
+        expectedFile.delete();
+        actualFile.delete();
+    }
+
+    @Benchmark
+    public ImageComparisonResult compareImages() {
+        return new StreamingImageComparison(expectedFile, actualFile)
+                .setBandHeight(bandHeight)
+                .compareImages();
+    }
+}
@@ -2,6 +2,17 @@ import org.gradle.api.tasks.testing.logging.TestExceptionFormat
 
 plugins {
     `java-library`
+    `java-test-fixtures`
+}
+
+// The Flight Recorder events need Java 11, so they are compiled separately into the versioned part of the
+// multi-release jar and the main source set still builds and runs on Java 8.
+val java11 by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+sourceSets.test {
+    runtimeClasspath += java11.output
 }
 
 dependencies {
@@ -12,8 +23,28 @@ dependencies {
     testRuntimeOnly(testLibs.junit.engine)
     testCompileOnly(libs.nullabilityAnnotations)
 }
+
+// The test fixtures only contain the workload generator for tests and benchmarks, so they aren't published.
+(components["java"] as AdhocComponentWithVariants).run {
+    withVariantsFromConfiguration(configurations.testFixturesApiElements.get()) { skip() }
+    withVariantsFromConfiguration(configurations.testFixturesRuntimeElements.get()) { skip() }
+}
 tasks {
 
+    named<JavaCompile>(java11.compileJavaTaskName) {
+        sourceCompatibility = JavaVersion.VERSION_11.toString()
+        targetCompatibility = JavaVersion.VERSION_11.toString()
+    }
+
+    jar {
+        into("META-INF/versions/11") {
+            from(java11.output)
+        }
+        manifest {
+            attributes["Multi-Release"] = "true"
+        }
+    }
+
     compileTestJava {
         sourceCompatibility = JavaVersion.VERSION_17.toString()
         targetCompatibility = JavaVersion.VERSION_17.toString()
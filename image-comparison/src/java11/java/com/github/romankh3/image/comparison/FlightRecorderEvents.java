@@ -0,0 +1,184 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The {@link ComparisonEvents.Recorder} of the JDK Flight Recorder events, which is compiled for Java 11 and loaded
+ * by {@link ComparisonEvents} only if the JVM provides the Flight Recorder.
+ */
+final class FlightRecorderEvents implements ComparisonEvents.Recorder {
+
+    @Override
+    public /* @Nullable */ Object beginCompareImages() {
+        CompareImagesEvent event = new CompareImagesEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitCompareImages(Object event, int expectedWidth, int expectedHeight, BufferedImage actual,
+            ImageComparisonResult result, ImageComparisonMetrics metrics) {
+        CompareImagesEvent compareEvent = (CompareImagesEvent) event;
+        compareEvent.end();
+        if (compareEvent.shouldCommit()) {
+            compareEvent.expectedWidth = expectedWidth;
+            compareEvent.expectedHeight = expectedHeight;
+            compareEvent.actualWidth = actual.getWidth();
+            compareEvent.actualHeight = actual.getHeight();
+            compareEvent.state = result.getImageComparisonState().name();
+            compareEvent.differentPixels = metrics.getDifferentPixels();
+            compareEvent.regionCount = metrics.getRegionCount();
+            compareEvent.rectangleCount = result.getRectangles() == null ? 0 : result.getRectangles().size();
+            compareEvent.commit();
+        }
+    }
+
+    @Override
+    public /* @Nullable */ Object beginReadImage() {
+        ReadImageEvent event = new ReadImageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitReadImage(Object event, String path, /* @Nullable */ BufferedImage image) {
+        ReadImageEvent readEvent = (ReadImageEvent) event;
+        readEvent.end();
+        if (readEvent.shouldCommit()) {
+            readEvent.path = path;
+            readEvent.width = image == null ? 0 : image.getWidth();
+            readEvent.height = image == null ? 0 : image.getHeight();
+            readEvent.commit();
+        }
+    }
+
+    @Override
+    public /* @Nullable */ Object beginSaveImage() {
+        SaveImageEvent event = new SaveImageEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void commitSaveImage(Object event, File file, BufferedImage image) {
+        SaveImageEvent saveEvent = (SaveImageEvent) event;
+        saveEvent.end();
+        if (saveEvent.shouldCommit()) {
+            saveEvent.path = file.getPath();
+            saveEvent.width = image.getWidth();
+            saveEvent.height = image.getHeight();
+            saveEvent.outputSize = file.length();
+            saveEvent.commit();
+        }
+    }
+
+    @Name("com.github.romankh3.image.comparison.CompareImages")
+    @Label("Compare Images")
+    @Category("Image Comparison")
+    @Description("Comparison of an expected and an actual image")
+    static final class CompareImagesEvent extends Event {
+
+        @Label("Expected Width")
+        int expectedWidth;
+
+        @Label("Expected Height")
+        int expectedHeight;
+
+        @Label("Actual Width")
+        int actualWidth;
+
+        @Label("Actual Height")
+        int actualHeight;
+
+        @Label("State")
+        String state;
+
+        @Label("Different Pixels")
+        long differentPixels;
+
+        @Label("Region Count")
+        @Description("Count of the regions of different pixels before merging")
+        long regionCount;
+
+        @Label("Rectangle Count")
+        @Description("Count of the rectangles of the result")
+        int rectangleCount;
+    }
+
+    @Name("com.github.romankh3.image.comparison.ReadImage")
+    @Label("Read Image")
+    @Category("Image Comparison")
+    @Description("Reading of an image from a file or from the classpath")
+    static final class ReadImageEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+    }
+
+    @Name("com.github.romankh3.image.comparison.SaveImage")
+    @Label("Save Image")
+    @Category("Image Comparison")
+    @Description("Saving of an image as PNG")
+    static final class SaveImageEvent extends Event {
+
+        @Label("Path")
+        String path;
+
+        @Label("Width")
+        int width;
+
+        @Label("Height")
+        int height;
+
+        @Label("Output Size")
+        @DataAmount
+        long outputSize;
+    }
+}
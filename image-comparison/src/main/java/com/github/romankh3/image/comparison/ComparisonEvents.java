@@ -0,0 +1,149 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+
+/**
+ * JDK Flight Recorder events of the comparisons, reading and saving of images.
+ * <p>
+ * The event classes need Java 11 and are compiled separately into the versioned part of the multi-release jar, so
+ * this class only loads their {@link Recorder} by name and the library still builds and runs on Java 8. Every
+ * {@code begin} method returns {@code null} if the event isn't recorded, which is the only cost of a comparison
+ * without a recording.
+ */
+final class ComparisonEvents {
+
+    /**
+     * Name of the {@link Recorder} of the Flight Recorder events.
+     */
+    private static final String RECORDER_CLASS_NAME = "com.github.romankh3.image.comparison.FlightRecorderEvents";
+
+    /**
+     * The {@link Recorder} of the events, or {@code null} if the JVM doesn't provide the Flight Recorder.
+     */
+    private static final /* @Nullable */ Recorder RECORDER = loadRecorder();
+
+    private ComparisonEvents() {
+    }
+
+    /**
+     * Begin the event of a comparison.
+     *
+     * @return the started event, or {@code null} if it isn't recorded.
+     */
+    static /* @Nullable */ Object beginCompareImages() {
+        return RECORDER == null ? null : RECORDER.beginCompareImages();
+    }
+
+    /**
+     * Commit the event of a comparison.
+     *
+     * @param event          the event returned by {@link #beginCompareImages()}.
+     * @param expectedWidth  the width of the expected image.
+     * @param expectedHeight the height of the expected image.
+     * @param actual         the actual image.
+     * @param result         the result of the comparison.
+     * @param metrics        the metrics of the comparison.
+     */
+    static void commitCompareImages(Object event, int expectedWidth, int expectedHeight, BufferedImage actual,
+            ImageComparisonResult result, ImageComparisonMetrics metrics) {
+        RECORDER.commitCompareImages(event, expectedWidth, expectedHeight, actual, result, metrics);
+    }
+
+    /**
+     * Begin the event of reading an image.
+     *
+     * @return the started event, or {@code null} if it isn't recorded.
+     */
+    static /* @Nullable */ Object beginReadImage() {
+        return RECORDER == null ? null : RECORDER.beginReadImage();
+    }
+
+    /**
+     * Commit the event of reading an image.
+     *
+     * @param event the event returned by {@link #beginReadImage()}.
+     * @param path  the path of the image.
+     * @param image the read image, or {@code null} if the format isn't supported.
+     */
+    static void commitReadImage(Object event, String path, /* @Nullable */ BufferedImage image) {
+        RECORDER.commitReadImage(event, path, image);
+    }
+
+    /**
+     * Begin the event of saving an image.
+     *
+     * @return the started event, or {@code null} if it isn't recorded.
+     */
+    static /* @Nullable */ Object beginSaveImage() {
+        return RECORDER == null ? null : RECORDER.beginSaveImage();
+    }
+
+    /**
+     * Commit the event of saving an image.
+     *
+     * @param event the event returned by {@link #beginSaveImage()}.
+     * @param file  the saved file.
+     * @param image the saved image.
+     */
+    static void commitSaveImage(Object event, File file, BufferedImage image) {
+        RECORDER.commitSaveImage(event, file, image);
+    }
+
+    /**
+     * Load the {@link Recorder} of the Flight Recorder events, which is missing on Java 8 or fails to link without
+     * the Flight Recorder.
+     */
+    private static /* @Nullable */ Recorder loadRecorder() {
+        try {
+            return (Recorder) Class.forName(RECORDER_CLASS_NAME, true, ComparisonEvents.class.getClassLoader())
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Recorder of the events, see the static methods of {@link ComparisonEvents} for the contract of every method.
+     */
+    interface Recorder {
+
+        /* @Nullable */ Object beginCompareImages();
+
+        void commitCompareImages(Object event, int expectedWidth, int expectedHeight, BufferedImage actual,
+                ImageComparisonResult result, ImageComparisonMetrics metrics);
+
+        /* @Nullable */ Object beginReadImage();
+
+        void commitReadImage(Object event, String path, /* @Nullable */ BufferedImage image);
+
+        /* @Nullable */ Object beginSaveImage();
+
+        void commitSaveImage(Object event, File file, BufferedImage image);
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Compact map of the squared distances between the pixels of two images, which lets a comparison with other
+ * settings populate the matrix of the differences again without reading the images.
+ * <p>
+ * It holds a bit for every pixel, which is set if the pixels differ at all, and the exact squared distance of every
+ * differing pixel as an {@code int}. So re-thresholding gives the same differences as scanning the images, while
+ * the map takes {@code width * height / 8} bytes plus 4 bytes per differing pixel, i.e. less than a byte per pixel
+ * as long as fewer than a fifth of the pixels differ. The differing pixels are marked before their distances are
+ * measured, so the distances are stored in an array of their exact count, without growing it while building.
+ */
+final class DistanceMap {
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Bit for every pixel in row-major order, which is set if the pixels differ.
+     */
+    private final long[] differentPixels;
+
+    /**
+     * Squared distances of the differing pixels, in row-major order.
+     */
+    private int[] distances;
+
+    private DistanceMap(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.differentPixels = new long[(int) (((long) width * height + Long.SIZE - 1) / Long.SIZE)];
+    }
+
+    /**
+     * Build the {@link DistanceMap} of the area of the provided size at the top left corner of the images.
+     *
+     * @param expected  the expected image.
+     * @param actual    the actual image.
+     * @param width     the width of the area.
+     * @param height    the height of the area.
+     * @param scanAreas the areas to be scanned, or {@code null} if the whole area should be scanned. Pixels outside
+     *                  of the scan areas need to be equal.
+     * @return the built {@link DistanceMap}.
+     */
+    static DistanceMap of(BufferedImage expected, BufferedImage actual, int width, int height,
+            /* @Nullable */ List<Rectangle> scanAreas) {
+        DistanceMap map = new DistanceMap(width, height);
+        if (scanAreas == null) {
+            map.mark(expected, actual, 0, 0, width - 1, height - 1);
+        } else {
+            for (Rectangle area : scanAreas) {
+                map.mark(expected, actual,
+                        area.getMinPoint().x, area.getMinPoint().y, area.getMaxPoint().x, area.getMaxPoint().y);
+            }
+        }
+        map.measure(expected, actual);
+        return map;
+    }
+
+    /**
+     * Mark the differing pixels of the part of the images inside the provided bounds, which are inclusive.
+     * Overlapping scan areas mark their common pixels twice.
+     */
+    private void mark(BufferedImage expected, BufferedImage actual, int minX, int minY, int maxX, int maxY) {
+        int rowWidth = maxX - minX + 1;
+        int[] expectedRow = new int[rowWidth];
+        int[] actualRow = new int[rowWidth];
+        for (int y = minY; y <= maxY; y++) {
+            ImageComparisonUtil.readRow(expected, minX, y, rowWidth, expectedRow, 0);
+            ImageComparisonUtil.readRow(actual, minX, y, rowWidth, actualRow, 0);
+            for (int i = 0; i < rowWidth; i++) {
+                if (expectedRow[i] != actualRow[i]) {
+                    int index = y * width + minX + i;
+                    differentPixels[index / Long.SIZE] |= 1L << index;
+                }
+            }
+        }
+    }
+
+    /**
+     * Store the squared distances of the marked pixels in row-major order, reading only the rows which contain
+     * marked pixels.
+     */
+    private void measure(BufferedImage expected, BufferedImage actual) {
+        int count = 0;
+        for (long bits : differentPixels) {
+            count += Long.bitCount(bits);
+        }
+        distances = new int[count];
+        int[] expectedRow = new int[width];
+        int[] actualRow = new int[width];
+        int readY = -1;
+        int next = 0;
+        for (int word = 0; word < differentPixels.length; word++) {
+            long bits = differentPixels[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int y = index / width;
+                if (y != readY) {
+                    ImageComparisonUtil.readRow(expected, 0, y, width, expectedRow, 0);
+                    ImageComparisonUtil.readRow(actual, 0, y, width, actualRow, 0);
+                    readY = y;
+                }
+                int x = index - y * width;
+                distances[next++] = ImageComparisonUtil.squaredDistance(expectedRow[x], actualRow[x]);
+            }
+        }
+    }
+
+    /**
+     * Populate the binary matrix with "1" for the pixels which differ at the difference constant and are not
+     * excluded.
+     *
+     * @param matrix             the matrix of the size of the map, filled with "0".
+     * @param differenceConstant the constant which the squared distance of two pixels needs to exceed.
+     * @param exclusions         the {@link ExclusionMask} of the pixels to be skipped, or {@code null}.
+     * @return the count of different pixels.
+     */
+    long populate(int[][] matrix, double differenceConstant, /* @Nullable */ ExclusionMask exclusions) {
+        long countOfDifferentPixels = 0;
+        int next = 0;
+        for (int word = 0; word < differentPixels.length; word++) {
+            long bits = differentPixels[word];
+            while (bits != 0) {
+                int index = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (distances[next++] > differenceConstant) {
+                    int y = index / width;
+                    int x = index - y * width;
+                    if (exclusions == null || !exclusions.contains(x, y)) {
+                        matrix[y][x] = 1;
+                        countOfDifferentPixels++;
+                    }
+                }
+            }
+        }
+        return countOfDifferentPixels;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Count of the pixels which differ at all.
+     *
+     * @return the count of the differing pixels.
+     */
+    int size() {
+        return distances.length;
+    }
+
+    /**
+     * Bytes taken by the arrays of the map.
+     *
+     * @return the count of the bytes.
+     */
+    long getBytes() {
+        return 8L * differentPixels.length + 4L * distances.length;
+    }
+}
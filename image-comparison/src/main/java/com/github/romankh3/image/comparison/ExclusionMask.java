@@ -0,0 +1,238 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Pixels excluded from the comparison, rasterised into a bit for every pixel. The mask can be built from a mask
+ * image, {@link Rectangle}s or any {@link Shape} like a {@link java.awt.Polygon}, and is applied to the scan word by
+ * word, so that the exclusion costs the same whatever the count of the excluded regions is.
+ * Every row starts at a new word.
+ */
+public final class ExclusionMask {
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Count of the words of every row.
+     */
+    private final int wordsPerRow;
+
+    /**
+     * Bit for every pixel, which is set if the pixel is excluded.
+     */
+    private final long[] bits;
+
+    /**
+     * Create empty instance of the {@link ExclusionMask}.
+     *
+     * @param width  the width of the mask.
+     * @param height the height of the mask.
+     */
+    public ExclusionMask(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The size of the mask needs to be positive, but is "
+                    + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + Long.SIZE - 1) / Long.SIZE;
+        this.bits = new long[wordsPerRow * height];
+    }
+
+    /**
+     * Rasterise the areas into an {@link ExclusionMask} of the provided size. Parts of the areas outside of the
+     * mask are ignored.
+     *
+     * @param areas  the collection of the excluded {@link Rectangle}s.
+     * @param width  the width of the mask.
+     * @param height the height of the mask.
+     * @return created {@link ExclusionMask}.
+     */
+    public static ExclusionMask of(List<Rectangle> areas, int width, int height) {
+        ExclusionMask mask = new ExclusionMask(width, height);
+        for (Rectangle area : areas) {
+            mask.add(area);
+        }
+        return mask;
+    }
+
+    /**
+     * Create an {@link ExclusionMask} of the size of the mask image, which excludes every pixel of the image that
+     * is neither black nor fully transparent.
+     *
+     * @param maskImage the mask image.
+     * @return created {@link ExclusionMask}.
+     */
+    public static ExclusionMask of(BufferedImage maskImage) {
+        ExclusionMask mask = new ExclusionMask(maskImage.getWidth(), maskImage.getHeight());
+        int[] row = new int[mask.width];
+        for (int y = 0; y < mask.height; y++) {
+            maskImage.getRGB(0, y, mask.width, 1, row, 0, mask.width);
+            int offset = y * mask.wordsPerRow;
+            for (int x = 0; x < mask.width; x++) {
+                if ((row[x] >>> 24) != 0 && (row[x] & 0xFFFFFF) != 0) {
+                    mask.bits[offset + x / Long.SIZE] |= 1L << x;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Exclude the pixels inside the {@link Rectangle}. Parts outside of the mask are ignored.
+     *
+     * @param area the excluded {@link Rectangle}.
+     * @return updated {@link ExclusionMask}.
+     */
+    public ExclusionMask add(Rectangle area) {
+        add(area.getMinPoint().x, area.getMinPoint().y, area.getMaxPoint().x, area.getMaxPoint().y);
+        return this;
+    }
+
+    /**
+     * Exclude the pixels whose centers are inside the {@link Shape}, e.g. a {@link java.awt.Polygon}. Parts outside
+     * of the mask are ignored.
+     *
+     * @param shape the excluded {@link Shape}.
+     * @return updated {@link ExclusionMask}.
+     */
+    public ExclusionMask add(Shape shape) {
+        java.awt.Rectangle bounds = shape.getBounds();
+        int minX = Math.max(0, bounds.x);
+        int minY = Math.max(0, bounds.y);
+        int maxX = Math.min(width - 1, bounds.x + bounds.width);
+        int maxY = Math.min(height - 1, bounds.y + bounds.height);
+        for (int y = minY; y <= maxY; y++) {
+            int offset = y * wordsPerRow;
+            for (int x = minX; x <= maxX; x++) {
+                if (shape.contains(x + 0.5, y + 0.5)) {
+                    bits[offset + x / Long.SIZE] |= 1L << x;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Exclude the pixels inside the provided bounds, which are inclusive.
+     *
+     * @param minX minimal X-coordinate.
+     * @param minY minimal Y-coordinate.
+     * @param maxX maximal X-coordinate.
+     * @param maxY maximal Y-coordinate.
+     */
+    void add(int minX, int minY, int maxX, int maxY) {
+        minX = Math.max(0, minX);
+        minY = Math.max(0, minY);
+        maxX = Math.min(width - 1, maxX);
+        maxY = Math.min(height - 1, maxY);
+        if (minX > maxX) {
+            return;
+        }
+        int firstWord = minX / Long.SIZE;
+        int lastWord = maxX / Long.SIZE;
+        long firstMask = -1L << minX;
+        long lastMask = -1L >>> (Long.SIZE - 1 - maxX % Long.SIZE);
+        for (int y = minY; y <= maxY; y++) {
+            int offset = y * wordsPerRow;
+            if (firstWord == lastWord) {
+                bits[offset + firstWord] |= firstMask & lastMask;
+                continue;
+            }
+            bits[offset + firstWord] |= firstMask;
+            for (int word = firstWord + 1; word < lastWord; word++) {
+                bits[offset + word] = -1L;
+            }
+            bits[offset + lastWord] |= lastMask;
+        }
+    }
+
+    /**
+     * Check if the pixel is excluded. Pixels outside of the mask aren't excluded.
+     *
+     * @param x the X-coordinate of the pixel.
+     * @param y the Y-coordinate of the pixel.
+     * @return {@code true} if the pixel is excluded.
+     */
+    public boolean contains(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return false;
+        }
+        return (bits[y * wordsPerRow + x / Long.SIZE] & (1L << x)) != 0;
+    }
+
+    /**
+     * Exclude the pixels excluded by the other {@link ExclusionMask} too. Parts outside of this mask are ignored.
+     *
+     * @param other the other {@link ExclusionMask}.
+     */
+    void addAll(ExclusionMask other) {
+        int words = Math.min(wordsPerRow, other.wordsPerRow);
+        // the bits of the other mask beyond the width of this one are cleared.
+        long lastMask = other.width > width ? -1L >>> (Long.SIZE - 1 - (width - 1) % Long.SIZE) : -1L;
+        for (int y = 0; y < Math.min(height, other.height); y++) {
+            for (int word = 0; word < words; word++) {
+                long otherBits = other.bits[y * other.wordsPerRow + word];
+                bits[y * wordsPerRow + word] |= word == words - 1 ? otherBits & lastMask : otherBits;
+            }
+        }
+    }
+
+    /**
+     * Get the bits of the pixels of a word of a row, which are set if the pixel is not excluded.
+     *
+     * @param word the index of the word in the row, i.e. the X-coordinate divided by {@link Long#SIZE}.
+     * @param y    the Y-coordinate of the row.
+     * @return the bits of the included pixels, the lowest bit for the first pixel of the word.
+     */
+    long getIncludedBits(int word, int y) {
+        return ~bits[y * wordsPerRow + word];
+    }
+
+    /**
+     * Count the excluded pixels.
+     *
+     * @return the count of the excluded pixels.
+     */
+    public long getExcludedPixelCount() {
+        long count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
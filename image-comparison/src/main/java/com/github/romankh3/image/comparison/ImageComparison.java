@@ -21,19 +21,22 @@
  */
 package com.github.romankh3.image.comparison;
 
-import static com.github.romankh3.image.comparison.ImageComparisonUtil.getDifferencePercent;
-import static java.util.Collections.emptyList;
-
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.io.File;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
+import com.github.romankh3.image.comparison.jmx.ComparisonStatistics;
+import com.github.romankh3.image.comparison.model.DistanceHistogram;
 import com.github.romankh3.image.comparison.model.ExcludedAreas;
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics.Stage;
 import com.github.romankh3.image.comparison.model.ImageComparisonResult;
 import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.ImageFingerprint;
 import com.github.romankh3.image.comparison.model.Rectangle;
 
 /**
@@ -48,14 +51,35 @@ public class ImageComparison {
     private int threshold = 5;
 
     /**
-     * Expected image for comparison
+     * Expected image for comparison. Read lazily from {@link #expectedPath} if the comparison is created
+     * from an {@link ImageFingerprint}.
+     */
+    private /* @Nullable */ BufferedImage expected;
+
+    /**
+     * Path of the expected image, if it is read lazily.
+     */
+    private /* @Nullable */ String expectedPath;
+
+    /**
+     * {@link ImageFingerprint} of the expected image, which allows to skip reading it if the actual image matches.
+     */
+    private /* @Nullable */ ImageFingerprint expectedFingerprint;
+
+    /**
+     * {@link PreparedExpectedImage} of the expected image, whose pixels are read instead of the expected image.
+     */
+    private /* @Nullable */ PreparedExpectedImage preparedExpected;
+
+    /**
+     * {@link ImagePyramid} of the compared area of the expected image, which is kept for further comparisons.
      */
-    private final BufferedImage expected;
+    private /* @Nullable */ ImagePyramid expectedPyramid;
 
     /**
      * Actual image for comparison
      */
-    private final BufferedImage actual;
+    private BufferedImage actual;
 
     /**
      * Width of the line that is drawn the rectangle
@@ -68,14 +92,32 @@ public class ImageComparison {
     private /* @Nullable */ File destination;
 
     /**
-     * The number which marks how many rectangles. Beginning from 2.
+     * The first number marking a region in the matrix, as "1" marks a different pixel.
+     */
+    private static final int FIRST_REGION = 2;
+
+    /**
+     * Count of the rows scanned between the deliveries of the finished regions to the {@link #regionListener}.
      */
-    private int counter = 2;
+    private static final int REGION_LISTENER_ROWS = 64;
 
     /**
-     * The number of the marking specific rectangle.
+     * The number of the marking specific rectangle. Beginning from 2.
      */
-    private int regionCount = counter;
+    private int regionCount = FIRST_REGION;
+
+    /**
+     * Bounds of the region which is currently grouped.
+     */
+    private int regionMinX;
+    private int regionMinY;
+    private int regionMaxX;
+    private int regionMaxY;
+
+    /**
+     * The count of the different pixels in the region which is currently grouped.
+     */
+    private long regionPixelCount;
 
     /**
      * The number of the minimal rectangle size. Count as (width x height).
@@ -118,11 +160,55 @@ public class ImageComparison {
      */
     private int[][] matrix;
 
+    /**
+     * X-coordinate of the pixel of the images at {@code matrix[0][0]}.
+     */
+    private int matrixMinX;
+
+    /**
+     * Y-coordinate of the pixel of the images at {@code matrix[0][0]}.
+     */
+    private int matrixMinY;
+
+    /**
+     * Sum of the {@link ImageComparisonUtil#pixelDiff(int, int)} of the pixels compared by the last scan, from which
+     * the difference percent of a {@link ImageComparisonState#MISMATCH} is calculated.
+     */
+    private long sumOfPixelDifferences;
+
+    /**
+     * Flag if the last scan compared the RGB values of all pixels which might differ, i.e. of all pixels outside
+     * the areas with equal fingerprints or pyramid blocks, so that {@link #sumOfPixelDifferences} is complete.
+     */
+    private boolean pixelDifferencesSummed;
+
     /**
      * ExcludedAreas contains a List of {@link Rectangle}s to be ignored when comparing images
      */
     private ExcludedAreas excludedAreas = new ExcludedAreas();
 
+    /**
+     * Areas of interest, which are the only ones compared if set. Empty means the whole images are compared.
+     */
+    private List<Rectangle> includedAreas = Collections.emptyList();
+
+    /**
+     * The {@link #includedAreas} clipped to the compared area and split into disjoint {@link Rectangle}s on first
+     * use, or {@code null} if the whole images are compared.
+     */
+    private /* @Nullable */ List<Rectangle> includedScanAreas;
+
+    /**
+     * {@link ExclusionMask} of pixels to be ignored when comparing images, in addition to the {@link #excludedAreas}.
+     */
+    private /* @Nullable */ ExclusionMask exclusionMask;
+
+    /**
+     * The {@link #excludedAreas} and the {@link #exclusionMask} rasterised into a single {@link ExclusionMask} at
+     * the first scan, or by a {@link PreparedExpectedImage}.
+     */
+    private /* @Nullable */ ExclusionMask rasterisedExclusions;
+
     /**
      * Flag which says draw excluded rectangles or not.
      */
@@ -154,6 +240,64 @@ public class ImageComparison {
      */
     private double allowingPercentOfDifferentPixels = 0.0;
 
+    /**
+     * Flag for the coarse-to-fine comparison. If set, the {@link ImagePyramid}s of both images are compared from the
+     * coarsest level down and the pixels are only compared inside the differing blocks, padded by the
+     * {@link #threshold}. The pyramid of the expected image is kept for further comparisons, the one of the actual
+     * image still reads all of its pixels once.
+     */
+    private boolean pyramidComparison = false;
+
+    /**
+     * Flag for comparing images of different sizes on their overlapping area. If set, the overlapping area is
+     * compared like images of equal sizes and the non-overlapping strips are reported as differences.
+     */
+    private boolean overlapComparison = false;
+
+    /**
+     * Listener receiving every region of differences as soon as it's grouped.
+     */
+    private /* @Nullable */ RegionListener regionListener;
+
+    /**
+     * Flag for recording {@link ImageComparisonMetrics} of every comparison and attaching them to the result.
+     */
+    private boolean metricsEnabled = false;
+
+    /**
+     * Metrics of the running comparison, only set while comparing with {@link #metricsEnabled}.
+     */
+    private /* @Nullable */ ImageComparisonMetrics metrics;
+
+    /**
+     * Flag for keeping the {@link DistanceMap} of the first comparison. If set, further comparisons, e.g. with
+     * another pixel tolerance level, excluded areas, threshold or minimal rectangle size, populate the matrix of
+     * the differences from the map instead of reading the images again.
+     */
+    private boolean distanceMapCaching = false;
+
+    /**
+     * Cached distances between the pixels of the images, only set with {@link #distanceMapCaching}.
+     */
+    private /* @Nullable */ DistanceMap distanceMap;
+
+    /**
+     * Flag for comparing only the luma of the pixels. If set, both images are converted once into planes of 8-bit
+     * luma, which are compared instead of the RGB values, so that colour differences of equal brightness are
+     * ignored.
+     */
+    private boolean lumaComparison = false;
+
+    /**
+     * Luma of the expected image, converted on the first comparison with {@link #lumaComparison}.
+     */
+    private /* @Nullable */ LumaPlane expectedLuma;
+
+    /**
+     * Luma of the actual image, converted on the first comparison with {@link #lumaComparison}.
+     */
+    private /* @Nullable */ LumaPlane actualLuma;
+
     /**
      * Sets rectangle color of image difference. By default, it's red.
      */
@@ -200,36 +344,431 @@ public class ImageComparison {
         this(expected, actual, null);
     }
 
+    /**
+     * Create a new instance of {@link ImageComparison} that compares the actual image against the
+     * {@link ImageFingerprint} of the expected image. The expected image is only read if the fingerprints differ,
+     * hence the {@link ImageComparisonResult} of a match doesn't contain the expected image.
+     *
+     * @param expectedFingerprint fingerprint of the expected image
+     * @param expected            path of the expected image to be read if needed
+     * @param actual              actual image to be compared
+     */
+    public ImageComparison(ImageFingerprint expectedFingerprint, String expected, BufferedImage actual) {
+        this.expectedFingerprint = expectedFingerprint;
+        this.expectedPath = expected;
+        this.actual = actual;
+        differenceConstant = calculateDifferenceConstant();
+    }
+
+    /**
+     * Create a new instance of {@link ImageComparison} that compares the raw pixels of the images, reading them
+     * straight from the buffers. The images of the {@link ImageComparisonResult} view the buffers, so the buffers
+     * must stay unchanged for the whole lifetime of the result, see {@link PixelBuffer}.
+     *
+     * @param expected the {@link PixelBuffer} of the expected image to be compared
+     * @param actual   the {@link PixelBuffer} of the actual image to be compared
+     */
+    public ImageComparison(PixelBuffer expected, PixelBuffer actual) {
+        this(expected.asImage(), actual.asImage(), null);
+    }
+
+    /**
+     * Create a new instance of {@link ImageComparison} that compares the actual image against the
+     * {@link PreparedExpectedImage}, whose excluded areas are used unless others are set.
+     *
+     * @param expected prepared expected image to be compared
+     * @param actual   actual image to be compared
+     */
+    public ImageComparison(PreparedExpectedImage expected, BufferedImage actual) {
+        this(expected.getImage(), actual, null);
+        this.preparedExpected = expected;
+        this.excludedAreas = new ExcludedAreas(expected.getExcludedAreas());
+        this.rasterisedExclusions = expected.getExclusionMask();
+    }
+
     /**
      * Draw rectangles which cover the regions of the difference pixels.
      *
      * @return the result of the drawing.
      */
     public ImageComparisonResult compareImages() {
+        return measure(this::compare);
+    }
+
+    /**
+     * Compare the images again after they changed only inside the dirty areas, reusing the previous result for
+     * everything else. Only the dirty areas, expanded by {@link #threshold}, and the previous rectangles touching
+     * them are scanned again, the new rectangles are spliced into the previous ones.
+     * <p>
+     * The previous result needs to be of a comparison with the same settings, of images which equal these ones
+     * outside the dirty areas.
+     * With {@link #allowingPercentOfDifferentPixels}, which needs the count of all different pixels, with a
+     * {@link #minimalRectangleSize}, whose dropped regions aren't in the previous result, with {@link #includedAreas},
+     * or for images of different sizes, the images are compared completely.
+     * A cached {@link DistanceMap} is dropped, so that the next comparison builds it from the changed images.
+     *
+     * @param dirtyAreas the areas of the images, which might have changed since the previous result.
+     * @param previous   the {@link ImageComparisonResult} of the previous comparison.
+     * @return the result of the drawing.
+     */
+    public ImageComparisonResult compareImages(List<Rectangle> dirtyAreas, ImageComparisonResult previous) {
+        return measure(() -> compareDirtyAreas(dirtyAreas, previous));
+    }
+
+    /**
+     * Replace the images by the next ones, e.g. the next frames of a sequence, keeping the settings and the
+     * {@link ExclusionMask} of the excluded areas, which is rasterised only once for images of the same size.
+     *
+     * @param expected the next expected image.
+     * @param actual   the next actual image.
+     * @return this {@link ImageComparison} for the next images.
+     */
+    ImageComparison setImages(BufferedImage expected, BufferedImage actual) {
+        if (actual.getWidth() != this.actual.getWidth() || actual.getHeight() != this.actual.getHeight()) {
+            includedScanAreas = null;
+        }
+        this.expected = expected;
+        this.actual = actual;
+        expectedPath = null;
+        expectedFingerprint = null;
+        preparedExpected = null;
+        expectedPyramid = null;
+        distanceMap = null;
+        expectedLuma = null;
+        actualLuma = null;
+        return this;
+    }
+
+    /**
+     * Run the comparison, recording {@link ImageComparisonMetrics}, Flight Recorder events and
+     * {@link ComparisonStatistics} if any of them is requested.
+     *
+     * @param comparison the comparison to be run.
+     * @return the result of the comparison.
+     */
+    private ImageComparisonResult measure(Supplier<ImageComparisonResult> comparison) {
+        Object event = ComparisonEvents.beginCompareImages();
+        ComparisonStatistics statistics = ComparisonStatistics.getRegistered();
+        if (!metricsEnabled && event == null && statistics == null) {
+            return comparison.get();
+        }
+        metrics = new ImageComparisonMetrics();
+        try {
+            long start = System.nanoTime();
+            ImageComparisonResult result = comparison.get();
+            metrics.setTotalNanos(System.nanoTime() - start);
+            if (event != null) {
+                ComparisonEvents.commitCompareImages(event,
+                        expected != null ? expected.getWidth() : expectedFingerprint.getWidth(),
+                        expected != null ? expected.getHeight() : expectedFingerprint.getHeight(),
+                        actual, result, metrics);
+            }
+            if (statistics != null) {
+                statistics.record(result.getImageComparisonState(), (long) actual.getWidth() * actual.getHeight(),
+                        metrics);
+            }
+            return metricsEnabled ? result.setMetrics(metrics) : result;
+        } finally {
+            metrics = null;
+        }
+    }
+
+    /**
+     * Compare the images.
+     *
+     * @return the result of the comparison.
+     */
+    private ImageComparisonResult compare() {
+        List<Rectangle> scanAreas = null;
+        if (expected == null && expectedFingerprint != null && distanceMap == null) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            ImageFingerprint actualFingerprint =
+                    ImageComparisonUtil.createFingerprint(actual, expectedFingerprint.getTileSize());
+            boolean fingerprintMatches = expectedFingerprint.matches(actualFingerprint);
+            if (metrics != null) {
+                metrics.addNanos(Stage.SCANNING, System.nanoTime() - start)
+                        .addFingerprintChecks(1)
+                        .addFingerprintMatches(fingerprintMatches ? 1 : 0);
+            }
+            if (fingerprintMatches) {
+                return createMatchResult();
+            }
+            if (expectedFingerprint.getWidth() == actual.getWidth()
+                    && expectedFingerprint.getHeight() == actual.getHeight()) {
+                // pixels of the tiles with equal hashes can't differ.
+                scanAreas = expectedFingerprint.getDifferentTiles(actualFingerprint);
+            }
+        }
+        BufferedImage expected = getExpected();
 
         // check that the images have the same size
         if (isImageSizesNotEqual(expected, actual)) {
-            BufferedImage actualResized = ImageComparisonUtil.resize(actual, expected.getWidth(), expected.getHeight());
-            return ImageComparisonResult.defaultSizeMisMatchResult(expected, actual,
-                    getDifferencePercent(actualResized, expected));
+            if (overlapComparison) {
+                return compareOverlappingAreas(expected);
+            }
+            return ImageComparisonResult.defaultSizeMisMatchResult(expected, actual);
         }
 
-        List<Rectangle> rectangles = populateRectangles();
+        RectangleList rectangles = populateRectangles(scanAreas);
 
         if (rectangles.isEmpty()) {
-            ImageComparisonResult matchResult = ImageComparisonResult.defaultMatchResult(expected, actual);
-            if (drawExcludedRectangles) {
-                matchResult.setResult(drawRectangles(rectangles));
-                saveImageForDestination(matchResult.getResult());
+            return createMatchResult();
+        }
+
+        BufferedImage resultImage = drawRectangles(rectangles);
+        saveImageForDestination(resultImage);
+        return ImageComparisonResult.defaultMisMatchResult(expected, actual, getDifferencePercent(expected))
+                .setResult(resultImage)
+                .setRectangles(rectangles.toRectangles());
+    }
+
+    /**
+     * Compare the dirty areas of the images and splice the differences into the previous result.
+     *
+     * @param dirtyAreas the areas of the images, which might have changed.
+     * @param previous   the {@link ImageComparisonResult} of the previous comparison.
+     * @return the result of the comparison.
+     */
+    private ImageComparisonResult compareDirtyAreas(List<Rectangle> dirtyAreas, ImageComparisonResult previous) {
+        // the cached distances and luma of the actual image are stale inside the dirty areas.
+        distanceMap = null;
+        actualLuma = null;
+        BufferedImage expected = getExpected();
+        // regions smaller than the minimal rectangle size are missing from the previous result, but might grow.
+        if (allowingPercentOfDifferentPixels > 0 || minimalRectangleSize > 1 || !includedAreas.isEmpty()
+                || isImageSizesNotEqual(expected, actual)
+                || previous.getImageComparisonState() == ImageComparisonState.SIZE_MISMATCH) {
+            return compare();
+        }
+        List<Rectangle> previousRectangles = previous.getRectangles() != null
+                ? previous.getRectangles() : Collections.emptyList();
+        RectangleList scanAreas = new RectangleList(dirtyAreas.size() + previousRectangles.size());
+        for (Rectangle area : dirtyAreas) {
+            addScanArea(scanAreas, area);
+        }
+        // previous rectangles touching a scanned area might change, so they are scanned as well, until no more
+        // rectangles are touched.
+        boolean[] rescanned = new boolean[previousRectangles.size()];
+        boolean touched = true;
+        while (touched) {
+            touched = false;
+            for (int i = 0; i < previousRectangles.size(); i++) {
+                if (!rescanned[i] && intersects(scanAreas, previousRectangles.get(i))) {
+                    rescanned[i] = true;
+                    touched = true;
+                    addScanArea(scanAreas, previousRectangles.get(i));
+                }
+            }
+        }
+        RectangleList kept = new RectangleList(previousRectangles.size());
+        for (int i = 0; i < previousRectangles.size(); i++) {
+            if (!rescanned[i]) {
+                Rectangle rectangle = previousRectangles.get(i);
+                kept.add(rectangle.getMinPoint().x, rectangle.getMinPoint().y,
+                        rectangle.getMaxPoint().x, rectangle.getMaxPoint().y);
+            }
+        }
+
+        // every cluster of scan areas gets a matrix of its bounds, which is labeled only inside the areas.
+        ExclusionMask exclusions = getExclusions(actual.getWidth(), actual.getHeight());
+        RectangleList regions = new RectangleList();
+        regionCount = FIRST_REGION;
+        for (RectangleList cluster : clusterScanAreas(scanAreas)) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            long countOfDifferentPixels = populateTheMatrixOfTheDifferences(expected, exclusions, cluster);
+            if (metrics != null) {
+                metrics.addNanos(Stage.SCANNING, System.nanoTime() - start);
+            }
+            if (countOfDifferentPixels > 0) {
+                start = metrics != null ? System.nanoTime() : 0;
+                boolean proceed = groupRegions(regions, cluster);
+                if (metrics != null) {
+                    metrics.addNanos(Stage.LABELING, System.nanoTime() - start);
+                }
+                if (!proceed) {
+                    break;
+                }
+            }
+        }
+        if (metrics != null) {
+            metrics.addRegionCount(regionCount - FIRST_REGION);
+        }
+        RectangleList rectangles = kept;
+        if (!regions.isEmpty()) {
+            regions.addAll(kept);
+            rectangles = mergeRegions(regions);
+        }
+
+        if (rectangles.isEmpty()) {
+            return createMatchResult();
+        }
+
+        BufferedImage resultImage = drawRectangles(rectangles);
+        saveImageForDestination(resultImage);
+        // the differences outside of the dirty areas aren't known from the previous result.
+        pixelDifferencesSummed = false;
+        return ImageComparisonResult.defaultMisMatchResult(expected, actual, getDifferencePercent(expected))
+                .setResult(resultImage)
+                .setRectangles(rectangles.toRectangles());
+    }
+
+    /**
+     * Get the difference percent of images of the same size, from the {@link #sumOfPixelDifferences} if the last
+     * scan summed it completely, otherwise by comparing the RGB values of the images again. With included areas,
+     * the percent is relative to their pixels.
+     *
+     * @param expected the expected image.
+     * @return the difference percent.
+     */
+    private float getDifferencePercent(BufferedImage expected) {
+        List<Rectangle> included = getIncludedScanAreas(expected.getWidth(), expected.getHeight());
+        if (!pixelDifferencesSummed) {
+            return included != null ? ImageComparisonUtil.getDifferencePercent(actual, expected, included)
+                    : ImageComparisonUtil.getDifferencePercent(actual, expected);
+        }
+        long pixelCount = included != null
+                ? getPixelCount(included) : (long) expected.getWidth() * expected.getHeight();
+        return pixelCount == 0 ? 0 : (float) (100.0 * sumOfPixelDifferences / (4L * 255 * pixelCount));
+    }
+
+    /**
+     * Add the area, expanded by {@link #threshold} and clipped to the bounds of the actual image, to the areas to be
+     * scanned.
+     *
+     * @param scanAreas the {@link RectangleList} of the areas to be scanned.
+     * @param area      the {@link Rectangle} to be added.
+     */
+    private void addScanArea(RectangleList scanAreas, Rectangle area) {
+        int minX = Math.max(0, area.getMinPoint().x - threshold);
+        int minY = Math.max(0, area.getMinPoint().y - threshold);
+        int maxX = Math.min(actual.getWidth() - 1, area.getMaxPoint().x + threshold);
+        int maxY = Math.min(actual.getHeight() - 1, area.getMaxPoint().y + threshold);
+        if (minX <= maxX && minY <= maxY) {
+            scanAreas.add(minX, minY, maxX, maxY);
+        }
+    }
+
+    /**
+     * Split the scan areas into clusters, which are more than {@link #threshold} pixels apart from each other, so
+     * their regions can't join.
+     *
+     * @param scanAreas the {@link RectangleList} of the areas to be scanned.
+     * @return the {@link RectangleList}s of the clusters.
+     */
+    private List<RectangleList> clusterScanAreas(RectangleList scanAreas) {
+        // union-find of the areas, every area points to an area of its cluster, the root points to itself.
+        int[] parents = new int[scanAreas.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+            for (int j = 0; j < i; j++) {
+                if (scanAreas.getMinX(j) - scanAreas.getMaxX(i) <= threshold
+                        && scanAreas.getMinX(i) - scanAreas.getMaxX(j) <= threshold
+                        && scanAreas.getMinY(j) - scanAreas.getMaxY(i) <= threshold
+                        && scanAreas.getMinY(i) - scanAreas.getMaxY(j) <= threshold) {
+                    parents[findRoot(parents, i)] = findRoot(parents, j);
+                }
+            }
+        }
+        List<RectangleList> clusters = new ArrayList<>();
+        int[] clusterIndices = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            int root = findRoot(parents, i);
+            if (root == i) {
+                clusterIndices[i] = clusters.size();
+                clusters.add(new RectangleList());
+            }
+        }
+        for (int i = 0; i < parents.length; i++) {
+            clusters.get(clusterIndices[findRoot(parents, i)]).add(scanAreas.getMinX(i), scanAreas.getMinY(i),
+                    scanAreas.getMaxX(i), scanAreas.getMaxY(i));
+        }
+        return clusters;
+    }
+
+    /**
+     * Find the root of the cluster of the area.
+     *
+     * @param parents the parents of the areas.
+     * @param i       the index of the area.
+     * @return the index of the root area.
+     */
+    private static int findRoot(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Say if the rectangle intersects any of the areas.
+     *
+     * @param areas     the {@link RectangleList} of the areas.
+     * @param rectangle the {@link Rectangle} to be checked.
+     * @return {@code true} if they intersect, {@code false} otherwise.
+     */
+    private static boolean intersects(RectangleList areas, Rectangle rectangle) {
+        for (int i = 0; i < areas.size(); i++) {
+            if (areas.getMinX(i) <= rectangle.getMaxPoint().x && rectangle.getMinPoint().x <= areas.getMaxX(i)
+                    && areas.getMinY(i) <= rectangle.getMaxPoint().y && rectangle.getMinPoint().y <= areas.getMaxY(i)) {
+                return true;
             }
-            return matchResult;
         }
+        return false;
+    }
+
+    /**
+     * Compare images of different sizes on the area where they overlap, both aligned at the top left corner.
+     *
+     * @param expected the expected image.
+     * @return the {@link ImageComparisonResult} with {@link ImageComparisonState#SIZE_MISMATCH}, containing the
+     * rectangles of the differences in the overlapping area and of the non-overlapping strips.
+     */
+    private ImageComparisonResult compareOverlappingAreas(BufferedImage expected) {
+        RectangleList rectangles = populateRectangles(null);
+        rectangles.addAll(createNonOverlappingStrips(expected));
 
         BufferedImage resultImage = drawRectangles(rectangles);
         saveImageForDestination(resultImage);
-        return ImageComparisonResult.defaultMisMatchResult(expected, actual, getDifferencePercent(actual, expected))
+        return ImageComparisonResult.overlapSizeMisMatchResult(expected, actual)
                 .setResult(resultImage)
-                .setRectangles(rectangles);
+                .setRectangles(rectangles.toRectangles());
+    }
+
+    /**
+     * Create the rectangles covering the pixels, which only one of the images has. The strip right of the
+     * overlapping area spans the height of the wider image, the strip below it the width of the overlapping area.
+     *
+     * @param expected the expected image.
+     * @return the {@link RectangleList} of up to two non-overlapping rectangles.
+     */
+    private RectangleList createNonOverlappingStrips(BufferedImage expected) {
+        int minWidth = Math.min(expected.getWidth(), actual.getWidth());
+        int minHeight = Math.min(expected.getHeight(), actual.getHeight());
+        int maxHeight = Math.max(expected.getHeight(), actual.getHeight());
+        RectangleList strips = new RectangleList(2);
+        if (expected.getWidth() != actual.getWidth()) {
+            BufferedImage wider = expected.getWidth() > actual.getWidth() ? expected : actual;
+            strips.add(minWidth, 0, wider.getWidth() - 1, wider.getHeight() - 1);
+        }
+        if (expected.getHeight() != actual.getHeight()) {
+            strips.add(0, minHeight, minWidth - 1, maxHeight - 1);
+        }
+        return strips;
+    }
+
+    /**
+     * Create the {@link ImageComparisonResult} for equal images.
+     *
+     * @return the {@link ImageComparisonResult} with {@link ImageComparisonState#MATCH}.
+     */
+    ImageComparisonResult createMatchResult() {
+        ImageComparisonResult matchResult = ImageComparisonResult.defaultMatchResult(expected, actual);
+        if (drawExcludedRectangles) {
+            matchResult.setResult(drawRectangles(new RectangleList(0)));
+            saveImageForDestination(matchResult.getResult());
+        }
+        return matchResult;
     }
 
     /**
@@ -246,173 +785,707 @@ public class ImageComparison {
     /**
      * Populate binary matrix with "0" and "1". If the pixels are different set it as "1", otherwise "0".
      *
+     * @param scanAreas the areas to be scanned, or {@code null} if the whole image should be scanned.
      * @return the count of different pixels
      */
-    private long populateTheMatrixOfTheDifferences() {
-        long countOfDifferentPixels = 0;
-        matrix = new int[expected.getHeight()][expected.getWidth()];
-        for (int y = 0; y < expected.getHeight(); y++) {
-            for (int x = 0; x < expected.getWidth(); x++) {
-                if (!excludedAreas.contains(new Point(x, y))) {
-                    if (isDifferentPixels(expected.getRGB(x, y), actual.getRGB(x, y))) {
-                        matrix[y][x] = 1;
-                        countOfDifferentPixels++;
-                    }
-                }
+    long populateTheMatrixOfTheDifferences(/* @Nullable */ List<Rectangle> scanAreas) {
+        BufferedImage expected = getExpected();
+        // images of different sizes are compared on their overlapping area.
+        int width = Math.min(expected.getWidth(), actual.getWidth());
+        int height = Math.min(expected.getHeight(), actual.getHeight());
+        matrix = new int[height][width];
+        matrixMinX = 0;
+        matrixMinY = 0;
+        if (metrics != null) {
+            metrics.addBytesAllocated(4L * width * height);
+        }
+        sumOfPixelDifferences = 0;
+        // the luma comparison doesn't compare the RGB values.
+        pixelDifferencesSummed = !lumaComparison;
+        scanAreas = restrictToIncludedAreas(scanAreas, width, height);
+        if (distanceMap == null && scanAreas == null && pyramidComparison && !lumaComparison) {
+            scanAreas = getExpectedPyramid(expected, width, height)
+                    .findDifferentAreas(ImagePyramid.of(getCompared(actual, width, height)), threshold);
+        }
+        // the luma planes are kept instead of a distance map.
+        if (distanceMap == null && distanceMapCaching && !lumaComparison) {
+            distanceMap = DistanceMap.of(expected, actual, width, height, scanAreas);
+            if (metrics != null) {
+                metrics.addPixelsScanned(scanAreas == null ? (long) width * height : getPixelCount(scanAreas))
+                        .addBytesAllocated(distanceMap.getBytes());
+            }
+        }
+        if (distanceMap != null && !lumaComparison) {
+            // the cached distances stand in for the pixels of the images.
+            pixelDifferencesSummed = false;
+            long countOfDifferentPixels = distanceMap.populate(matrix, differenceConstant,
+                    getExclusions(width, height));
+            if (metrics != null) {
+                metrics.addDifferentPixels(countOfDifferentPixels);
             }
+            return countOfDifferentPixels;
+        }
+        ExclusionMask exclusions = getExclusions(width, height);
+        if (scanAreas == null) {
+            return populateTheMatrixOfTheDifferences(expected, exclusions, 0, 0, width - 1, height - 1);
+        }
+        long countOfDifferentPixels = 0;
+        for (Rectangle area : scanAreas) {
+            countOfDifferentPixels += populateTheMatrixOfTheDifferences(expected, exclusions,
+                    area.getMinPoint().x, area.getMinPoint().y, area.getMaxPoint().x, area.getMaxPoint().y);
         }
         return countOfDifferentPixels;
     }
 
     /**
-     * Say if the two pixels equal or not. The rule is the difference between two pixels
-     * need to be more than {@link #pixelToleranceLevel}.
+     * Get the {@link ImagePyramid} of the compared area of the expected image, which is built once and kept for
+     * further comparisons.
      *
-     * @param expectedRgb the RGB value of the Pixel of the Expected image.
-     * @param actualRgb   the RGB value of the Pixel of the Actual image.
-     * @return {@code true} if they' are difference, {@code false} otherwise.
+     * @param expected the expected image.
+     * @param width    the width of the compared area.
+     * @param height   the height of the compared area.
+     * @return the {@link ImagePyramid} of the compared area.
      */
-    private boolean isDifferentPixels(int expectedRgb, int actualRgb) {
-        if (expectedRgb == actualRgb) {
-            return false;
-        } else if (pixelToleranceLevel == 0.0) {
-            return true;
+    ImagePyramid getExpectedPyramid(BufferedImage expected, int width, int height) {
+        if (preparedExpected != null && width == expected.getWidth() && height == expected.getHeight()) {
+            return preparedExpected.getPyramid();
+        }
+        if (expectedPyramid == null || expectedPyramid.getWidth() != width || expectedPyramid.getHeight() != height) {
+            expectedPyramid = ImagePyramid.of(getCompared(expected, width, height));
         }
+        return expectedPyramid;
+    }
 
-        int alpha1 = (expectedRgb >> 24) & 0xff;
-        int red1 = (expectedRgb >> 16) & 0xff;
-        int green1 = (expectedRgb >> 8) & 0xff;
-        int blue1 = (expectedRgb) & 0xff;
+    /**
+     * Get the compared area of the image.
+     *
+     * @return the image itself if it is compared completely, otherwise its subimage.
+     */
+    private static BufferedImage getCompared(BufferedImage image, int width, int height) {
+        return width == image.getWidth() && height == image.getHeight()
+                ? image : image.getSubimage(0, 0, width, height);
+    }
 
-        int alpha2 = (actualRgb >> 24) & 0xff;
-        int red2 = (actualRgb >> 16) & 0xff;
-        int green2 = (actualRgb >> 8) & 0xff;
-        int blue2 = (actualRgb) & 0xff;
+    /**
+     * Restrict the areas to be scanned to the {@link #includedAreas}.
+     *
+     * @param scanAreas the areas to be scanned, or {@code null} if the whole images should be scanned.
+     * @param width     the width of the compared area.
+     * @param height    the height of the compared area.
+     * @return the restricted areas, or {@code null} if the whole images should be scanned.
+     */
+    private /* @Nullable */ List<Rectangle> restrictToIncludedAreas(/* @Nullable */ List<Rectangle> scanAreas,
+            int width, int height) {
+        List<Rectangle> included = getIncludedScanAreas(width, height);
+        if (included == null || scanAreas == null) {
+            return included != null ? included : scanAreas;
+        }
+        List<Rectangle> restricted = new ArrayList<>();
+        for (Rectangle scanArea : scanAreas) {
+            for (Rectangle area : included) {
+                int minX = Math.max(scanArea.getMinPoint().x, area.getMinPoint().x);
+                int minY = Math.max(scanArea.getMinPoint().y, area.getMinPoint().y);
+                int maxX = Math.min(scanArea.getMaxPoint().x, area.getMaxPoint().x);
+                int maxY = Math.min(scanArea.getMaxPoint().y, area.getMaxPoint().y);
+                if (minX <= maxX && minY <= maxY) {
+                    restricted.add(new Rectangle(minX, minY, maxX, maxY));
+                }
+            }
+        }
+        return restricted;
+    }
 
-        return (Math.pow(red2 - red1, 2)
-                + Math.pow(green2 - green1, 2)
-                + Math.pow(blue2 - blue1, 2)
-                + Math.pow(alpha2 - alpha1, 2)) > differenceConstant;
+    /**
+     * Get the {@link #includedAreas} clipped to the compared area and split into disjoint {@link Rectangle}s, so
+     * that no pixel is scanned or counted twice.
+     *
+     * @param width  the width of the compared area.
+     * @param height the height of the compared area.
+     * @return the disjoint areas, or {@code null} if the whole images are compared.
+     */
+    private /* @Nullable */ List<Rectangle> getIncludedScanAreas(int width, int height) {
+        if (includedAreas.isEmpty()) {
+            return null;
+        }
+        if (includedScanAreas == null) {
+            List<Rectangle> disjoint = new ArrayList<>();
+            for (Rectangle area : includedAreas) {
+                List<Rectangle> pieces = new ArrayList<>();
+                addRemainder(pieces, area.getMinPoint().x, area.getMinPoint().y,
+                        area.getMaxPoint().x, area.getMaxPoint().y, 0, 0, width - 1, height - 1);
+                for (Rectangle other : disjoint) {
+                    List<Rectangle> remainders = new ArrayList<>();
+                    for (Rectangle piece : pieces) {
+                        subtract(remainders, piece, other);
+                    }
+                    pieces = remainders;
+                }
+                disjoint.addAll(pieces);
+            }
+            includedScanAreas = disjoint;
+        }
+        return includedScanAreas;
     }
 
     /**
-     * Populate rectangles of the differences
+     * Add the parts of the piece, which are outside of the other {@link Rectangle}.
      *
-     * @return the collection of the populated {@link Rectangle} objects.
+     * @param remainders the collection the parts are added to.
+     * @param piece      the {@link Rectangle} to be subtracted from.
+     * @param other      the {@link Rectangle} to be subtracted.
      */
-    private List<Rectangle> populateRectangles() {
-        long countOfDifferentPixels = populateTheMatrixOfTheDifferences();
+    private static void subtract(List<Rectangle> remainders, Rectangle piece, Rectangle other) {
+        int minX = piece.getMinPoint().x;
+        int minY = piece.getMinPoint().y;
+        int maxX = piece.getMaxPoint().x;
+        int maxY = piece.getMaxPoint().y;
+        int otherMinX = other.getMinPoint().x;
+        int otherMinY = other.getMinPoint().y;
+        int otherMaxX = other.getMaxPoint().x;
+        int otherMaxY = other.getMaxPoint().y;
+        if (otherMinX > maxX || otherMaxX < minX || otherMinY > maxY || otherMaxY < minY) {
+            remainders.add(piece);
+            return;
+        }
+        // the bands above and below the other rectangle span the whole piece, the ones beside it only its rows.
+        addRemainder(remainders, minX, minY, maxX, otherMinY - 1, minX, minY, maxX, maxY);
+        addRemainder(remainders, minX, otherMaxY + 1, maxX, maxY, minX, minY, maxX, maxY);
+        int bandMinY = Math.max(minY, otherMinY);
+        int bandMaxY = Math.min(maxY, otherMaxY);
+        addRemainder(remainders, minX, bandMinY, otherMinX - 1, bandMaxY, minX, minY, maxX, maxY);
+        addRemainder(remainders, otherMaxX + 1, bandMinY, maxX, bandMaxY, minX, minY, maxX, maxY);
+    }
 
-        if (countOfDifferentPixels == 0) {
-            return emptyList();
+    /**
+     * Add the part of the provided bounds inside the clip, if it isn't empty. All bounds are inclusive.
+     */
+    private static void addRemainder(List<Rectangle> remainders, int minX, int minY, int maxX, int maxY,
+            int clipMinX, int clipMinY, int clipMaxX, int clipMaxY) {
+        minX = Math.max(minX, clipMinX);
+        minY = Math.max(minY, clipMinY);
+        maxX = Math.min(maxX, clipMaxX);
+        maxY = Math.min(maxY, clipMaxY);
+        if (minX <= maxX && minY <= maxY) {
+            remainders.add(new Rectangle(minX, minY, maxX, maxY));
         }
+    }
 
-        if (isAllowedPercentOfDifferentPixels(countOfDifferentPixels)) {
-            return emptyList();
+    /**
+     * Count the pixels inside the areas.
+     *
+     * @param areas the collection of the {@link Rectangle}s.
+     * @return the count of the pixels.
+     */
+    private static long getPixelCount(List<Rectangle> areas) {
+        long pixelCount = 0;
+        for (Rectangle area : areas) {
+            pixelCount += (long) area.getWidth() * area.getHeight();
+        }
+        return pixelCount;
+    }
+
+    /**
+     * Get the {@link #excludedAreas} and the {@link #exclusionMask} as a single {@link ExclusionMask}, which is
+     * rasterised once and kept for further comparisons.
+     *
+     * @param width  the width of the compared area.
+     * @param height the height of the compared area.
+     * @return the {@link ExclusionMask}, or {@code null} if no pixel is excluded.
+     */
+    private /* @Nullable */ ExclusionMask getExclusions(int width, int height) {
+        if (exclusionMask == null && excludedAreas.getExcluded().isEmpty()) {
+            return null;
         }
-        groupRegions();
-        List<Rectangle> rectangles = new ArrayList<>();
-        while (counter <= regionCount) {
-            Rectangle rectangle = createRectangle();
-            if (!rectangle.equals(Rectangle.createDefault()) && rectangle.size() >= minimalRectangleSize) {
-                rectangles.add(rectangle);
+        if (rasterisedExclusions == null || rasterisedExclusions.getWidth() < width
+                || rasterisedExclusions.getHeight() < height) {
+            rasterisedExclusions = ExclusionMask.of(excludedAreas.getExcluded(), width, height);
+            if (exclusionMask != null) {
+                rasterisedExclusions.addAll(exclusionMask);
             }
-            counter++;
         }
+        return rasterisedExclusions;
+    }
 
-        return mergeRectangles(mergeRectangles(rectangles));
+    /**
+     * Populate a binary matrix covering the bounds of the areas only inside the areas.
+     *
+     * @param expected   the expected image.
+     * @param exclusions the {@link ExclusionMask} of the pixels to be ignored.
+     * @param areas      the {@link RectangleList} of the areas to be scanned.
+     * @return the count of different pixels inside the areas.
+     */
+    private long populateTheMatrixOfTheDifferences(BufferedImage expected, /* @Nullable */ ExclusionMask exclusions,
+            RectangleList areas) {
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < areas.size(); i++) {
+            minX = Math.min(minX, areas.getMinX(i));
+            minY = Math.min(minY, areas.getMinY(i));
+            maxX = Math.max(maxX, areas.getMaxX(i));
+            maxY = Math.max(maxY, areas.getMaxY(i));
+        }
+        matrix = new int[maxY - minY + 1][maxX - minX + 1];
+        matrixMinX = minX;
+        matrixMinY = minY;
+        if (metrics != null) {
+            metrics.addBytesAllocated(4L * (maxX - minX + 1) * (maxY - minY + 1));
+        }
+        long countOfDifferentPixels = 0;
+        for (int i = 0; i < areas.size(); i++) {
+            countOfDifferentPixels += populateTheMatrixOfTheDifferences(expected, exclusions,
+                    areas.getMinX(i), areas.getMinY(i), areas.getMaxX(i), areas.getMaxY(i));
+        }
+        return countOfDifferentPixels;
     }
 
     /**
-     * Say if provided {@param countOfDifferentPixels} is allowed for {@link ImageComparisonState#MATCH} state.
+     * Populate the part of the binary matrix inside the provided bounds, which are inclusive.
      *
-     * @param countOfDifferentPixels the count of the different pixels in comparison.
-     * @return true, if percent of different pixels lower or equal {@link ImageComparison#allowingPercentOfDifferentPixels},
-     * false - otherwise.
+     * @return the count of different pixels inside the bounds.
      */
-    private boolean isAllowedPercentOfDifferentPixels(long countOfDifferentPixels) {
-        long totalPixelCount = ((long) matrix.length) * ((long) matrix[0].length);
-        double actualPercentOfDifferentPixels = ((double) countOfDifferentPixels / (double) totalPixelCount) * 100;
-        return actualPercentOfDifferentPixels <= allowingPercentOfDifferentPixels;
+    private long populateTheMatrixOfTheDifferences(BufferedImage expected, /* @Nullable */ ExclusionMask exclusions,
+            int minX, int minY, int maxX, int maxY) {
+        if (lumaComparison) {
+            return populateTheMatrixOfTheLumaDifferences(exclusions, minX, minY, maxX, maxY);
+        }
+        long countOfDifferentPixels = 0;
+        long countOfIncludedPixels = 0;
+        long sum = 0;
+        int firstWord = minX / Long.SIZE;
+        int lastWord = maxX / Long.SIZE;
+        // rows are read in bulk, because reading a single pixel allocates a data element array for every pixel.
+        int rowWidth = maxX - minX + 1;
+        // the pixels of prepared or normalized images are read in place.
+        int[] expectedPixels = preparedExpected != null
+                ? preparedExpected.getPixels() : ImageComparisonUtil.getNormalizedPixels(expected);
+        int[] actualPixels = ImageComparisonUtil.getNormalizedPixels(actual);
+        int[] expectedRow = expectedPixels != null ? expectedPixels : new int[rowWidth];
+        int[] actualRow = actualPixels != null ? actualPixels : new int[rowWidth];
+        for (int y = minY; y <= maxY; y++) {
+            int expectedOffset = expectedPixels != null ? y * expected.getWidth() : -minX;
+            int actualOffset = actualPixels != null ? y * actual.getWidth() : -minX;
+            if (expectedPixels == null) {
+                ImageComparisonUtil.readRow(expected, minX, y, rowWidth, expectedRow, 0);
+            }
+            if (actualPixels == null) {
+                ImageComparisonUtil.readRow(actual, minX, y, rowWidth, actualRow, 0);
+            }
+            int[] matrixRow = matrix[y - matrixMinY];
+            if (exclusions == null) {
+                for (int x = minX; x <= maxX; x++) {
+                    int expectedRgb = expectedRow[expectedOffset + x];
+                    int actualRgb = actualRow[actualOffset + x];
+                    if (expectedRgb != actualRgb) {
+                        sum += ImageComparisonUtil.pixelDiff(expectedRgb, actualRgb);
+                        if (isDifferentPixels(expectedRgb, actualRgb)) {
+                            matrixRow[x - matrixMinX] = 1;
+                            countOfDifferentPixels++;
+                        }
+                    }
+                }
+                countOfIncludedPixels += rowWidth;
+                continue;
+            }
+            // the difference percent covers the excluded pixels as well.
+            for (int x = minX; x <= maxX; x++) {
+                sum += ImageComparisonUtil.pixelDiff(expectedRow[expectedOffset + x], actualRow[actualOffset + x]);
+            }
+            // the included pixels are taken from the mask word by word, skipping the excluded runs.
+            for (int word = firstWord; word <= lastWord; word++) {
+                long included = exclusions.getIncludedBits(word, y);
+                if (word == firstWord) {
+                    included &= -1L << minX;
+                }
+                if (word == lastWord) {
+                    included &= -1L >>> (Long.SIZE - 1 - maxX % Long.SIZE);
+                }
+                countOfIncludedPixels += Long.bitCount(included);
+                while (included != 0) {
+                    int x = word * Long.SIZE + Long.numberOfTrailingZeros(included);
+                    included &= included - 1;
+                    if (isDifferentPixels(expectedRow[expectedOffset + x], actualRow[actualOffset + x])) {
+                        matrixRow[x - matrixMinX] = 1;
+                        countOfDifferentPixels++;
+                    }
+                }
+            }
+        }
+        sumOfPixelDifferences += sum;
+        addScanMetrics((long) rowWidth * (maxY - minY + 1), countOfIncludedPixels, countOfDifferentPixels);
+        return countOfDifferentPixels;
     }
 
     /**
-     * Create a {@link Rectangle} object.
+     * Populate the part of the binary matrix inside the provided bounds, which are inclusive, comparing the
+     * {@link LumaPlane}s of the images.
      *
-     * @return the {@link Rectangle} object.
+     * @return the count of different pixels inside the bounds.
      */
-    private Rectangle createRectangle() {
-        Rectangle rectangle = Rectangle.createDefault();
-        for (int y = 0; y < matrix.length; y++) {
-            for (int x = 0; x < matrix[0].length; x++) {
-                if (matrix[y][x] == counter) {
-                    updateRectangleCreation(rectangle, x, y);
+    private long populateTheMatrixOfTheLumaDifferences(/* @Nullable */ ExclusionMask exclusions,
+            int minX, int minY, int maxX, int maxY) {
+        LumaPlane expectedPlane = getExpectedLuma();
+        LumaPlane actualPlane = getActualLuma();
+        byte[] expectedLuma = expectedPlane.getLuma();
+        byte[] actualLuma = actualPlane.getLuma();
+        int lumaDifferenceConstant = getLumaDifferenceConstant();
+        long countOfDifferentPixels = 0;
+        long countOfIncludedPixels = 0;
+        int rowWidth = maxX - minX + 1;
+        int firstWord = minX / Long.SIZE;
+        int lastWord = maxX / Long.SIZE;
+        for (int y = minY; y <= maxY; y++) {
+            int expectedOffset = y * expectedPlane.getWidth();
+            int actualOffset = y * actualPlane.getWidth();
+            int[] matrixRow = matrix[y - matrixMinY];
+            if (exclusions == null) {
+                for (int x = minX; x <= maxX; x++) {
+                    int distance = (expectedLuma[expectedOffset + x] & 0xff) - (actualLuma[actualOffset + x] & 0xff);
+                    if (Math.abs(distance) > lumaDifferenceConstant) {
+                        matrixRow[x - matrixMinX] = 1;
+                        countOfDifferentPixels++;
+                    }
+                }
+                countOfIncludedPixels += rowWidth;
+                continue;
+            }
+            for (int word = firstWord; word <= lastWord; word++) {
+                long included = exclusions.getIncludedBits(word, y);
+                if (word == firstWord) {
+                    included &= -1L << minX;
+                }
+                if (word == lastWord) {
+                    included &= -1L >>> (Long.SIZE - 1 - maxX % Long.SIZE);
+                }
+                countOfIncludedPixels += Long.bitCount(included);
+                while (included != 0) {
+                    int x = word * Long.SIZE + Long.numberOfTrailingZeros(included);
+                    included &= included - 1;
+                    int distance = (expectedLuma[expectedOffset + x] & 0xff) - (actualLuma[actualOffset + x] & 0xff);
+                    if (Math.abs(distance) > lumaDifferenceConstant) {
+                        matrixRow[x - matrixMinX] = 1;
+                        countOfDifferentPixels++;
+                    }
                 }
             }
         }
-        return rectangle;
+        addScanMetrics((long) rowWidth * (maxY - minY + 1), countOfIncludedPixels, countOfDifferentPixels);
+        return countOfDifferentPixels;
+    }
+
+    /**
+     * Add the counters of a scan to the {@link #metrics}, if they are recorded.
+     *
+     * @param countOfPixels          the count of the pixels inside the scanned bounds.
+     * @param countOfIncludedPixels  the count of the pixels, which are not excluded.
+     * @param countOfDifferentPixels the count of the different pixels.
+     */
+    private void addScanMetrics(long countOfPixels, long countOfIncludedPixels, long countOfDifferentPixels) {
+        if (metrics != null) {
+            metrics.addPixelsScanned(countOfIncludedPixels)
+                    .addPixelsExcluded(countOfPixels - countOfIncludedPixels)
+                    .addDifferentPixels(countOfDifferentPixels);
+        }
+    }
+
+    /**
+     * Get the {@link LumaPlane} of the expected image, which is converted once, or taken from the
+     * {@link PreparedExpectedImage}.
+     *
+     * @return the {@link LumaPlane} of the expected image.
+     */
+    private LumaPlane getExpectedLuma() {
+        if (expectedLuma == null) {
+            expectedLuma = preparedExpected != null ? preparedExpected.getLumaPlane() : LumaPlane.of(getExpected());
+        }
+        return expectedLuma;
+    }
+
+    /**
+     * Get the {@link LumaPlane} of the actual image, which is converted once.
+     *
+     * @return the {@link LumaPlane} of the actual image.
+     */
+    private LumaPlane getActualLuma() {
+        if (actualLuma == null) {
+            actualLuma = LumaPlane.of(actual);
+        }
+        return actualLuma;
+    }
+
+    /**
+     * Calculate the distance which the luma of two pixels needs to exceed to be different. It corresponds to the
+     * difference constant of the RGB values, whose maximal distance is twice the maximal luma distance.
+     *
+     * @return the luma difference constant.
+     */
+    private int getLumaDifferenceConstant() {
+        return (int) (pixelToleranceLevel * 255);
+    }
+
+    /**
+     * Count the different pixels of a row of the images, which are not excluded and inside the
+     * {@link #includedAreas}, if any are set. The images need to be of the same size.
+     *
+     * @param y           the Y-coordinate of the row.
+     * @param actualRow   the pixels of the row of the actual image.
+     * @param expectedRow the buffer for the pixels of the row of the expected image.
+     * @return the count of different pixels.
+     */
+    long countDifferentPixels(int y, int[] actualRow, int[] expectedRow) {
+        int width = actualRow.length;
+        BufferedImage expected = getExpected();
+        ExclusionMask exclusions = getExclusions(width, expected.getHeight());
+        List<Rectangle> included = getIncludedScanAreas(width, expected.getHeight());
+        if (included == null) {
+            ImageComparisonUtil.readRow(expected, 0, y, width, expectedRow, 0);
+            return countDifferentPixels(y, 0, width - 1, actualRow, expectedRow, exclusions);
+        }
+        long countOfDifferentPixels = 0;
+        for (Rectangle area : included) {
+            if (area.getMinPoint().y <= y && y <= area.getMaxPoint().y) {
+                int minX = area.getMinPoint().x;
+                int maxX = area.getMaxPoint().x;
+                ImageComparisonUtil.readRow(expected, minX, y, maxX - minX + 1, expectedRow, minX);
+                countOfDifferentPixels += countDifferentPixels(y, minX, maxX, actualRow, expectedRow, exclusions);
+            }
+        }
+        return countOfDifferentPixels;
+    }
+
+    /**
+     * Count the different pixels of a row of the images inside the provided bounds, which are inclusive.
+     *
+     * @return the count of different pixels.
+     */
+    private long countDifferentPixels(int y, int minX, int maxX, int[] actualRow, int[] expectedRow,
+            /* @Nullable */ ExclusionMask exclusions) {
+        int lumaDifferenceConstant = getLumaDifferenceConstant();
+        long countOfDifferentPixels = 0;
+        for (int x = minX; x <= maxX; x++) {
+            if (expectedRow[x] != actualRow[x] && (exclusions == null || !exclusions.contains(x, y))
+                    && (lumaComparison
+                    ? Math.abs(LumaPlane.luma(expectedRow[x]) - LumaPlane.luma(actualRow[x])) > lumaDifferenceConstant
+                    : isDifferentPixels(expectedRow[x], actualRow[x]))) {
+                countOfDifferentPixels++;
+            }
+        }
+        return countOfDifferentPixels;
+    }
+
+    /**
+     * Get the count of the pixels, which are compared, i.e. of the {@link #includedAreas} if any are set.
+     *
+     * @param width  the width of the compared area.
+     * @param height the height of the compared area.
+     * @return the count of the compared pixels, which the percent of different pixels is relative to.
+     */
+    long getComparedPixelCount(int width, int height) {
+        List<Rectangle> included = getIncludedScanAreas(width, height);
+        return included != null ? getPixelCount(included) : (long) width * height;
+    }
+
+    /**
+     * Say if the two pixels equal or not. The rule is the difference between two pixels
+     * need to be more than {@link #pixelToleranceLevel}.
+     *
+     * @param expectedRgb the RGB value of the Pixel of the Expected image.
+     * @param actualRgb   the RGB value of the Pixel of the Actual image.
+     * @return {@code true} if they' are difference, {@code false} otherwise.
+     */
+    private boolean isDifferentPixels(int expectedRgb, int actualRgb) {
+        return ImageComparisonUtil.isDifferentPixels(expectedRgb, actualRgb, pixelToleranceLevel, differenceConstant);
     }
 
     /**
-     * Update {@link Point} of the rectangle based on x and y coordinates.
+     * Populate rectangles of the differences
+     *
+     * @param scanAreas the areas to be scanned, or {@code null} if the whole image should be scanned.
+     * @return the {@link RectangleList} of the populated rectangles.
      */
-    private void updateRectangleCreation(Rectangle rectangle, int x, int y) {
-        if (x < rectangle.getMinPoint().getX()) {
-            rectangle.getMinPoint().x = x;
+    private RectangleList populateRectangles(/* @Nullable */ List<Rectangle> scanAreas) {
+        // without an allowed percent, every region is a difference, so it can be delivered before the scan ends.
+        if (regionListener != null && scanAreas == null && allowingPercentOfDifferentPixels == 0
+                && includedAreas.isEmpty() && !pyramidComparison && !distanceMapCaching && distanceMap == null) {
+            return streamRegions();
         }
-        if (x > rectangle.getMaxPoint().getX()) {
-            rectangle.getMaxPoint().x = x;
+        long start = metrics != null ? System.nanoTime() : 0;
+        long countOfDifferentPixels = populateTheMatrixOfTheDifferences(scanAreas);
+        if (metrics != null) {
+            metrics.addNanos(Stage.SCANNING, System.nanoTime() - start);
         }
 
-        if (y < rectangle.getMinPoint().getY()) {
-            rectangle.getMinPoint().y = y;
+        if (countOfDifferentPixels == 0) {
+            return new RectangleList(0);
         }
-        if (y > rectangle.getMaxPoint().getY()) {
-            rectangle.getMaxPoint().y = y;
+
+        if (isAllowedPercentOfDifferentPixels(countOfDifferentPixels)) {
+            return new RectangleList(0);
         }
+        return groupAndMergeRegions();
     }
 
     /**
-     * Find overlapping rectangles and merge them.
+     * Scan the images band by band of {@link #REGION_LISTENER_ROWS} rows and group the regions, which can't grow
+     * into the rows below any more, right after every band. So the {@link #regionListener} receives the regions in
+     * the order of their first pixel while the images are scanned, and stopping it skips the remaining rows.
+     *
+     * @return the {@link RectangleList} of the merged rectangles.
      */
-    private List<Rectangle> mergeRectangles(List<Rectangle> rectangles) {
-        int position = 0;
-        while (position < rectangles.size()) {
-            if (rectangles.get(position).equals(Rectangle.createZero())) {
-                position++;
+    private RectangleList streamRegions() {
+        BufferedImage expected = getExpected();
+        int width = Math.min(expected.getWidth(), actual.getWidth());
+        int height = Math.min(expected.getHeight(), actual.getHeight());
+        matrix = new int[height][width];
+        matrixMinX = 0;
+        matrixMinY = 0;
+        if (metrics != null) {
+            metrics.addBytesAllocated(4L * width * height);
+        }
+        ExclusionMask exclusions = getExclusions(width, height);
+        sumOfPixelDifferences = 0;
+        pixelDifferencesSummed = !lumaComparison;
+        regionCount = FIRST_REGION;
+        RectangleList regions = new RectangleList();
+        // the position of the next pixel to start a region from, and the row which has to be scanned before.
+        int nextX = 0;
+        int nextY = 0;
+        int waitingRow = 0;
+        for (int minY = 0; minY < height; minY += REGION_LISTENER_ROWS) {
+            int maxY = Math.min(minY + REGION_LISTENER_ROWS, height) - 1;
+            long start = metrics != null ? System.nanoTime() : 0;
+            populateTheMatrixOfTheDifferences(expected, exclusions, 0, minY, width - 1, maxY);
+            if (metrics != null) {
+                metrics.addNanos(Stage.SCANNING, System.nanoTime() - start);
+                start = System.nanoTime();
             }
-            for (int i = 1 + position; i < rectangles.size(); i++) {
-                Rectangle r1 = rectangles.get(position);
-                Rectangle r2 = rectangles.get(i);
-                if (r2.equals(Rectangle.createZero())) {
-                    continue;
-                }
-                if (r1.isOverlapping(r2)) {
-                    rectangles.set(position, r1.merge(r2));
-                    r2.makeZeroRectangle();
-                    if (position != 0) {
-                        position--;
+            // a region grows at most by the threshold into the rows below its pixels.
+            int finishedRows = maxY == height - 1 ? height : maxY + 1 - threshold;
+            boolean proceed = true;
+            while (proceed && maxY >= waitingRow && nextY < finishedRows) {
+                if (matrix[nextY][nextX] == 1) {
+                    regionMinX = nextX;
+                    regionMinY = nextY;
+                    regionMaxX = nextX;
+                    regionMaxY = nextY;
+                    regionPixelCount = 0;
+                    joinToRegion(nextX, nextY);
+                    if (regionMaxY >= finishedRows) {
+                        // the region might still grow, it's grouped again once the rows below are scanned.
+                        ungroupRegion();
+                        waitingRow = regionMaxY + threshold;
+                        break;
                     }
+                    regionCount++;
+                    proceed = addRegion(regions);
+                }
+                if (++nextX == width) {
+                    nextX = 0;
+                    nextY++;
                 }
             }
-            position++;
+            if (metrics != null) {
+                metrics.addNanos(Stage.LABELING, System.nanoTime() - start);
+            }
+            if (!proceed) {
+                // the remaining rows aren't scanned.
+                pixelDifferencesSummed = false;
+                break;
+            }
         }
+        if (metrics != null) {
+            metrics.addRegionCount(regionCount - FIRST_REGION);
+        }
+        return mergeRegions(regions);
+    }
+
+    /**
+     * Mark the pixels of the region which has just been grouped as different pixels again.
+     */
+    private void ungroupRegion() {
+        for (int y = regionMinY; y <= regionMaxY; y++) {
+            int[] row = matrix[y - matrixMinY];
+            for (int x = regionMinX; x <= regionMaxX; x++) {
+                if (row[x - matrixMinX] == regionCount) {
+                    row[x - matrixMinX] = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Group the regions of the matrix and merge their rectangles.
+     *
+     * @return the {@link RectangleList} of the merged rectangles.
+     */
+    private RectangleList groupAndMergeRegions() {
+        if (metrics == null) {
+            return mergeRegions(groupRegions());
+        }
+        long start = System.nanoTime();
+        RectangleList rectangles = groupRegions();
+        metrics.addNanos(Stage.LABELING, System.nanoTime() - start)
+                .addRegionCount(regionCount - FIRST_REGION);
+        return mergeRegions(rectangles);
+    }
+
+    /**
+     * Merge the rectangles of the regions.
+     *
+     * @param rectangles the {@link RectangleList} of the regions, which is merged in place.
+     * @return the {@link RectangleList} of the merged rectangles.
+     */
+    private RectangleList mergeRegions(RectangleList rectangles) {
+        if (metrics == null) {
+            rectangles.merge();
+            rectangles.merge();
+            return rectangles;
+        }
+        long start = System.nanoTime();
+        int countBeforeMerging = rectangles.size();
+        rectangles.merge();
+        rectangles.merge();
+        metrics.addNanos(Stage.MERGING, System.nanoTime() - start)
+                .addMergeCount(countBeforeMerging - rectangles.size());
+        return rectangles;
+    }
 
-        return rectangles.stream().filter(it -> !it.equals(Rectangle.createZero())).collect(Collectors.toList());
+    /**
+     * Say if provided {@param countOfDifferentPixels} is allowed for {@link ImageComparisonState#MATCH} state.
+     *
+     * @param countOfDifferentPixels the count of the different pixels in comparison.
+     * @return true, if percent of different pixels lower or equal {@link ImageComparison#allowingPercentOfDifferentPixels},
+     * false - otherwise.
+     */
+    private boolean isAllowedPercentOfDifferentPixels(long countOfDifferentPixels) {
+        // with included areas, the percent is relative to their pixels.
+        long totalPixelCount = includedScanAreas != null
+                ? getPixelCount(includedScanAreas)
+                : ((long) matrix.length) * ((long) matrix[0].length);
+        double actualPercentOfDifferentPixels = ((double) countOfDifferentPixels / (double) totalPixelCount) * 100;
+        return actualPercentOfDifferentPixels <= allowingPercentOfDifferentPixels;
     }
 
     /**
      * Draw the rectangles based on collection of the rectangles and result image.
      *
-     * @param rectangles the collection of the {@link Rectangle} objects.
+     * @param rectangles the {@link RectangleList} of the differences.
      * @return result {@link BufferedImage} with drawn rectangles.
      */
-    private BufferedImage drawRectangles(List<Rectangle> rectangles) {
+    BufferedImage drawRectangles(RectangleList rectangles) {
+        long start = metrics != null ? System.nanoTime() : 0;
         BufferedImage resultImage = ImageComparisonUtil.deepCopy(actual);
         Graphics2D graphics = preparedGraphics2D(resultImage);
 
         drawExcludedRectangles(graphics);
         drawRectanglesOfDifferences(rectangles, graphics);
+        if (metrics != null) {
+            DataBuffer dataBuffer = resultImage.getRaster().getDataBuffer();
+            metrics.addNanos(Stage.DRAWING, System.nanoTime() - start)
+                    .addBytesAllocated((long) dataBuffer.getSize() * dataBuffer.getNumBanks()
+                            * DataBuffer.getDataTypeSize(dataBuffer.getDataType()) / 8);
+        }
 
         return resultImage;
     }
@@ -425,10 +1498,11 @@ public class ImageComparison {
     private void drawExcludedRectangles(Graphics2D graphics) {
         if (drawExcludedRectangles) {
             graphics.setColor(this.excludedRectangleColor);
-            draw(graphics, excludedAreas.getExcluded());
+            RectangleList excluded = RectangleList.of(excludedAreas.getExcluded());
+            draw(graphics, excluded);
 
             if (fillExcludedRectangles) {
-                fillRectangles(graphics, excludedAreas.getExcluded(), percentOpacityExcludedRectangles);
+                fillRectangles(graphics, excluded, percentOpacityExcludedRectangles);
             }
         }
     }
@@ -436,21 +1510,15 @@ public class ImageComparison {
     /**
      * Draw rectangles with the differences.
      *
-     * @param rectangles the collection of the {@link Rectangle} of differences.
+     * @param rectangles the {@link RectangleList} of differences.
      * @param graphics   prepared {@link Graphics2D}object.
      */
-    private void drawRectanglesOfDifferences(List<Rectangle> rectangles, Graphics2D graphics) {
-        List<Rectangle> rectanglesForDraw;
+    private void drawRectanglesOfDifferences(RectangleList rectangles, Graphics2D graphics) {
         graphics.setColor(this.differenceRectangleColor);
 
-        if (maximalRectangleCount > 0 && maximalRectangleCount < rectangles.size()) {
-            rectanglesForDraw = rectangles.stream()
-                    .sorted(Comparator.comparing(Rectangle::size))
-                    .skip(rectangles.size() - maximalRectangleCount)
-                    .collect(Collectors.toList());
-        } else {
-            rectanglesForDraw = new ArrayList<>(rectangles);
-        }
+        RectangleList rectanglesForDraw = maximalRectangleCount > 0
+                ? rectangles.largest(maximalRectangleCount)
+                : rectangles;
 
         draw(graphics, rectanglesForDraw);
 
@@ -478,7 +1546,11 @@ public class ImageComparison {
      */
     private void saveImageForDestination(BufferedImage image) {
         if (Objects.nonNull(destination)) {
+            long start = metrics != null ? System.nanoTime() : 0;
             ImageComparisonUtil.saveImage(destination, image);
+            if (metrics != null) {
+                metrics.addNanos(Stage.SAVING, System.nanoTime() - start);
+            }
         }
     }
 
@@ -488,14 +1560,16 @@ public class ImageComparison {
      * so need to draw rectangle on one px smaller because minpoint + width/height is point on excluded pixel.
      *
      * @param graphics   the {@link Graphics2D} object for drawing.
-     * @param rectangles the collection of the {@link Rectangle}.
+     * @param rectangles the {@link RectangleList} to be drawn.
      */
-    private void draw(Graphics2D graphics, List<Rectangle> rectangles) {
-        rectangles.forEach(rectangle -> graphics.drawRect(
-                rectangle.getMinPoint().x,
-                rectangle.getMinPoint().y,
-                rectangle.getWidth() - 1,
-                rectangle.getHeight() - 1));
+    private void draw(Graphics2D graphics, RectangleList rectangles) {
+        for (int i = 0; i < rectangles.size(); i++) {
+            graphics.drawRect(
+                    rectangles.getMinX(i),
+                    rectangles.getMinY(i),
+                    rectangles.getWidth(i) - 1,
+                    rectangles.getHeight(i) - 1);
+        }
     }
 
     /**
@@ -504,35 +1578,106 @@ public class ImageComparison {
      * so need to draw rectangle fill two px smaller to fit inside rectangle borders.
      *
      * @param graphics       the {@link Graphics2D} object for drawing.
-     * @param rectangles     rectangles the collection of the {@link Rectangle}.
+     * @param rectangles     the {@link RectangleList} to be filled.
      * @param percentOpacity the opacity of the fill.
      */
-    private void fillRectangles(Graphics2D graphics, List<Rectangle> rectangles, double percentOpacity) {
+    private void fillRectangles(Graphics2D graphics, RectangleList rectangles, double percentOpacity) {
 
         graphics.setColor(new Color(graphics.getColor().getRed(),
                 graphics.getColor().getGreen(),
                 graphics.getColor().getBlue(),
                 (int) (percentOpacity / 100 * 255)));
-        rectangles.forEach(rectangle -> graphics.fillRect(
-                rectangle.getMinPoint().x - 1,
-                rectangle.getMinPoint().y - 1,
-                rectangle.getWidth() - 2,
-                rectangle.getHeight() - 2));
+        for (int i = 0; i < rectangles.size(); i++) {
+            graphics.fillRect(
+                    rectangles.getMinX(i) - 1,
+                    rectangles.getMinY(i) - 1,
+                    rectangles.getWidth(i) - 2,
+                    rectangles.getHeight(i) - 2);
+        }
     }
 
 
     /**
      * Group rectangle regions in matrix.
+     *
+     * @return the {@link RectangleList} of the regions not smaller than {@link #minimalRectangleSize}, in the order
+     * of their first pixel.
+     */
+    RectangleList groupRegions() {
+        regionCount = FIRST_REGION;
+        RectangleList regions = new RectangleList();
+        if (includedScanAreas == null) {
+            groupRegions(regions, matrixMinX, matrixMinY,
+                    matrixMinX + matrix[0].length - 1, matrixMinY + matrix.length - 1);
+            return regions;
+        }
+        // only the included areas can contain different pixels.
+        for (Rectangle area : includedScanAreas) {
+            if (!groupRegions(regions, area.getMinPoint().x, area.getMinPoint().y,
+                    area.getMaxPoint().x, area.getMaxPoint().y)) {
+                break;
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Group the regions starting inside the areas.
+     *
+     * @param regions the {@link RectangleList} the regions are added to.
+     * @param areas   the {@link RectangleList} of the areas.
+     * @return {@code true} if grouping should continue, {@code false} if the listener stopped it.
+     */
+    private boolean groupRegions(RectangleList regions, RectangleList areas) {
+        for (int i = 0; i < areas.size(); i++) {
+            if (!groupRegions(regions, areas.getMinX(i), areas.getMinY(i), areas.getMaxX(i), areas.getMaxY(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Group the regions starting inside the provided bounds, which are inclusive.
+     *
+     * @param regions the {@link RectangleList} the regions are added to.
+     * @return {@code true} if grouping should continue, {@code false} if the listener stopped it.
      */
-    private void groupRegions() {
-        for (int y = 0; y < matrix.length; y++) {
-            for (int x = 0; x < matrix[y].length; x++) {
-                if (matrix[y][x] == 1) {
+    private boolean groupRegions(RectangleList regions, int minX, int minY, int maxX, int maxY) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if (matrix[y - matrixMinY][x - matrixMinX] == 1) {
+                    regionMinX = x;
+                    regionMinY = y;
+                    regionMaxX = x;
+                    regionMaxY = y;
+                    regionPixelCount = 0;
                     joinToRegion(x, y);
                     regionCount++;
+                    if (!addRegion(regions)) {
+                        return false;
+                    }
                 }
             }
         }
+        return true;
+    }
+
+    /**
+     * Add the region which has just been grouped, if it isn't smaller than {@link #minimalRectangleSize}, and
+     * deliver it to the {@link #regionListener}.
+     *
+     * @param regions the {@link RectangleList} of the regions.
+     * @return {@code true} if grouping should continue, {@code false} if the listener stopped it.
+     */
+    private boolean addRegion(RectangleList regions) {
+        long size = (long) (regionMaxX - regionMinX + 1) * (regionMaxY - regionMinY + 1);
+        if (size < minimalRectangleSize) {
+            return true;
+        }
+        regions.add(regionMinX, regionMinY, regionMaxX, regionMaxY);
+        return regionListener == null || regionListener.onRegion(
+                new Rectangle(regionMinX, regionMinY, regionMaxX, regionMaxY), regionPixelCount);
     }
 
     /**
@@ -548,7 +1693,12 @@ public class ImageComparison {
             return;
         }
 
-        matrix[y][x] = regionCount;
+        matrix[y - matrixMinY][x - matrixMinX] = regionCount;
+        regionPixelCount++;
+        regionMinX = Math.min(regionMinX, x);
+        regionMinY = Math.min(regionMinY, y);
+        regionMaxX = Math.max(regionMaxX, x);
+        regionMaxY = Math.max(regionMaxY, y);
 
         for (int i = 0; i < threshold; i++) {
             joinToRegion(x + 1 + i, y);
@@ -568,7 +1718,80 @@ public class ImageComparison {
      * @return List of {@link Rectangle}
      */
     public List<Rectangle> createMask() {
-        return populateRectangles();
+        return populateRectangles(null).toRectangles();
+    }
+
+    /**
+     * Compute the {@link DistanceHistogram} of the squared distances between the pixels of the images, in a single
+     * scan which skips the excluded areas and covers only the included areas, if set. Images of different sizes
+     * are compared on the area where they overlap. The histogram tells how many pixels differ at any pixel
+     * tolerance level, without comparing again. With {@link #lumaComparison}, the luma distances are counted.
+     *
+     * @return the {@link DistanceHistogram} of the images.
+     */
+    public DistanceHistogram createDistanceHistogram() {
+        BufferedImage expected = getExpected();
+        int width = Math.min(expected.getWidth(), actual.getWidth());
+        int height = Math.min(expected.getHeight(), actual.getHeight());
+        long[] counts = new long[DistanceHistogram.MAX_SQUARED_DISTANCE + 1];
+        ExclusionMask exclusions = getExclusions(width, height);
+        List<Rectangle> included = getIncludedScanAreas(width, height);
+        List<Rectangle> areas = included != null
+                ? included : Collections.singletonList(new Rectangle(0, 0, width - 1, height - 1));
+        long countOfExcludedPixels = 0;
+        int[] expectedRow = new int[width];
+        int[] actualRow = new int[width];
+        for (Rectangle area : areas) {
+            int minX = area.getMinPoint().x;
+            int rowWidth = area.getWidth();
+            for (int y = area.getMinPoint().y; y <= area.getMaxPoint().y; y++) {
+                if (lumaComparison) {
+                    countOfExcludedPixels += countLumaDistances(counts, exclusions, minX, y, rowWidth);
+                    continue;
+                }
+                ImageComparisonUtil.readRow(expected, minX, y, rowWidth, expectedRow, 0);
+                ImageComparisonUtil.readRow(actual, minX, y, rowWidth, actualRow, 0);
+                for (int i = 0; i < rowWidth; i++) {
+                    if (exclusions == null || !exclusions.contains(minX + i, y)) {
+                        counts[ImageComparisonUtil.squaredDistance(expectedRow[i], actualRow[i])]++;
+                    } else {
+                        countOfExcludedPixels++;
+                    }
+                }
+            }
+        }
+        return new DistanceHistogram(counts, getPixelCount(areas), countOfExcludedPixels);
+    }
+
+    /**
+     * Count the squared luma distances of a part of a row of the images, scaled by 4 to the range of the squared
+     * RGB distances, so that the {@link DistanceHistogram} counts the pixels which differ at a pixel tolerance level
+     * in the luma comparison.
+     *
+     * @param counts     the counts of the pixels by their squared distance.
+     * @param exclusions the {@link ExclusionMask} of the pixels to be skipped, or {@code null}.
+     * @param minX       the X-coordinate of the first pixel.
+     * @param y          the Y-coordinate of the row.
+     * @param rowWidth   the count of the pixels.
+     * @return the count of the excluded pixels.
+     */
+    private long countLumaDistances(long[] counts, /* @Nullable */ ExclusionMask exclusions, int minX, int y,
+            int rowWidth) {
+        LumaPlane expectedPlane = getExpectedLuma();
+        LumaPlane actualPlane = getActualLuma();
+        int expectedOffset = y * expectedPlane.getWidth();
+        int actualOffset = y * actualPlane.getWidth();
+        long countOfExcludedPixels = 0;
+        for (int x = minX; x < minX + rowWidth; x++) {
+            if (exclusions == null || !exclusions.contains(x, y)) {
+                int distance = (expectedPlane.getLuma()[expectedOffset + x] & 0xff)
+                        - (actualPlane.getLuma()[actualOffset + x] & 0xff);
+                counts[4 * distance * distance]++;
+            } else {
+                countOfExcludedPixels++;
+            }
+        }
+        return countOfExcludedPixels;
     }
 
     /**
@@ -579,7 +1802,10 @@ public class ImageComparison {
      * @return true if jump rejected, otherwise false.
      */
     private boolean isJumpRejected(int x, int y) {
-        return y < 0 || y >= matrix.length || x < 0 || x >= matrix[y].length || matrix[y][x] != 1;
+        int row = y - matrixMinY;
+        int column = x - matrixMinX;
+        return row < 0 || row >= matrix.length || column < 0 || column >= matrix[row].length
+                || matrix[row][column] != 1;
     }
 
     public double getPixelToleranceLevel() {
@@ -595,7 +1821,7 @@ public class ImageComparison {
     }
 
     private double calculateDifferenceConstant() {
-        return Math.pow(pixelToleranceLevel * Math.sqrt(Math.pow(255, 2) * 4), 2);
+        return ImageComparisonUtil.calculateDifferenceConstant(pixelToleranceLevel);
     }
 
     public boolean isDrawExcludedRectangles() {
@@ -626,6 +1852,13 @@ public class ImageComparison {
     }
 
     public BufferedImage getExpected() {
+        if (expected == null) {
+            long start = metrics != null ? System.nanoTime() : 0;
+            expected = ImageComparisonUtil.readImageFromResources(expectedPath);
+            if (metrics != null) {
+                metrics.addNanos(Stage.DECODING, System.nanoTime() - start);
+            }
+        }
         return expected;
     }
 
@@ -662,6 +1895,52 @@ public class ImageComparison {
 
     public ImageComparison setExcludedAreas(List<Rectangle> excludedAreas) {
         this.excludedAreas = new ExcludedAreas(excludedAreas);
+        this.rasterisedExclusions = null;
+        return this;
+    }
+
+    public List<Rectangle> getIncludedAreas() {
+        return includedAreas;
+    }
+
+    /**
+     * Set the areas of interest, which are the only ones scanned, grouped and counted for the difference percent.
+     * The percents are relative to the pixels of the included areas. A cached distance map is dropped, because
+     * it only covers the previously included areas.
+     *
+     * @param includedAreas the included {@link Rectangle}s, or an empty list to compare the whole images.
+     * @return updated {@link ImageComparison}.
+     */
+    public ImageComparison setIncludedAreas(List<Rectangle> includedAreas) {
+        this.includedAreas = new ArrayList<>(includedAreas);
+        this.includedScanAreas = null;
+        this.distanceMap = null;
+        return this;
+    }
+
+    public boolean isLumaComparison() {
+        return lumaComparison;
+    }
+
+    public ImageComparison setLumaComparison(boolean lumaComparison) {
+        this.lumaComparison = lumaComparison;
+        return this;
+    }
+
+    public /* @Nullable */ ExclusionMask getExclusionMask() {
+        return exclusionMask;
+    }
+
+    /**
+     * Set the {@link ExclusionMask} of the pixels to be ignored in addition to the excluded areas. Unlike the
+     * excluded areas, the mask isn't drawn in the result image.
+     *
+     * @param exclusionMask the {@link ExclusionMask}, or {@code null} to remove it.
+     * @return updated {@link ImageComparison}.
+     */
+    public ImageComparison setExclusionMask(/* @Nullable */ ExclusionMask exclusionMask) {
+        this.exclusionMask = exclusionMask;
+        this.rasterisedExclusions = null;
         return this;
     }
 
@@ -704,6 +1983,54 @@ public class ImageComparison {
         return this;
     }
 
+    public boolean isPyramidComparison() {
+        return pyramidComparison;
+    }
+
+    public ImageComparison setPyramidComparison(boolean pyramidComparison) {
+        this.pyramidComparison = pyramidComparison;
+        return this;
+    }
+
+    public boolean isOverlapComparison() {
+        return overlapComparison;
+    }
+
+    public ImageComparison setOverlapComparison(boolean overlapComparison) {
+        this.overlapComparison = overlapComparison;
+        return this;
+    }
+
+    public RegionListener getRegionListener() {
+        return regionListener;
+    }
+
+    public ImageComparison setRegionListener(RegionListener regionListener) {
+        this.regionListener = regionListener;
+        return this;
+    }
+
+    public boolean isDistanceMapCaching() {
+        return distanceMapCaching;
+    }
+
+    public ImageComparison setDistanceMapCaching(boolean distanceMapCaching) {
+        this.distanceMapCaching = distanceMapCaching;
+        if (!distanceMapCaching) {
+            distanceMap = null;
+        }
+        return this;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public ImageComparison setMetricsEnabled(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
     public Color getDifferenceRectangleColor() {
         return this.differenceRectangleColor;
     }
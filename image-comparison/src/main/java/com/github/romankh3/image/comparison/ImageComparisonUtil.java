@@ -26,24 +26,67 @@ import java.awt.Graphics;
 import java.awt.Image;
 import java.awt.image.BufferedImage;
 import java.awt.image.ColorModel;
+import java.awt.image.ComponentSampleModel;
 import java.awt.image.ConvolveOp;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
 import java.awt.image.Kernel;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
 import java.awt.image.WritableRaster;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
 import com.github.romankh3.image.comparison.exception.ImageComparisonException;
 import com.github.romankh3.image.comparison.exception.ImageNotFoundException;
+import com.github.romankh3.image.comparison.model.DistanceHistogram;
+import com.github.romankh3.image.comparison.model.ImageFingerprint;
+import com.github.romankh3.image.comparison.model.Rectangle;
 
 /**
  * Tools for the {@link ImageComparison} object.
  */
 public final class ImageComparisonUtil {
 
+    /**
+     * Magic number at the beginning of every fingerprint file, "ICFP".
+     */
+    private static final int FINGERPRINT_MAGIC = 0x49434650;
+
+    /**
+     * Version of the fingerprint file format.
+     */
+    private static final int FINGERPRINT_VERSION = 1;
+
+    /**
+     * Offset basis of the 64-bit FNV-1a hash.
+     */
+    private static final long HASH_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Prime of the 64-bit FNV-1a hash.
+     */
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    /**
+     * Count of the rows of the resized image, which are computed together by {@link #resize(BufferedImage, int,
+     * int, boolean)}.
+     */
+    private static final int RESIZE_CHUNK_HEIGHT = 16;
+
     /**
      * Make a copy of the {@link BufferedImage} object.
      *
@@ -57,6 +100,148 @@ public final class ImageComparisonUtil {
         return new BufferedImage(cm, raster, isAlphaPremultiplied, null);
     }
 
+    /**
+     * Convert the image into the canonical format of the comparison, {@link BufferedImage#TYPE_INT_ARGB}, whose
+     * pixels the scan reads in place. Images decoded as {@link BufferedImage#TYPE_INT_RGB},
+     * {@link BufferedImage#TYPE_3BYTE_BGR} or {@link BufferedImage#TYPE_4BYTE_ABGR} are converted straight from
+     * their rasters, any other layout by a single bulk read of its RGB values. The RGB values of the normalized
+     * image equal the ones of the image.
+     * <p>
+     * The type of the normalized image tells that the conversion happened, so normalizing it again returns it as
+     * it is. Normalize the images once when they are loaded, e.g. before caching baselines.
+     *
+     * @param image the image to be normalized.
+     * @return the normalized image, or the image itself if it's already normalized.
+     */
+    public static BufferedImage normalize(BufferedImage image) {
+        if (isNormalized(image)) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage normalized = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] data = ((DataBufferInt) normalized.getRaster().getDataBuffer()).getData();
+        WritableRaster raster = image.getRaster();
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB:
+                if (hasPackedRows(raster, 1)) {
+                    int[] source = ((DataBufferInt) raster.getDataBuffer()).getData();
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = 0xff000000 | source[i];
+                    }
+                    return normalized;
+                }
+                break;
+            case BufferedImage.TYPE_3BYTE_BGR:
+                if (hasPackedRows(raster, 3)) {
+                    byte[] source = ((DataBufferByte) raster.getDataBuffer()).getData();
+                    for (int i = 0, j = 0; i < data.length; i++, j += 3) {
+                        data[i] = 0xff000000 | (source[j + 2] & 0xff) << 16 | (source[j + 1] & 0xff) << 8
+                                | source[j] & 0xff;
+                    }
+                    return normalized;
+                }
+                break;
+            case BufferedImage.TYPE_4BYTE_ABGR:
+                if (hasPackedRows(raster, 4)) {
+                    byte[] source = ((DataBufferByte) raster.getDataBuffer()).getData();
+                    for (int i = 0, j = 0; i < data.length; i++, j += 4) {
+                        data[i] = (source[j] & 0xff) << 24 | (source[j + 3] & 0xff) << 16
+                                | (source[j + 2] & 0xff) << 8 | source[j + 1] & 0xff;
+                    }
+                    return normalized;
+                }
+                break;
+            default:
+                break;
+        }
+        for (int y = 0; y < height; y++) {
+            readRow(image, 0, y, width, data, y * width);
+        }
+        return normalized;
+    }
+
+    /**
+     * Say if the image is in the canonical format of the comparison, see {@link #normalize(BufferedImage)}.
+     *
+     * @param image the image to be checked.
+     * @return {@code true} if the image is normalized.
+     */
+    public static boolean isNormalized(BufferedImage image) {
+        return image.getType() == BufferedImage.TYPE_INT_ARGB;
+    }
+
+    /**
+     * Get the pixels of a normalized image, which can be read in place row by row.
+     *
+     * @param image the image.
+     * @return the RGB values of the pixels, or {@code null} if the image isn't normalized or its rows aren't packed
+     * into its data, e.g. for a subimage.
+     */
+    static /* @Nullable */ int[] getNormalizedPixels(BufferedImage image) {
+        return isNormalized(image) ? getPackedPixelData(image) : null;
+    }
+
+    /**
+     * Get the data of an image with one {@code int} per pixel, e.g. of {@link BufferedImage#TYPE_INT_RGB}, which
+     * can be read in place row by row.
+     *
+     * @param image the image.
+     * @return the data elements of the pixels, or {@code null} if the image has another data layout or its rows
+     * aren't packed into its data, e.g. for a subimage.
+     */
+    static /* @Nullable */ int[] getPackedPixelData(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferInt) || raster.getNumDataElements() != 1
+                || !hasPackedRows(raster, 1)) {
+            return null;
+        }
+        return ((DataBufferInt) raster.getDataBuffer()).getData();
+    }
+
+    /**
+     * Read the RGB values of a part of a row of the image, straight from the buffer if the image views a
+     * {@link PixelBuffer}.
+     *
+     * @param image  the image.
+     * @param minX   the X-coordinate of the first pixel.
+     * @param y      the Y-coordinate of the row.
+     * @param width  the count of the pixels.
+     * @param row    the array the RGB values are written to.
+     * @param offset the index of the first pixel in the array.
+     */
+    static void readRow(BufferedImage image, int minX, int y, int width, int[] row, int offset) {
+        PixelBuffer pixels = PixelBuffer.getViewed(image);
+        if (pixels != null) {
+            pixels.readRow(minX, y, width, row, offset);
+        } else {
+            image.getRGB(minX, y, width, 1, row, offset, width);
+        }
+    }
+
+    /**
+     * Say if the rows of the raster follow each other without gaps from the start of its data.
+     *
+     * @param raster           the raster.
+     * @param elementsPerPixel the count of the data elements of a pixel.
+     * @return {@code true} if the rows are packed.
+     */
+    private static boolean hasPackedRows(WritableRaster raster, int elementsPerPixel) {
+        SampleModel sampleModel = raster.getSampleModel();
+        int scanlineStride;
+        if (sampleModel instanceof ComponentSampleModel) {
+            scanlineStride = ((ComponentSampleModel) sampleModel).getScanlineStride();
+        } else if (sampleModel instanceof SinglePixelPackedSampleModel) {
+            scanlineStride = ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride();
+        } else {
+            return false;
+        }
+        return raster.getParent() == null && raster.getSampleModelTranslateX() == 0
+                && raster.getSampleModelTranslateY() == 0 && raster.getDataBuffer().getOffset() == 0
+                && raster.getDataBuffer().getNumBanks() == 1
+                && scanlineStride == elementsPerPixel * raster.getWidth();
+    }
+
     /**
      * Read image from the provided path.
      *
@@ -65,6 +250,22 @@ public final class ImageComparisonUtil {
      * @throws ImageComparisonException due to read the image from resources.
      */
     public static BufferedImage readImageFromResources(String path) throws ImageComparisonException {
+        Object event = ComparisonEvents.beginReadImage();
+        BufferedImage image = readImage(path);
+        if (event != null) {
+            ComparisonEvents.commitReadImage(event, path, image);
+        }
+        return image;
+    }
+
+    /**
+     * Read image from the provided path.
+     *
+     * @param path the path where contains image.
+     * @return the {@link BufferedImage} object of this specific image.
+     * @throws ImageComparisonException due to read the image from resources.
+     */
+    private static BufferedImage readImage(String path) throws ImageComparisonException {
         File imageFile = new File(path);
         if (imageFile.exists()) {
             try {
@@ -101,12 +302,126 @@ public final class ImageComparisonUtil {
         if (!dirExists) {
             throw new ImageComparisonException("Unable to create directory " + dir);
         }
+        Object event = ComparisonEvents.beginSaveImage();
         try {
             ImageIO.write(image, "png", pathFile);
         } catch (IOException e) {
             throw new ImageComparisonException(
                     String.format("Cannot save image to path=%s", pathFile.getAbsolutePath()), e);
         }
+        if (event != null) {
+            ComparisonEvents.commitSaveImage(event, pathFile, image);
+        }
+    }
+
+    /**
+     * Create the {@link ImageFingerprint} of the image with the {@link ImageFingerprint#DEFAULT_TILE_SIZE}.
+     *
+     * @param image the image to be fingerprinted.
+     * @return the {@link ImageFingerprint} of the image.
+     */
+    public static ImageFingerprint createFingerprint(BufferedImage image) {
+        return createFingerprint(image, ImageFingerprint.DEFAULT_TILE_SIZE);
+    }
+
+    /**
+     * Create the {@link ImageFingerprint} of the image.
+     *
+     * @param image    the image to be fingerprinted.
+     * @param tileSize the edge length of the tiles.
+     * @return the {@link ImageFingerprint} of the image.
+     */
+    public static ImageFingerprint createFingerprint(BufferedImage image, int tileSize) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int tilesX = ImageFingerprint.getTileCount(width, tileSize);
+        long[] tileHashes = new long[tilesX * ImageFingerprint.getTileCount(height, tileSize)];
+        Arrays.fill(tileHashes, HASH_OFFSET_BASIS);
+        long imageHash = HASH_OFFSET_BASIS;
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            int tileOffset = (y / tileSize) * tilesX;
+            for (int x = 0; x < width; x++) {
+                int rgb = row[x];
+                imageHash = (imageHash ^ rgb) * HASH_PRIME;
+                int tile = tileOffset + x / tileSize;
+                tileHashes[tile] = (tileHashes[tile] ^ rgb) * HASH_PRIME;
+            }
+        }
+        return new ImageFingerprint(width, height, tileSize, imageHash, tileHashes);
+    }
+
+    /**
+     * Save the fingerprint to the provided path.
+     *
+     * @param pathFile    the path to the saving fingerprint.
+     * @param fingerprint the {@link ImageFingerprint} to be saved.
+     * @throws ImageComparisonException due to save fingerprint.
+     */
+    public static void saveFingerprint(File pathFile, ImageFingerprint fingerprint) throws ImageComparisonException {
+        File dir = pathFile.getParentFile();
+        boolean dirExists = dir == null || dir.isDirectory() || dir.mkdirs();
+        if (!dirExists) {
+            throw new ImageComparisonException("Unable to create directory " + dir);
+        }
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(pathFile)))) {
+            out.writeInt(FINGERPRINT_MAGIC);
+            out.writeInt(FINGERPRINT_VERSION);
+            out.writeInt(fingerprint.getWidth());
+            out.writeInt(fingerprint.getHeight());
+            out.writeInt(fingerprint.getTileSize());
+            out.writeLong(fingerprint.getImageHash());
+            long[] tileHashes = fingerprint.getTileHashes();
+            out.writeInt(tileHashes.length);
+            for (long tileHash : tileHashes) {
+                out.writeLong(tileHash);
+            }
+        } catch (IOException e) {
+            throw new ImageComparisonException(
+                    String.format("Cannot save fingerprint to path=%s", pathFile.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Read fingerprint from the provided path.
+     *
+     * @param path the path where contains fingerprint.
+     * @return the {@link ImageFingerprint} stored at this path.
+     * @throws ImageComparisonException due to read the fingerprint from resources.
+     */
+    public static ImageFingerprint readFingerprintFromResources(String path) throws ImageComparisonException {
+        File fingerprintFile = new File(path);
+        InputStream inputStream;
+        try {
+            inputStream = fingerprintFile.isFile()
+                    ? new FileInputStream(fingerprintFile)
+                    : ImageComparisonUtil.class.getClassLoader().getResourceAsStream(path);
+        } catch (IOException e) {
+            throw new ImageComparisonException(
+                    String.format("Cannot read fingerprint from the file, path=%s", path), e);
+        }
+        if (inputStream == null) {
+            throw new ImageNotFoundException(String.format("Fingerprint with path = %s not found", path));
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(inputStream))) {
+            if (in.readInt() != FINGERPRINT_MAGIC || in.readInt() != FINGERPRINT_VERSION) {
+                throw new ImageComparisonException(String.format("Not a fingerprint file, path=%s", path));
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            int tileSize = in.readInt();
+            long imageHash = in.readLong();
+            long[] tileHashes = new long[in.readInt()];
+            for (int i = 0; i < tileHashes.length; i++) {
+                tileHashes[i] = in.readLong();
+            }
+            return new ImageFingerprint(width, height, tileSize, imageHash, tileHashes);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new ImageComparisonException(
+                    String.format("Cannot read fingerprint from the file, path=%s", path), e);
+        }
     }
 
     /**
@@ -118,7 +433,168 @@ public final class ImageComparisonUtil {
      * @return resized {@link BufferedImage} object.
      */
     public static BufferedImage resize(BufferedImage img, int newW, int newH) {
-        return toBufferedImage(img.getScaledInstance(newW, newH, Image.SCALE_SMOOTH));
+        return resize(img, newW, newH, false);
+    }
+
+    /**
+     * Resize image to new dimensions and return new image. Every pixel of the new image is the average of the
+     * area of the image it covers, weighted by the coverage of the pixels at the border of the area.
+     * The image is resampled on its raster, so no toolkit is needed.
+     * <p>
+     * Like the smooth scaling of the toolkit, which was used before, transparent pixels are composed over white
+     * and the new image is softened, see {@link #toBufferedImage(Image)}, so difference percents of images with
+     * different sizes stay the same, up to rounding.
+     *
+     * @param img the object of the image to be resized.
+     * @param newW the new width.
+     * @param newH the new height.
+     * @param parallel {@code true} if the rows of the new image should be computed in parallel.
+     * @return resized {@link BufferedImage} object of type {@link BufferedImage#TYPE_INT_RGB}.
+     */
+    public static BufferedImage resize(BufferedImage img, int newW, int newH, boolean parallel) {
+        int width = img.getWidth();
+        BufferedImage resized = new BufferedImage(newW, newH, BufferedImage.TYPE_INT_RGB);
+        int[] resizedData = ((DataBufferInt) resized.getRaster().getDataBuffer()).getData();
+        AreaWeights columnWeights = new AreaWeights(width, newW);
+        AreaWeights rowWeights = new AreaWeights(img.getHeight(), newH);
+
+        IntStream chunks = IntStream.range(0, (newH + RESIZE_CHUNK_HEIGHT - 1) / RESIZE_CHUNK_HEIGHT);
+        (parallel ? chunks.parallel() : chunks).forEach(chunk -> {
+            int firstY = chunk * RESIZE_CHUNK_HEIGHT;
+            int lastY = Math.min(firstY + RESIZE_CHUNK_HEIGHT, newH) - 1;
+            int[] row = new int[width];
+            double[] resampledRow = new double[4 * newW];
+            double[] sums = new double[4 * newW * (lastY - firstY + 1)];
+            int coveringY = firstY;
+            // every row of the image is read and resampled horizontally once, then added to the rows covering it.
+            for (int y = rowWeights.first[firstY]; y <= rowWeights.last[lastY]; y++) {
+                img.getRGB(0, y, width, 1, row, 0, width);
+                composeOverWhite(row);
+                columnWeights.resample(row, resampledRow);
+                while (rowWeights.last[coveringY] < y) {
+                    coveringY++;
+                }
+                for (int newY = coveringY; newY <= lastY && rowWeights.first[newY] <= y; newY++) {
+                    double weight = rowWeights.weight(newY, y);
+                    int offset = 4 * newW * (newY - firstY);
+                    for (int i = 0; i < resampledRow.length; i++) {
+                        sums[offset + i] += weight * resampledRow[i];
+                    }
+                }
+            }
+            for (int newY = firstY; newY <= lastY; newY++) {
+                int offset = 4 * newW * (newY - firstY);
+                for (int newX = 0; newX < newW; newX++) {
+                    int i = offset + 4 * newX;
+                    resizedData[newY * newW + newX] = toChannel(sums[i + 1]) << 16
+                            | toChannel(sums[i + 2]) << 8 | toChannel(sums[i + 3]);
+                }
+            }
+        });
+        return soften(resized);
+    }
+
+    /**
+     * Compose the ARGB pixels of a row over white, making them opaque.
+     */
+    private static void composeOverWhite(int[] row) {
+        for (int x = 0; x < row.length; x++) {
+            int rgb = row[x];
+            int alpha = rgb >>> 24;
+            if (alpha == 0xff) {
+                continue;
+            }
+            int white = 0xff * (0xff - alpha);
+            row[x] = 0xff000000
+                    | ((((rgb >> 16) & 0xff) * alpha + white + 127) / 0xff) << 16
+                    | ((((rgb >> 8) & 0xff) * alpha + white + 127) / 0xff) << 8
+                    | ((rgb & 0xff) * alpha + white + 127) / 0xff;
+        }
+    }
+
+    private static int toChannel(double value) {
+        return Math.min(255, Math.max(0, (int) Math.round(value)));
+    }
+
+    /**
+     * Weights of the source pixels for every target pixel along one axis of the area-averaging resampling.
+     */
+    private static final class AreaWeights {
+
+        /**
+         * First source pixel covered by every target pixel.
+         */
+        private final int[] first;
+
+        /**
+         * Last source pixel covered by every target pixel.
+         */
+        private final int[] last;
+
+        /**
+         * Offset of the weights of every target pixel in {@link #weights}.
+         */
+        private final int[] offsets;
+
+        /**
+         * Share of the source pixels from first to last in the area of every target pixel.
+         */
+        private final double[] weights;
+
+        private AreaWeights(int length, int newLength) {
+            double scale = (double) length / newLength;
+            first = new int[newLength];
+            last = new int[newLength];
+            offsets = new int[newLength];
+            int count = 0;
+            for (int i = 0; i < newLength; i++) {
+                first[i] = (int) Math.floor(i * scale);
+                last[i] = Math.min(length - 1, (int) Math.ceil((i + 1) * scale) - 1);
+                offsets[i] = count;
+                count += last[i] - first[i] + 1;
+            }
+            weights = new double[count];
+            for (int i = 0; i < newLength; i++) {
+                for (int source = first[i]; source <= last[i]; source++) {
+                    double start = Math.max(i * scale, source);
+                    double end = Math.min((i + 1) * scale, source + 1);
+                    weights[offsets[i] + source - first[i]] = (end - start) / scale;
+                }
+            }
+        }
+
+        /**
+         * Share of the source pixel in the area of the target pixel.
+         */
+        private double weight(int target, int source) {
+            return weights[offsets[target] + source - first[target]];
+        }
+
+        /**
+         * Resample a row of ARGB pixels to the target pixels, with the channels of every target pixel as
+         * four consecutive values.
+         */
+        private void resample(int[] row, double[] resampled) {
+            for (int target = 0; target < first.length; target++) {
+                double alpha = 0;
+                double red = 0;
+                double green = 0;
+                double blue = 0;
+                int offset = offsets[target] - first[target];
+                for (int source = first[target]; source <= last[target]; source++) {
+                    double weight = weights[offset + source];
+                    int rgb = row[source];
+                    alpha += weight * ((rgb >>> 24) & 0xff);
+                    red += weight * ((rgb >> 16) & 0xff);
+                    green += weight * ((rgb >> 8) & 0xff);
+                    blue += weight * (rgb & 0xff);
+                }
+                resampled[4 * target] = alpha;
+                resampled[4 * target + 1] = red;
+                resampled[4 * target + 2] = green;
+                resampled[4 * target + 3] = blue;
+            }
+        }
     }
 
     /**
@@ -132,7 +608,6 @@ public final class ImageComparisonUtil {
             return (BufferedImage) img;
         }
 
-        float softenFactor = 0.05f;
         final Image temp = new ImageIcon(img).getImage();
         final BufferedImage bufferedImage = new BufferedImage(
                 temp.getWidth(null),
@@ -143,7 +618,17 @@ public final class ImageComparisonUtil {
         g.fillRect(0, 0, temp.getWidth(null), temp.getHeight(null));
         g.drawImage(temp, 0, 0, null);
         g.dispose();
+        return soften(bufferedImage);
+    }
 
+    /**
+     * Soften the image with a small blur, keeping the pixels at its border.
+     *
+     * @param bufferedImage the image to be softened.
+     * @return the softened image.
+     */
+    private static BufferedImage soften(BufferedImage bufferedImage) {
+        float softenFactor = 0.05f;
         final float[] softenArray = {0, softenFactor, 0, softenFactor, 1 - (softenFactor * 4), softenFactor, 0,
                 softenFactor, 0};
         final Kernel kernel = new Kernel(3, 3, softenArray);
@@ -164,9 +649,13 @@ public final class ImageComparisonUtil {
         int height = img1.getHeight();
 
         long diff = 0;
+        int[] row1 = new int[width];
+        int[] row2 = new int[width];
         for (int y = 0; y < height; y++) {
+            readRow(img1, 0, y, width, row1, 0);
+            readRow(img2, 0, y, width, row2, 0);
             for (int x = 0; x < width; x++) {
-                diff += pixelDiff(img1.getRGB(x, y), img2.getRGB(x, y));
+                diff += pixelDiff(row1[x], row2[x]);
             }
         }
         long maxDiff = 4L * 255 * width * height;
@@ -174,6 +663,117 @@ public final class ImageComparisonUtil {
         return (float) (100.0 * diff / maxDiff);
     }
 
+    /**
+     * Return the difference in percent between two buffered images inside the areas, relative to the pixels of
+     * the areas. The areas need to be disjoint and inside both images.
+     *
+     * @param img1  the first image.
+     * @param img2  the second image.
+     * @param areas the disjoint {@link Rectangle}s to be compared.
+     * @return difference percent, or 0 if the areas are empty.
+     */
+    public static float getDifferencePercent(BufferedImage img1, BufferedImage img2, List<Rectangle> areas) {
+        long diff = 0;
+        long pixels = 0;
+        int[] row1 = new int[img1.getWidth()];
+        int[] row2 = new int[img1.getWidth()];
+        for (Rectangle area : areas) {
+            int minX = area.getMinPoint().x;
+            int width = area.getWidth();
+            for (int y = area.getMinPoint().y; y <= area.getMaxPoint().y; y++) {
+                readRow(img1, minX, y, width, row1, 0);
+                readRow(img2, minX, y, width, row2, 0);
+                for (int x = 0; x < width; x++) {
+                    diff += pixelDiff(row1[x], row2[x]);
+                }
+            }
+            pixels += (long) width * area.getHeight();
+        }
+        if (pixels == 0) {
+            return 0;
+        }
+        long maxDiff = 4L * 255 * pixels;
+
+        return (float) (100.0 * diff / maxDiff);
+    }
+
+    /**
+     * Calculate the constant which the squared distance of two pixels needs to exceed to be different.
+     *
+     * @param pixelToleranceLevel the level of the pixel tolerance.
+     * @return the difference constant.
+     */
+    public static double calculateDifferenceConstant(double pixelToleranceLevel) {
+        return Math.pow(pixelToleranceLevel * Math.sqrt(Math.pow(255, 2) * 4), 2);
+    }
+
+    /**
+     * Say if the two pixels equal or not. The rule is the squared distance between two pixels
+     * need to be more than the difference constant.
+     *
+     * @param expectedRgb         the RGB value of the Pixel of the Expected image.
+     * @param actualRgb           the RGB value of the Pixel of the Actual image.
+     * @param pixelToleranceLevel the level of the pixel tolerance.
+     * @param differenceConstant  the constant calculated by {@link #calculateDifferenceConstant(double)}.
+     * @return {@code true} if they' are difference, {@code false} otherwise.
+     */
+    static boolean isDifferentPixels(int expectedRgb, int actualRgb, double pixelToleranceLevel,
+            double differenceConstant) {
+        if (expectedRgb == actualRgb) {
+            return false;
+        } else if (pixelToleranceLevel == 0.0) {
+            return true;
+        }
+
+        return squaredDistance(expectedRgb, actualRgb) > differenceConstant;
+    }
+
+    /**
+     * Calculate the squared distance between two pixels, over their alpha, red, green and blue channels.
+     *
+     * @param rgb1 the RGB value of the first pixel.
+     * @param rgb2 the RGB value of the second pixel.
+     * @return the squared distance, from 0 to {@link DistanceHistogram#MAX_SQUARED_DISTANCE}.
+     */
+    static int squaredDistance(int rgb1, int rgb2) {
+        int alpha = ((rgb1 >> 24) & 0xff) - ((rgb2 >> 24) & 0xff);
+        int red = ((rgb1 >> 16) & 0xff) - ((rgb2 >> 16) & 0xff);
+        int green = ((rgb1 >> 8) & 0xff) - ((rgb2 >> 8) & 0xff);
+        int blue = (rgb1 & 0xff) - (rgb2 & 0xff);
+        return red * red + green * green + blue * blue + alpha * alpha;
+    }
+
+    /**
+     * Return the difference in percent between two buffered images of possibly different sizes, aligned at the
+     * top left corner. Pixels which only one of the images has count as completely different.
+     *
+     * @param img1 the first image.
+     * @param img2 the second image.
+     * @return difference percent.
+     */
+    public static float getOverlapDifferencePercent(BufferedImage img1, BufferedImage img2) {
+        int width = Math.min(img1.getWidth(), img2.getWidth());
+        int height = Math.min(img1.getHeight(), img2.getHeight());
+
+        long diff = 0;
+        int[] row1 = new int[width];
+        int[] row2 = new int[width];
+        for (int y = 0; y < height; y++) {
+            readRow(img1, 0, y, width, row1, 0);
+            readRow(img2, 0, y, width, row2, 0);
+            for (int x = 0; x < width; x++) {
+                diff += pixelDiff(row1[x], row2[x]);
+            }
+        }
+        long overlapPixels = (long) width * height;
+        long pixels = (long) img1.getWidth() * img1.getHeight() + (long) img2.getWidth() * img2.getHeight()
+                - overlapPixels;
+        long maxDiff = 4L * 255 * pixels;
+        diff += 4L * 255 * (pixels - overlapPixels);
+
+        return (float) (100.0 * diff / maxDiff);
+    }
+
     /**
      * Compare two pixels
      *
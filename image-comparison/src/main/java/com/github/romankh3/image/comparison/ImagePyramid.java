@@ -0,0 +1,330 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Multi-resolution representation of an image. The finest level divides the image into blocks of
+ * {@link #BLOCK_SIZE} x {@link #BLOCK_SIZE} pixels, every further level combines 2 x 2 cells of the level below,
+ * until a single cell covers the whole image.
+ * <p>
+ * Every cell holds the box-filtered average color of its pixels. As averages of different pixels might be
+ * equal, e.g. for a single pixel with a small difference or for moved pixels, every cell also holds a hash of
+ * its pixels, which guards against losing such differences.
+ */
+final class ImagePyramid {
+
+    /**
+     * Edge length of the cells of the finest level in pixels.
+     */
+    static final int BLOCK_SIZE = 16;
+
+    /**
+     * Prime of the 64-bit FNV-1a hash.
+     */
+    private static final long HASH_PRIME = 0x100000001b3L;
+
+    /**
+     * Offset basis of the 64-bit FNV-1a hash.
+     */
+    private static final long HASH_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Width of the image.
+     */
+    private final int width;
+
+    /**
+     * Height of the image.
+     */
+    private final int height;
+
+    /**
+     * Count of the cells in a row, per level.
+     */
+    private final int[] columns;
+
+    /**
+     * Count of the cells in a column, per level.
+     */
+    private final int[] rows;
+
+    /**
+     * Packed ARGB averages of the cells in row-major order, per level.
+     */
+    private final int[][] averages;
+
+    /**
+     * Hashes of the cells in row-major order, per level.
+     */
+    private final long[][] hashes;
+
+    private ImagePyramid(int width, int height, int[] columns, int[] rows, int[][] averages, long[][] hashes) {
+        this.width = width;
+        this.height = height;
+        this.columns = columns;
+        this.rows = rows;
+        this.averages = averages;
+        this.hashes = hashes;
+    }
+
+    /**
+     * Build the pyramid of the image.
+     *
+     * @param image the image.
+     * @return the {@link ImagePyramid} of the image.
+     */
+    static ImagePyramid of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int levelCount = 1;
+        for (int size = BLOCK_SIZE; size < width || size < height; size *= 2) {
+            levelCount++;
+        }
+        int[] columns = new int[levelCount];
+        int[] rows = new int[levelCount];
+        int[][] averages = new int[levelCount][];
+        long[][] hashes = new long[levelCount][];
+
+        columns[0] = (width + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        rows[0] = (height + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        averages[0] = new int[columns[0] * rows[0]];
+        hashes[0] = new long[columns[0] * rows[0]];
+        buildFinestLevel(image, columns[0], rows[0], averages[0], hashes[0]);
+
+        for (int level = 1; level < levelCount; level++) {
+            columns[level] = (columns[level - 1] + 1) / 2;
+            rows[level] = (rows[level - 1] + 1) / 2;
+            averages[level] = new int[columns[level] * rows[level]];
+            hashes[level] = new long[columns[level] * rows[level]];
+            buildLevel(columns[level - 1], rows[level - 1], averages[level - 1], hashes[level - 1],
+                    columns[level], averages[level], hashes[level]);
+        }
+        return new ImagePyramid(width, height, columns, rows, averages, hashes);
+    }
+
+    /**
+     * Box-filter and hash the blocks of the image, reading it row by row.
+     */
+    private static void buildFinestLevel(BufferedImage image, int columns, int rows, int[] averages, long[] hashes) {
+        long[] sums = new long[4 * columns];
+        int[] row = new int[image.getWidth()];
+        for (int blockRow = 0; blockRow < rows; blockRow++) {
+            hashBlockRow(image, blockRow, columns, row, sums, averages, hashes, blockRow * columns);
+        }
+    }
+
+    /**
+     * Box-filter and hash the blocks of a row of blocks of the image.
+     *
+     * @param offset the index of the first block of the row of blocks in the averages and hashes.
+     */
+    private static void hashBlockRow(BufferedImage image, int blockRow, int columns, int[] row, long[] sums,
+            int[] averages, long[] hashes, int offset) {
+        int width = image.getWidth();
+        int minY = blockRow * BLOCK_SIZE;
+        int maxY = Math.min(minY + BLOCK_SIZE, image.getHeight());
+        Arrays.fill(hashes, offset, offset + columns, HASH_OFFSET_BASIS);
+        Arrays.fill(sums, 0);
+        // the pixels of normalized images are read in place.
+        int[] pixels = ImageComparisonUtil.getNormalizedPixels(image);
+        int[] data = pixels != null ? pixels : row;
+        for (int y = minY; y < maxY; y++) {
+            int rowOffset = pixels != null ? y * width : 0;
+            if (pixels == null) {
+                ImageComparisonUtil.readRow(image, 0, y, width, row, 0);
+            }
+            for (int column = 0; column < columns; column++) {
+                // the channels are summed in pairs of 16-bit lanes, which can't overflow for a row of a block.
+                int alphaGreen = 0;
+                int redBlue = 0;
+                long hash = hashes[offset + column];
+                // the even and odd pixels are hashed in two independent chains, which are combined per row.
+                long oddHash = HASH_OFFSET_BASIS;
+                int maxX = rowOffset + Math.min((column + 1) * BLOCK_SIZE, width);
+                int x = rowOffset + column * BLOCK_SIZE;
+                for (; x + 1 < maxX; x += 2) {
+                    int rgb = data[x];
+                    int next = data[x + 1];
+                    alphaGreen += ((rgb >>> 8) & 0x00ff00ff) + ((next >>> 8) & 0x00ff00ff);
+                    redBlue += (rgb & 0x00ff00ff) + (next & 0x00ff00ff);
+                    hash = (hash ^ rgb) * HASH_PRIME;
+                    oddHash = (oddHash ^ next) * HASH_PRIME;
+                }
+                if (x < maxX) {
+                    int rgb = data[x];
+                    alphaGreen += (rgb >>> 8) & 0x00ff00ff;
+                    redBlue += rgb & 0x00ff00ff;
+                    hash = (hash ^ rgb) * HASH_PRIME;
+                }
+                hash = (hash ^ oddHash) * HASH_PRIME;
+                sums[4 * column] += alphaGreen >>> 16;
+                sums[4 * column + 1] += redBlue >>> 16;
+                sums[4 * column + 2] += alphaGreen & 0xffff;
+                sums[4 * column + 3] += redBlue & 0xffff;
+                hashes[offset + column] = hash;
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            int blockWidth = Math.min(BLOCK_SIZE, width - column * BLOCK_SIZE);
+            averages[offset + column] = average(sums, 4 * column, blockWidth * (maxY - minY));
+        }
+    }
+
+    /**
+     * Combine 2 x 2 cells of the finer level to the cells of the coarser level.
+     */
+    private static void buildLevel(int fineColumns, int fineRows, int[] fineAverages, long[] fineHashes,
+            int columns, int[] averages, long[] hashes) {
+        long[] sums = new long[4];
+        for (int i = 0; i < averages.length; i++) {
+            int column = i % columns;
+            int row = i / columns;
+            long hash = HASH_OFFSET_BASIS;
+            int count = 0;
+            Arrays.fill(sums, 0);
+            for (int fineRow = 2 * row; fineRow < Math.min(2 * row + 2, fineRows); fineRow++) {
+                for (int fineColumn = 2 * column; fineColumn < Math.min(2 * column + 2, fineColumns); fineColumn++) {
+                    int fine = fineRow * fineColumns + fineColumn;
+                    int rgb = fineAverages[fine];
+                    sums[0] += (rgb >>> 24) & 0xff;
+                    sums[1] += (rgb >> 16) & 0xff;
+                    sums[2] += (rgb >> 8) & 0xff;
+                    sums[3] += rgb & 0xff;
+                    hash = (hash ^ fineHashes[fine]) * HASH_PRIME;
+                    count++;
+                }
+            }
+            averages[i] = average(sums, 0, count);
+            hashes[i] = hash;
+        }
+    }
+
+    private static int average(long[] sums, int offset, int count) {
+        return (int) (sums[offset] / count) << 24
+                | (int) (sums[offset + 1] / count) << 16
+                | (int) (sums[offset + 2] / count) << 8
+                | (int) (sums[offset + 3] / count);
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Find the areas where this and that pyramid differ, starting at the coarsest level and refining only the
+     * differing cells. Pixels outside of these areas are equal in both images.
+     * Both pyramids need to be built from images of the same size.
+     * <p>
+     * The differing blocks are padded by whole blocks covering the padding, so differences closer to each other than
+     * the padding are scanned as one area instead of many small ones.
+     *
+     * @param that    the {@link ImagePyramid} to compare with.
+     * @param padding the distance in pixels the differing blocks are padded by, e.g. the threshold of the regions.
+     * @return the collection of the disjoint {@link Rectangle}s covering the padded blocks, adjacent blocks of the
+     * same row of blocks are joined.
+     */
+    List<Rectangle> findDifferentAreas(ImagePyramid that, int padding) {
+        if (width != that.width || height != that.height) {
+            throw new IllegalArgumentException("Pyramids of images with different sizes can't be compared");
+        }
+        boolean[] differentBlocks = new boolean[averages[0].length];
+        int top = averages.length - 1;
+        for (int cell = 0; cell < averages[top].length; cell++) {
+            refine(that, top, cell % columns[top], cell / columns[top], differentBlocks);
+        }
+        boolean[] candidateBlocks = pad(differentBlocks, (padding + BLOCK_SIZE - 1) / BLOCK_SIZE);
+
+        List<Rectangle> areas = new ArrayList<>();
+        for (int row = 0; row < rows[0]; row++) {
+            int column = 0;
+            while (column < columns[0]) {
+                if (!candidateBlocks[row * columns[0] + column]) {
+                    column++;
+                    continue;
+                }
+                int firstColumn = column;
+                while (column < columns[0] && candidateBlocks[row * columns[0] + column]) {
+                    column++;
+                }
+                areas.add(new Rectangle(firstColumn * BLOCK_SIZE, row * BLOCK_SIZE,
+                        Math.min(column * BLOCK_SIZE, width) - 1,
+                        Math.min((row + 1) * BLOCK_SIZE, height) - 1));
+            }
+        }
+        return areas;
+    }
+
+    /**
+     * Mark the blocks within the provided count of blocks of a differing block.
+     */
+    private boolean[] pad(boolean[] differentBlocks, int blocks) {
+        if (blocks == 0) {
+            return differentBlocks;
+        }
+        boolean[] padded = new boolean[differentBlocks.length];
+        for (int row = 0; row < rows[0]; row++) {
+            for (int column = 0; column < columns[0]; column++) {
+                if (!differentBlocks[row * columns[0] + column]) {
+                    continue;
+                }
+                for (int paddedRow = Math.max(0, row - blocks); paddedRow <= Math.min(rows[0] - 1, row + blocks);
+                        paddedRow++) {
+                    int offset = paddedRow * columns[0];
+                    Arrays.fill(padded, offset + Math.max(0, column - blocks),
+                            offset + Math.min(columns[0], column + blocks + 1), true);
+                }
+            }
+        }
+        return padded;
+    }
+
+    /**
+     * Mark the blocks of the finest level below the provided cell, which differ.
+     */
+    private void refine(ImagePyramid that, int level, int column, int row, boolean[] differentBlocks) {
+        int cell = row * columns[level] + column;
+        if (averages[level][cell] == that.averages[level][cell] && hashes[level][cell] == that.hashes[level][cell]) {
+            return;
+        }
+        if (level == 0) {
+            differentBlocks[cell] = true;
+            return;
+        }
+        for (int fineRow = 2 * row; fineRow < Math.min(2 * row + 2, rows[level - 1]); fineRow++) {
+            for (int fineColumn = 2 * column; fineColumn < Math.min(2 * column + 2, columns[level - 1]);
+                    fineColumn++) {
+                refine(that, level - 1, fineColumn, fineRow, differentBlocks);
+            }
+        }
+    }
+}
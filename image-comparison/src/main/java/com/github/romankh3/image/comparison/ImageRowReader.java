@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import com.github.romankh3.image.comparison.exception.ImageComparisonException;
+import com.github.romankh3.image.comparison.exception.ImageNotFoundException;
+
+/**
+ * Reader of the rows of an image file from top to bottom, which holds at most a band of decoded rows in memory.
+ * <p>
+ * The rows are read in bands of source regions, see {@link ImageReadParam#setSourceRegion(java.awt.Rectangle)}.
+ * Some readers decode more rows than the band for every band, e.g. the PNG reader decodes the whole image, so a
+ * bigger band height decodes fewer rows again at the cost of memory.
+ */
+final class ImageRowReader implements Closeable {
+
+    /**
+     * Count of the rows of the first band. Every further band doubles in height up to the band height, so an early
+     * difference is found after decoding only a few rows, while the count of the bands grows only logarithmically
+     * until the band height is reached.
+     */
+    private static final int FIRST_BAND_HEIGHT = 16;
+
+    /**
+     * Reader of the image.
+     */
+    private final ImageReader reader;
+
+    /**
+     * Width of the image.
+     */
+    private final int width;
+
+    /**
+     * Height of the image.
+     */
+    private final int height;
+
+    /**
+     * Count of the rows of the biggest band.
+     */
+    private final int bandHeight;
+
+    /**
+     * The band of the last read rows, {@code null} before the first row.
+     */
+    private /* @Nullable */ BufferedImage band;
+
+    /**
+     * Y-coordinate of the first row of the {@link #band}.
+     */
+    private int bandY;
+
+    /**
+     * Count of the bands which are read.
+     */
+    private int bandCount;
+
+    private ImageRowReader(ImageReader reader, int bandHeight) throws IOException {
+        this.reader = reader;
+        this.width = reader.getWidth(0);
+        this.height = reader.getHeight(0);
+        this.bandHeight = bandHeight;
+    }
+
+    /**
+     * Open a reader of the rows of the provided image file.
+     *
+     * @param file       the image file.
+     * @param bandHeight count of the decoded rows which are held at once.
+     * @return the reader of the rows, which has to be closed.
+     * @throws ImageComparisonException due to open the file.
+     */
+    static ImageRowReader open(File file, int bandHeight) throws ImageComparisonException {
+        ImageReader reader = openReader(file);
+        try {
+            return new ImageRowReader(reader, bandHeight);
+        } catch (IOException e) {
+            closeReader(reader);
+            throw new ImageComparisonException(
+                    String.format("Cannot read image from the file, path=%s", file.getPath()), e);
+        }
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    int getBandCount() {
+        return bandCount;
+    }
+
+    /**
+     * Read the row of the ARGB pixels at the provided Y-coordinate. The rows have to be read in increasing order,
+     * rows which are skipped cannot be read later.
+     *
+     * @param y   Y-coordinate of the row.
+     * @param row array of at least {@link #width} pixels, which receives the row.
+     * @throws IOException due to decode the image.
+     */
+    void readRow(int y, int[] row) throws IOException {
+        if (band == null || y >= bandY + band.getHeight()) {
+            int rows = band == null ? Math.min(FIRST_BAND_HEIGHT, bandHeight)
+                    : Math.min(2 * band.getHeight(), bandHeight);
+            bandY = y;
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceRegion(new Rectangle(0, y, width, Math.min(rows, height - y)));
+            band = reader.read(0, param);
+            bandCount++;
+        }
+        band.getRGB(0, y - bandY, width, 1, row, 0, width);
+    }
+
+    @Override
+    public void close() {
+        closeReader(reader);
+    }
+
+    /**
+     * Open an {@link ImageReader} for the provided file.
+     */
+    static ImageReader openReader(File file) throws ImageComparisonException {
+        if (!file.isFile()) {
+            throw new ImageNotFoundException(String.format("Image with path = %s not found", file.getPath()));
+        }
+        try {
+            ImageInputStream stream = ImageIO.createImageInputStream(file);
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                if (stream != null) {
+                    stream.close();
+                }
+                throw new ImageComparisonException(
+                        String.format("Cannot read image from the file, path=%s", file.getPath()));
+            }
+            ImageReader reader = readers.next();
+            reader.setInput(stream, false, true);
+            return reader;
+        } catch (IOException e) {
+            throw new ImageComparisonException(
+                    String.format("Cannot read image from the file, path=%s", file.getPath()), e);
+        }
+    }
+
+    /**
+     * Dispose the {@link ImageReader} and close its stream.
+     */
+    static void closeReader(ImageReader reader) {
+        Object input = reader.getInput();
+        reader.dispose();
+        if (input instanceof ImageInputStream) {
+            try {
+                ((ImageInputStream) input).close();
+            } catch (IOException ignored) {
+                // nothing to do here, the images were read already.
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Luma of every pixel of an image as an unsigned byte, computed once with the integer weights of ITU-R BT.601.
+ * Comparing two planes reads a quarter of the bytes the {@code int} pixels take. The alpha channel is ignored.
+ */
+final class LumaPlane {
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Luma of every pixel, row by row.
+     */
+    private final byte[] luma;
+
+    private LumaPlane(int width, int height, byte[] luma) {
+        this.width = width;
+        this.height = height;
+        this.luma = luma;
+    }
+
+    /**
+     * Convert the image into its {@link LumaPlane}, reading it in place if it's normalized, row by row otherwise.
+     *
+     * @param image the image to be converted.
+     * @return created {@link LumaPlane}.
+     */
+    static LumaPlane of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = ImageComparisonUtil.getNormalizedPixels(image);
+        if (pixels != null) {
+            return of(pixels, width, height);
+        }
+        byte[] luma = new byte[width * height];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            ImageComparisonUtil.readRow(image, 0, y, width, row, 0);
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                luma[offset + x] = (byte) luma(row[x]);
+            }
+        }
+        return new LumaPlane(width, height, luma);
+    }
+
+    /**
+     * Convert the pixels of an image into its {@link LumaPlane}.
+     *
+     * @param pixels the RGB values of the pixels, row by row.
+     * @param width  the width of the image.
+     * @param height the height of the image.
+     * @return created {@link LumaPlane}.
+     */
+    static LumaPlane of(int[] pixels, int width, int height) {
+        byte[] luma = new byte[width * height];
+        for (int i = 0; i < luma.length; i++) {
+            luma[i] = (byte) luma(pixels[i]);
+        }
+        return new LumaPlane(width, height, luma);
+    }
+
+    /**
+     * Calculate the luma of a pixel.
+     *
+     * @param rgb the RGB value of the pixel.
+     * @return the luma, from 0 to 255.
+     */
+    static int luma(int rgb) {
+        return (77 * ((rgb >> 16) & 0xff) + 150 * ((rgb >> 8) & 0xff) + 29 * (rgb & 0xff) + 128) >> 8;
+    }
+
+    byte[] getLuma() {
+        return luma;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.github.romankh3.image.comparison.model.BaselineMatch;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+
+/**
+ * Comparison of an actual image against several valid expected images, e.g. for the font rendering of every
+ * operating system, which finds the best matching one.
+ * <p>
+ * All candidates are compared row by row in a single scan of the actual image. A candidate is dropped as soon as
+ * its different pixels exceed the {@link ImageComparison#getAllowingPercentOfDifferentPixels()} of the compared
+ * pixels, i.e. of the image or of its {@link ImageComparison#setIncludedAreas(List) included areas}, so
+ * the scan costs about one comparison if most candidates differ early. A candidate which is never dropped matches.
+ * If all candidates are dropped, the one which was dropped last is compared completely for the result.
+ * <p>
+ * Dropping candidates by their count of different pixels ignores that differences might still be hidden by
+ * {@link ImageComparison#setMinimalRectangleSize(Integer)}.
+ */
+public class MultiBaselineComparison {
+
+    /**
+     * The candidates of the expected image.
+     */
+    private final List<BufferedImage> expectedCandidates;
+
+    /**
+     * Actual image for comparison.
+     */
+    private final BufferedImage actual;
+
+    /**
+     * Settings applied to the {@link ImageComparison} of every candidate.
+     */
+    private Consumer<ImageComparison> comparisonSettings = comparison -> { };
+
+    /**
+     * Create a new instance of {@link MultiBaselineComparison}.
+     *
+     * @param expectedCandidates the candidates of the expected image.
+     * @param actual             the actual image to be compared.
+     */
+    public MultiBaselineComparison(List<BufferedImage> expectedCandidates, BufferedImage actual) {
+        if (expectedCandidates.isEmpty()) {
+            throw new IllegalArgumentException("At least one expected image is needed");
+        }
+        this.expectedCandidates = expectedCandidates;
+        this.actual = actual;
+    }
+
+    /**
+     * Find the expected image which matches the actual image best.
+     *
+     * @return the {@link BaselineMatch} with the index of the best matching candidate and the result of its
+     * comparison.
+     */
+    public BaselineMatch compareImages() {
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int candidateCount = expectedCandidates.size();
+        ImageComparison[] comparisons = new ImageComparison[candidateCount];
+        long[] countsOfDifferentPixels = new long[candidateCount];
+        // the count of the compared pixels, which is smaller than the image with included areas.
+        long[] pixelCounts = new long[candidateCount];
+        // the row in which every candidate was dropped, the height if it never was and -1 for other sizes.
+        int[] droppedAt = new int[candidateCount];
+        int remaining = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            BufferedImage expected = expectedCandidates.get(i);
+            comparisons[i] = new ImageComparison(expected, actual);
+            comparisonSettings.accept(comparisons[i]);
+            if (expected.getWidth() == width && expected.getHeight() == height) {
+                pixelCounts[i] = comparisons[i].getComparedPixelCount(width, height);
+                droppedAt[i] = height;
+                remaining++;
+            } else {
+                droppedAt[i] = -1;
+            }
+        }
+
+        int[] actualRow = new int[width];
+        int[] expectedRow = new int[width];
+        for (int y = 0; y < height && remaining > 0; y++) {
+            ImageComparisonUtil.readRow(actual, 0, y, width, actualRow, 0);
+            for (int i = 0; i < candidateCount; i++) {
+                if (droppedAt[i] != height) {
+                    continue;
+                }
+                countsOfDifferentPixels[i] += comparisons[i].countDifferentPixels(y, actualRow, expectedRow);
+                if (!isAllowedPercentOfDifferentPixels(countsOfDifferentPixels[i], pixelCounts[i], comparisons[i])) {
+                    droppedAt[i] = y;
+                    remaining--;
+                }
+            }
+        }
+
+        int best = 0;
+        for (int i = 1; i < candidateCount; i++) {
+            if (droppedAt[i] > droppedAt[best]
+                    || droppedAt[i] == droppedAt[best] && countsOfDifferentPixels[i] < countsOfDifferentPixels[best]) {
+                best = i;
+            }
+        }
+        ImageComparisonResult result = droppedAt[best] == height
+                ? comparisons[best].createMatchResult()
+                : comparisons[best].compareImages();
+        return new BaselineMatch(best, result);
+    }
+
+    /**
+     * Check if the count of different pixels is within the allowing percent of different pixels of the comparison.
+     */
+    private static boolean isAllowedPercentOfDifferentPixels(long countOfDifferentPixels, long pixelCount,
+            ImageComparison comparison) {
+        if (countOfDifferentPixels == 0) {
+            return true;
+        }
+        double actualPercentOfDifferentPixels = ((double) countOfDifferentPixels / (double) pixelCount) * 100;
+        return actualPercentOfDifferentPixels <= comparison.getAllowingPercentOfDifferentPixels();
+    }
+
+    public List<BufferedImage> getExpectedCandidates() {
+        return expectedCandidates;
+    }
+
+    public BufferedImage getActual() {
+        return actual;
+    }
+
+    public MultiBaselineComparison setComparisonSettings(Consumer<ImageComparison> comparisonSettings) {
+        this.comparisonSettings = comparisonSettings;
+        return this;
+    }
+}
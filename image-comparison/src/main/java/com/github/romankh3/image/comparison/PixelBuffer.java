@@ -0,0 +1,300 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+
+/**
+ * Raw pixels of an image in a heap array or a direct {@link ByteBuffer}, e.g. of a capture agent, which are compared
+ * without copying them into a {@link BufferedImage}. Every row starts at a multiple of the stride and every pixel
+ * takes four bytes in the declared {@link ChannelOrder}, or an {@code int} in the ARGB format.
+ * <p>
+ * The comparison reads the rows straight from the buffer, {@link #asImage()} only views the pixels as a
+ * {@link BufferedImage} for everything else, like drawing the result image.
+ * <p>
+ * The buffer must stay unchanged for the whole lifetime of the {@link ImageComparisonResult}, not only while it's
+ * compared. The expected and actual images of the result view the buffer, as does the result image of a match, and
+ * the difference percent of a size mismatch is calculated from the buffer on the first call of
+ * {@link ImageComparisonResult#getDifferencePercent()}. Copy the buffer before reusing it, if the result is kept.
+ */
+public final class PixelBuffer {
+
+    /**
+     * Order of the four bytes of a pixel.
+     */
+    public enum ChannelOrder {
+        /**
+         * Blue, green, red and alpha, the layout of most capture APIs.
+         */
+        BGRA(ByteOrder.LITTLE_ENDIAN, 0, 0),
+        /**
+         * Blue, green and red followed by an unused byte, the pixels are opaque.
+         */
+        BGRX(ByteOrder.LITTLE_ENDIAN, 0, 0xff000000),
+        /**
+         * Red, green, blue and alpha.
+         */
+        RGBA(ByteOrder.BIG_ENDIAN, 8, 0),
+        /**
+         * Red, green and blue followed by an unused byte, the pixels are opaque.
+         */
+        RGBX(ByteOrder.BIG_ENDIAN, 8, 0xff000000),
+        /**
+         * Alpha, red, green and blue.
+         */
+        ARGB(ByteOrder.BIG_ENDIAN, 0, 0),
+        /**
+         * Alpha, blue, green and red.
+         */
+        ABGR(ByteOrder.LITTLE_ENDIAN, 8, 0);
+
+        /**
+         * Byte order reading the four bytes of a pixel as an {@code int}, which is the ARGB value rotated by
+         * {@link #rotation}.
+         */
+        private final ByteOrder byteOrder;
+
+        /**
+         * Count of bits the {@code int} is rotated right to get the ARGB value.
+         */
+        private final int rotation;
+
+        /**
+         * Bits set in the ARGB value of every pixel.
+         */
+        private final int alphaMask;
+
+        ChannelOrder(ByteOrder byteOrder, int rotation, int alphaMask) {
+            this.byteOrder = byteOrder;
+            this.rotation = rotation;
+            this.alphaMask = alphaMask;
+        }
+    }
+
+    private final int width;
+    private final int height;
+
+    /**
+     * Count of the bytes, or of the {@code int}s, from the start of a row to the start of the next one.
+     */
+    private final int stride;
+
+    /**
+     * The bytes of the pixels in the byte order of the {@link #channelOrder}, or {@code null} for {@link #ints}.
+     */
+    private final /* @Nullable */ ByteBuffer bytes;
+
+    private final ChannelOrder channelOrder;
+
+    /**
+     * The ARGB values of the pixels, or {@code null} for {@link #bytes}.
+     */
+    private final /* @Nullable */ int[] ints;
+
+    /**
+     * View of the pixels as a {@link BufferedImage}, created on first use.
+     */
+    private volatile /* @Nullable */ BufferedImage image;
+
+    private PixelBuffer(int width, int height, int stride, /* @Nullable */ ByteBuffer bytes,
+            ChannelOrder channelOrder, /* @Nullable */ int[] ints) {
+        this.width = width;
+        this.height = height;
+        this.stride = stride;
+        this.bytes = bytes;
+        this.channelOrder = channelOrder;
+        this.ints = ints;
+    }
+
+    /**
+     * Create a {@link PixelBuffer} over the bytes from the position of the buffer, which can be direct.
+     *
+     * @param buffer       the buffer of the pixels.
+     * @param width        the width of the image.
+     * @param height       the height of the image.
+     * @param stride       the count of the bytes from the start of a row to the start of the next one.
+     * @param channelOrder the {@link ChannelOrder} of the bytes of a pixel.
+     * @return created {@link PixelBuffer}.
+     */
+    public static PixelBuffer of(ByteBuffer buffer, int width, int height, int stride, ChannelOrder channelOrder) {
+        checkSize(width, height, stride, 4 * width, buffer.remaining(), 4);
+        return new PixelBuffer(width, height, stride, buffer.slice().order(channelOrder.byteOrder), channelOrder,
+                null);
+    }
+
+    /**
+     * Create a {@link PixelBuffer} over the bytes of the array.
+     *
+     * @param bytes        the bytes of the pixels.
+     * @param width        the width of the image.
+     * @param height       the height of the image.
+     * @param stride       the count of the bytes from the start of a row to the start of the next one.
+     * @param channelOrder the {@link ChannelOrder} of the bytes of a pixel.
+     * @return created {@link PixelBuffer}.
+     */
+    public static PixelBuffer of(byte[] bytes, int width, int height, int stride, ChannelOrder channelOrder) {
+        return of(ByteBuffer.wrap(bytes), width, height, stride, channelOrder);
+    }
+
+    /**
+     * Create a {@link PixelBuffer} over the ARGB values of the array.
+     *
+     * @param argb   the ARGB values of the pixels.
+     * @param width  the width of the image.
+     * @param height the height of the image.
+     * @param stride the count of the {@code int}s from the start of a row to the start of the next one.
+     * @return created {@link PixelBuffer}.
+     */
+    public static PixelBuffer of(int[] argb, int width, int height, int stride) {
+        checkSize(width, height, stride, width, argb.length, 1);
+        return new PixelBuffer(width, height, stride, null, ChannelOrder.ARGB, argb);
+    }
+
+    private static void checkSize(int width, int height, int stride, int minimalStride, int length,
+            int elementsPerPixel) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("The size of the image needs to be positive, but is "
+                    + width + "x" + height);
+        }
+        if (stride < minimalStride) {
+            throw new IllegalArgumentException("The stride needs to be at least " + minimalStride + ", but is "
+                    + stride);
+        }
+        if ((long) stride * (height - 1) + (long) elementsPerPixel * width > length) {
+            throw new IllegalArgumentException("The buffer of " + length + " elements is too small for an image of "
+                    + width + "x" + height + " with stride " + stride);
+        }
+    }
+
+    /**
+     * Read the ARGB values of a part of a row.
+     *
+     * @param minX   the X-coordinate of the first pixel.
+     * @param y      the Y-coordinate of the row.
+     * @param count  the count of the pixels.
+     * @param row    the array the ARGB values are written to.
+     * @param offset the index of the first pixel in the array.
+     */
+    void readRow(int minX, int y, int count, int[] row, int offset) {
+        if (ints != null) {
+            System.arraycopy(ints, y * stride + minX, row, offset, count);
+            return;
+        }
+        // a pixel is read as a single int, which only needs to be rotated into the ARGB value.
+        int index = y * stride + 4 * minX;
+        int rotation = channelOrder.rotation;
+        int alphaMask = channelOrder.alphaMask;
+        for (int i = offset; i < offset + count; i++, index += 4) {
+            row[i] = Integer.rotateRight(bytes.getInt(index), rotation) | alphaMask;
+        }
+    }
+
+    /**
+     * View the pixels as a {@link BufferedImage} with the {@link ColorModel#getRGBdefault()}, without copying them.
+     * Pixels drawn into the image are written to the buffer.
+     *
+     * @return the {@link BufferedImage} view of the pixels.
+     */
+    public BufferedImage asImage() {
+        BufferedImage image = this.image;
+        if (image == null) {
+            int[] masks = {0xff0000, 0xff00, 0xff, 0xff000000};
+            WritableRaster raster;
+            if (ints != null) {
+                raster = Raster.createWritableRaster(new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT,
+                        width, height, stride, masks), new DataBufferInt(ints, ints.length), null);
+            } else {
+                raster = Raster.createWritableRaster(new SinglePixelPackedSampleModel(DataBuffer.TYPE_INT,
+                        width, height, masks), new View(this), null);
+            }
+            image = new BufferedImage(ColorModel.getRGBdefault(), raster, false, null);
+            this.image = image;
+        }
+        return image;
+    }
+
+    /**
+     * Get the {@link PixelBuffer}, which the image views.
+     *
+     * @param image the image.
+     * @return the {@link PixelBuffer} of the image, or {@code null} if it doesn't view one of bytes.
+     */
+    static /* @Nullable */ PixelBuffer getViewed(BufferedImage image) {
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        return dataBuffer instanceof View ? ((View) dataBuffer).pixels : null;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getStride() {
+        return stride;
+    }
+
+    public ChannelOrder getChannelOrder() {
+        return channelOrder;
+    }
+
+    /**
+     * {@link DataBuffer} of the ARGB values of the pixels of a {@link PixelBuffer} of bytes, one element for every
+     * pixel, row by row.
+     */
+    private static final class View extends DataBuffer {
+
+        private final PixelBuffer pixels;
+
+        View(PixelBuffer pixels) {
+            super(TYPE_INT, pixels.width * pixels.height);
+            this.pixels = pixels;
+        }
+
+        @Override
+        public int getElem(int bank, int i) {
+            int y = i / pixels.width;
+            int index = y * pixels.stride + 4 * (i - y * pixels.width);
+            return Integer.rotateRight(pixels.bytes.getInt(index), pixels.channelOrder.rotation)
+                    | pixels.channelOrder.alphaMask;
+        }
+
+        @Override
+        public void setElem(int bank, int i, int val) {
+            int y = i / pixels.width;
+            int index = y * pixels.stride + 4 * (i - y * pixels.width);
+            pixels.bytes.putInt(index, Integer.rotateLeft(val, pixels.channelOrder.rotation));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Expected image prepared once for comparing many actual images against it, e.g. screenshots of several browsers
+ * or devices. The image is normalized, see {@link ImageComparisonUtil#normalize(BufferedImage)}, and the excluded
+ * areas are rasterised once, the pyramid of the image for {@link ImageComparison#setPyramidComparison(boolean)} is
+ * built on first use, so every comparison only scans the actual image.
+ * <p>
+ * The prepared image can be shared by comparisons running in parallel, the expected image must not be changed
+ * while it is prepared.
+ */
+public class PreparedExpectedImage {
+
+    /**
+     * The expected image.
+     */
+    private final BufferedImage image;
+
+    /**
+     * Pixels of the expected image, in row-major order.
+     */
+    private final int[] pixels;
+
+    /**
+     * The areas excluded from the comparisons.
+     */
+    private final List<Rectangle> excludedAreas;
+
+    /**
+     * The excluded areas rasterised for the size of the expected image.
+     */
+    private final ExclusionMask exclusionMask;
+
+    /**
+     * Pyramid of the expected image, built on first use.
+     */
+    private volatile /* @Nullable */ ImagePyramid pyramid;
+
+    /**
+     * Luma of the expected image for the luma comparison, converted on first use.
+     */
+    private volatile /* @Nullable */ LumaPlane lumaPlane;
+
+    /**
+     * Settings applied to the {@link ImageComparison} of every actual image.
+     */
+    private Consumer<ImageComparison> comparisonSettings = comparison -> { };
+
+    /**
+     * Create a new instance of {@link PreparedExpectedImage} without excluded areas.
+     *
+     * @param image the expected image.
+     */
+    public PreparedExpectedImage(BufferedImage image) {
+        this(image, Collections.emptyList());
+    }
+
+    /**
+     * Create a new instance of {@link PreparedExpectedImage}.
+     *
+     * @param image         the expected image.
+     * @param excludedAreas the areas excluded from the comparisons.
+     */
+    public PreparedExpectedImage(BufferedImage image, List<Rectangle> excludedAreas) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // the pixels of the normalized image are read in place, without unpacking them again.
+        this.image = ImageComparisonUtil.normalize(image);
+        int[] normalizedPixels = ImageComparisonUtil.getNormalizedPixels(this.image);
+        this.pixels = normalizedPixels != null
+                ? normalizedPixels : this.image.getRGB(0, 0, width, height, null, 0, width);
+        this.excludedAreas = excludedAreas;
+        this.exclusionMask = ExclusionMask.of(excludedAreas, width, height);
+    }
+
+    /**
+     * Compare the actual image against the expected one.
+     *
+     * @param actual the actual image.
+     * @return the {@link ImageComparisonResult} of the comparison.
+     */
+    public ImageComparisonResult compareImages(BufferedImage actual) {
+        ImageComparison comparison = new ImageComparison(this, actual);
+        comparisonSettings.accept(comparison);
+        return comparison.compareImages();
+    }
+
+    /**
+     * Compare every actual image against the expected one.
+     *
+     * @param actuals  the collection of the actual images.
+     * @param parallel {@code true} if the images should be compared in parallel.
+     * @return the collection of the {@link ImageComparisonResult}s, in the order of the actual images.
+     */
+    public List<ImageComparisonResult> compareImages(List<BufferedImage> actuals, boolean parallel) {
+        Stream<BufferedImage> stream = actuals.stream();
+        return (parallel ? stream.parallel() : stream)
+                .map(this::compareImages)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Pyramid of the expected image, which is built on first use.
+     *
+     * @return the {@link ImagePyramid} of the expected image.
+     */
+    ImagePyramid getPyramid() {
+        ImagePyramid pyramid = this.pyramid;
+        if (pyramid == null) {
+            // concurrent comparisons might build it more than once, which is cheaper than waiting for each other.
+            pyramid = ImagePyramid.of(image);
+            this.pyramid = pyramid;
+        }
+        return pyramid;
+    }
+
+    /**
+     * Luma of the expected image, which is converted on first use.
+     *
+     * @return the {@link LumaPlane} of the expected image.
+     */
+    LumaPlane getLumaPlane() {
+        LumaPlane lumaPlane = this.lumaPlane;
+        if (lumaPlane == null) {
+            lumaPlane = LumaPlane.of(pixels, image.getWidth(), image.getHeight());
+            this.lumaPlane = lumaPlane;
+        }
+        return lumaPlane;
+    }
+
+    int[] getPixels() {
+        return pixels;
+    }
+
+    ExclusionMask getExclusionMask() {
+        return exclusionMask;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    public List<Rectangle> getExcludedAreas() {
+        return excludedAreas;
+    }
+
+    public PreparedExpectedImage setComparisonSettings(Consumer<ImageComparison> comparisonSettings) {
+        this.comparisonSettings = comparisonSettings;
+        return this;
+    }
+}
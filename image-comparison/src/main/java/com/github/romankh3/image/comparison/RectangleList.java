@@ -0,0 +1,285 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Growable list of rectangles stored as arrays of their coordinates, used by the internal pipeline for labeling,
+ * merging and drawing. {@link Rectangle} objects are only created by {@link #toRectangles()} for the result.
+ * <p>
+ * Like {@link Rectangle}, the maximal coordinates are included.
+ */
+final class RectangleList {
+
+    /**
+     * Initial capacity of the coordinate arrays.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] minX;
+    private int[] minY;
+    private int[] maxX;
+    private int[] maxY;
+
+    /**
+     * Count of the rectangles in the list.
+     */
+    private int size = 0;
+
+    /**
+     * Create empty instance of the {@link RectangleList}.
+     */
+    RectangleList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Create empty instance of the {@link RectangleList}.
+     *
+     * @param capacity the initial capacity.
+     */
+    RectangleList(int capacity) {
+        minX = new int[capacity];
+        minY = new int[capacity];
+        maxX = new int[capacity];
+        maxY = new int[capacity];
+    }
+
+    /**
+     * Create instance of the {@link RectangleList} containing the provided rectangles.
+     *
+     * @param rectangles the collection of the {@link Rectangle}s.
+     * @return created {@link RectangleList}.
+     */
+    static RectangleList of(List<Rectangle> rectangles) {
+        RectangleList list = new RectangleList(rectangles.size());
+        for (Rectangle rectangle : rectangles) {
+            list.add(rectangle.getMinPoint().x, rectangle.getMinPoint().y,
+                    rectangle.getMaxPoint().x, rectangle.getMaxPoint().y);
+        }
+        return list;
+    }
+
+    /**
+     * Add a rectangle to the end of the list.
+     *
+     * @param minX minimal X-coordinate.
+     * @param minY minimal Y-coordinate.
+     * @param maxX maximal X-coordinate.
+     * @param maxY maximal Y-coordinate.
+     */
+    void add(int minX, int minY, int maxX, int maxY) {
+        if (size == this.minX.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            this.minX = Arrays.copyOf(this.minX, capacity);
+            this.minY = Arrays.copyOf(this.minY, capacity);
+            this.maxX = Arrays.copyOf(this.maxX, capacity);
+            this.maxY = Arrays.copyOf(this.maxY, capacity);
+        }
+        this.minX[size] = minX;
+        this.minY[size] = minY;
+        this.maxX[size] = maxX;
+        this.maxY[size] = maxY;
+        size++;
+    }
+
+    /**
+     * Add all rectangles of the provided list to the end of this list.
+     *
+     * @param that the {@link RectangleList} to be added.
+     */
+    void addAll(RectangleList that) {
+        for (int i = 0; i < that.size; i++) {
+            add(that.minX[i], that.minY[i], that.maxX[i], that.maxY[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int getMinX(int index) {
+        return minX[index];
+    }
+
+    int getMinY(int index) {
+        return minY[index];
+    }
+
+    int getMaxX(int index) {
+        return maxX[index];
+    }
+
+    int getMaxY(int index) {
+        return maxY[index];
+    }
+
+    int getWidth(int index) {
+        return maxX[index] - minX[index] + 1;
+    }
+
+    int getHeight(int index) {
+        return maxY[index] - minY[index] + 1;
+    }
+
+    /**
+     * Size of the rectangle, counted as width x height.
+     *
+     * @param index the index of the rectangle.
+     * @return the size of the rectangle.
+     */
+    long area(int index) {
+        return (long) getWidth(index) * getHeight(index);
+    }
+
+    /**
+     * Remove the rectangles with a size lower than the provided one, keeping the order of the others.
+     *
+     * @param minimalSize the minimal size of the kept rectangles, counted as width x height.
+     */
+    void removeSmallerThan(long minimalSize) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (area(i) >= minimalSize) {
+                set(kept++, i);
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Merge overlapping rectangles. Every rectangle is replaced by the bounding box of the rectangles overlapping it,
+     * the merged rectangles are removed.
+     */
+    void merge() {
+        if (size == 0) {
+            return;
+        }
+        boolean[] removed = new boolean[size];
+        int position = 0;
+        while (position < size) {
+            if (removed[position]) {
+                position++;
+            }
+            for (int i = 1 + position; i < size; i++) {
+                if (removed[i] || removed[position] || !isOverlapping(position, i)) {
+                    continue;
+                }
+                minX[position] = Math.min(minX[position], minX[i]);
+                minY[position] = Math.min(minY[position], minY[i]);
+                maxX[position] = Math.max(maxX[position], maxX[i]);
+                maxY[position] = Math.max(maxY[position], maxY[i]);
+                removed[i] = true;
+                if (position != 0) {
+                    position--;
+                }
+            }
+            position++;
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) {
+                set(kept++, i);
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * Select the rectangles with the biggest sizes. Of rectangles with equal sizes the later ones are preferred.
+     *
+     * @param count the count of the rectangles to be selected.
+     * @return new {@link RectangleList} with the selected rectangles in their original order, or this if it doesn't
+     * contain more rectangles than the provided count.
+     */
+    RectangleList largest(int count) {
+        if (count >= size) {
+            return this;
+        }
+        long[] areas = new long[size];
+        for (int i = 0; i < size; i++) {
+            areas[i] = area(i);
+        }
+        long[] sortedAreas = areas.clone();
+        Arrays.sort(sortedAreas);
+        long cutoff = sortedAreas[size - count];
+        int biggerCount = 0;
+        for (long area : areas) {
+            if (area > cutoff) {
+                biggerCount++;
+            }
+        }
+        int equalCount = count - biggerCount;
+        boolean[] selected = new boolean[size];
+        for (int i = size - 1; i >= 0; i--) {
+            if (areas[i] > cutoff) {
+                selected[i] = true;
+            } else if (areas[i] == cutoff && equalCount > 0) {
+                selected[i] = true;
+                equalCount--;
+            }
+        }
+        RectangleList largest = new RectangleList(count);
+        for (int i = 0; i < size; i++) {
+            if (selected[i]) {
+                largest.add(minX[i], minY[i], maxX[i], maxY[i]);
+            }
+        }
+        return largest;
+    }
+
+    /**
+     * Create the {@link Rectangle} objects of the list.
+     *
+     * @return the collection of the {@link Rectangle}s in the order of the list.
+     */
+    List<Rectangle> toRectangles() {
+        List<Rectangle> rectangles = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            rectangles.add(new Rectangle(minX[i], minY[i], maxX[i], maxY[i]));
+        }
+        return rectangles;
+    }
+
+    private boolean isOverlapping(int i, int j) {
+        if (maxY[i] < minY[j] || maxY[j] < minY[i]) {
+            return false;
+        }
+        return maxX[i] >= minX[j] && maxX[j] >= minX[i];
+    }
+
+    private void set(int target, int source) {
+        minX[target] = minX[source];
+        minY[target] = minY[source];
+        maxX[target] = maxX[source];
+        maxY[target] = maxY[source];
+    }
+}
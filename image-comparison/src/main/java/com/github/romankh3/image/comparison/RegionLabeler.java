@@ -0,0 +1,296 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.util.Arrays;
+
+/**
+ * Labels the regions of different pixels row by row, keeping only the last {@code threshold + 1} rows in memory.
+ * Two different pixels belong to the same region if they lie on the same row, column or diagonal with a distance of
+ * at most {@code threshold}, in any direction.
+ * <p>
+ * {@link ImageComparison} groups regions by a flood fill from the first pixel of a region, which follows only the
+ * directions right, down, up-right, down-left and down-right and skips pixels of earlier regions. A pixel which only
+ * reaches an earlier region up-left, e.g. from (8, 1) to (10, 3), starts a region of its own there, while here it
+ * joins that region, so the regions here are never more and possibly bigger.
+ * <p>
+ * Regions which can't grow anymore are finalised while the rows are added, so the memory stays bounded by the
+ * width of the image and the threshold.
+ */
+final class RegionLabeler {
+
+    /**
+     * Initial capacity of the region arrays.
+     */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Width of the image.
+     */
+    private final int width;
+
+    /**
+     * Maximal distance between pixels of the same region.
+     */
+    private final int threshold;
+
+    /**
+     * Labels of the last {@code threshold + 1} rows, indexed by {@code y % (threshold + 1)}. Zero means no label.
+     */
+    private final int[][] labels;
+
+    /**
+     * Count of the region labels after which finished regions are collected and the labels are compacted.
+     */
+    private final int compactionLimit;
+
+    /**
+     * Union-find parent of every region label.
+     */
+    private int[] parent = new int[INITIAL_CAPACITY];
+
+    private int[] minX = new int[INITIAL_CAPACITY];
+    private int[] minY = new int[INITIAL_CAPACITY];
+    private int[] maxX = new int[INITIAL_CAPACITY];
+    private int[] maxY = new int[INITIAL_CAPACITY];
+    private long[] pixelCount = new long[INITIAL_CAPACITY];
+
+    /**
+     * Count of the used region labels, including the unused label zero.
+     */
+    private int regionCount = 1;
+
+    /**
+     * The row which is currently labeled.
+     */
+    private int currentY = -1;
+
+    /**
+     * The biggest size of the bounding box of any region so far. Count as (width x height).
+     */
+    private long largestRegionSize = 0;
+
+    /**
+     * The finalised regions.
+     */
+    private final RectangleList rectangles = new RectangleList();
+
+    /**
+     * Create instance of the {@link RegionLabeler}.
+     *
+     * @param width     the width of the image.
+     * @param threshold the maximal distance between pixels of the same region.
+     */
+    RegionLabeler(int width, int threshold) {
+        this.width = width;
+        this.threshold = Math.max(threshold, 1);
+        this.labels = new int[this.threshold + 1][width];
+        this.compactionLimit = 2 * (this.threshold + 1) * width + INITIAL_CAPACITY;
+    }
+
+    /**
+     * Start labeling the next row.
+     *
+     * @param y the Y-coordinate of the row, increasing by one for every row.
+     */
+    void startRow(int y) {
+        if (regionCount > compactionLimit) {
+            compact(false);
+        }
+        currentY = y;
+        Arrays.fill(row(y), 0);
+    }
+
+    /**
+     * Add a different pixel of the current row. Pixels need to be added with increasing X-coordinate.
+     *
+     * @param x the X-coordinate of the different pixel.
+     */
+    void add(int x) {
+        int y = currentY;
+        int label = 0;
+        int[] currentRow = row(y);
+        for (int d = 1; d <= threshold; d++) {
+            if (x - d >= 0) {
+                label = join(label, currentRow[x - d]);
+            }
+            if (y - d >= 0) {
+                int[] previousRow = row(y - d);
+                label = join(label, previousRow[x]);
+                if (x - d >= 0) {
+                    label = join(label, previousRow[x - d]);
+                }
+                if (x + d < width) {
+                    label = join(label, previousRow[x + d]);
+                }
+            }
+        }
+        if (label == 0) {
+            label = newRegion(x, y);
+        } else {
+            label = find(label);
+            minX[label] = Math.min(minX[label], x);
+            maxX[label] = Math.max(maxX[label], x);
+            maxY[label] = y;
+            pixelCount[label]++;
+        }
+        currentRow[x] = label;
+        largestRegionSize = Math.max(largestRegionSize,
+                (long) (maxX[label] - minX[label] + 1) * (maxY[label] - minY[label] + 1));
+    }
+
+    /**
+     * The biggest size of the bounding box of any region so far. As regions only grow, the bounding box of one of
+     * the finalised regions will have at least this size.
+     *
+     * @return the size, count as (width x height).
+     */
+    long getLargestRegionSize() {
+        return largestRegionSize;
+    }
+
+    /**
+     * Finalise all remaining regions.
+     *
+     * @return the {@link RectangleList} of the bounding rectangles of all regions, in the order of their first pixel.
+     */
+    RectangleList finish() {
+        compact(true);
+        return rectangles;
+    }
+
+    private int[] row(int y) {
+        return labels[y % labels.length];
+    }
+
+    /**
+     * Join the region of a neighbouring pixel to the region found so far.
+     *
+     * @param label         the region found so far, or zero.
+     * @param neighbourLabel the region of the neighbouring pixel, or zero.
+     * @return the root of the joined region.
+     */
+    private int join(int label, int neighbourLabel) {
+        if (neighbourLabel == 0) {
+            return label;
+        }
+        int neighbourRoot = find(neighbourLabel);
+        if (label == 0 || label == neighbourRoot) {
+            return neighbourRoot;
+        }
+        // keep the older region as root to preserve the order of the first pixels.
+        int root = Math.min(label, neighbourRoot);
+        int child = Math.max(label, neighbourRoot);
+        parent[child] = root;
+        minX[root] = Math.min(minX[root], minX[child]);
+        minY[root] = Math.min(minY[root], minY[child]);
+        maxX[root] = Math.max(maxX[root], maxX[child]);
+        maxY[root] = Math.max(maxY[root], maxY[child]);
+        pixelCount[root] += pixelCount[child];
+        return root;
+    }
+
+    private int find(int label) {
+        int root = label;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[label] != root) {
+            int next = parent[label];
+            parent[label] = root;
+            label = next;
+        }
+        return root;
+    }
+
+    private int newRegion(int x, int y) {
+        if (regionCount == parent.length) {
+            int capacity = parent.length * 2;
+            parent = Arrays.copyOf(parent, capacity);
+            minX = Arrays.copyOf(minX, capacity);
+            minY = Arrays.copyOf(minY, capacity);
+            maxX = Arrays.copyOf(maxX, capacity);
+            maxY = Arrays.copyOf(maxY, capacity);
+            pixelCount = Arrays.copyOf(pixelCount, capacity);
+        }
+        int label = regionCount++;
+        parent[label] = label;
+        minX[label] = x;
+        maxX[label] = x;
+        minY[label] = y;
+        maxY[label] = y;
+        pixelCount[label] = 1;
+        return label;
+    }
+
+    /**
+     * Finalise the regions, which are not referenced from the kept rows anymore, and renumber the remaining ones.
+     *
+     * @param all {@code true} if all regions should be finalised.
+     */
+    private void compact(boolean all) {
+        int[] newLabels = new int[regionCount];
+        if (!all) {
+            for (int[] labelRow : labels) {
+                for (int x = 0; x < width; x++) {
+                    if (labelRow[x] != 0) {
+                        newLabels[find(labelRow[x])] = -1;
+                    }
+                }
+            }
+        }
+        int keptCount = 1;
+        for (int label = 1; label < regionCount; label++) {
+            if (parent[label] != label) {
+                continue;
+            }
+            if (newLabels[label] == 0) {
+                rectangles.add(minX[label], minY[label], maxX[label], maxY[label]);
+            } else {
+                newLabels[label] = keptCount++;
+            }
+        }
+        if (all) {
+            regionCount = 1;
+            return;
+        }
+        for (int[] labelRow : labels) {
+            for (int x = 0; x < width; x++) {
+                if (labelRow[x] != 0) {
+                    labelRow[x] = newLabels[find(labelRow[x])];
+                }
+            }
+        }
+        for (int label = 1; label < regionCount; label++) {
+            int newLabel = parent[label] == label ? newLabels[label] : 0;
+            if (newLabel > 0) {
+                parent[newLabel] = newLabel;
+                minX[newLabel] = minX[label];
+                minY[newLabel] = minY[label];
+                maxX[newLabel] = maxX[label];
+                maxY[newLabel] = maxY[label];
+                pixelCount[newLabel] = pixelCount[label];
+            }
+        }
+        regionCount = keptCount;
+    }
+}
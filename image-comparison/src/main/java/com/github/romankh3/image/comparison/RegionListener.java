@@ -0,0 +1,48 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Listener receiving the regions of differences while {@link ImageComparison#compareImages()} groups them.
+ * <p>
+ * Regions are delivered in the order of their first pixel, as soon as each region is complete and before overlapping
+ * rectangles are merged. Regions smaller than the minimal rectangle size aren't delivered.
+ * <p>
+ * Unless an allowed percent of different pixels, included areas, the pyramid comparison or the distance map caching
+ * is set, the regions are delivered while the images are scanned, band by band of rows, so stopping the comparison
+ * skips the remaining rows.
+ */
+@FunctionalInterface
+public interface RegionListener {
+
+    /**
+     * Called for every region of differences.
+     *
+     * @param rectangle  the bounding {@link Rectangle} of the region.
+     * @param pixelCount the count of the different pixels in the region.
+     * @return {@code true} to continue grouping the regions, {@code false} to stop the comparison with the regions
+     * found so far.
+     */
+    boolean onRegion(Rectangle rectangle, long pixelCount);
+}
@@ -0,0 +1,297 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Comparison of a sequence of actual frames, e.g. of a screen recording, against a sequence of expected frames,
+ * frame by frame.
+ * <p>
+ * The first frames are compared completely. For every further pair of frames, only the tiles of
+ * {@link #TILE_SIZE} x {@link #TILE_SIZE} pixels which changed in any of both sequences since the previous frame
+ * are compared again, see {@link ImageComparison#compareImages(List, ImageComparisonResult)}, so static areas of
+ * the recordings cost only a check for changes. The pixels of the previous frames are kept in buffers, which are
+ * reused for all frames of the same size and data layout. Frames with one {@code int} per pixel, e.g. of
+ * {@link BufferedImage#TYPE_INT_RGB}, are checked in place on their data.
+ * <p>
+ * A single {@link ImageComparison} with the {@link #comparisonSettings} compares all frames, so its rasterised
+ * excluded areas are reused as well.
+ */
+public class SequenceComparison {
+
+    /**
+     * Edge length of the tiles in pixels, which are compared again if they changed.
+     */
+    static final int TILE_SIZE = 16;
+
+    /**
+     * Frames of the expected sequence.
+     */
+    private final Iterator<BufferedImage> expectedFrames;
+
+    /**
+     * Frames of the actual sequence.
+     */
+    private final Iterator<BufferedImage> actualFrames;
+
+    /**
+     * Settings applied to the {@link ImageComparison} of the frames.
+     */
+    private Consumer<ImageComparison> comparisonSettings = comparison -> { };
+
+    /**
+     * The {@link ImageComparison} of all frames, or {@code null} before the first ones.
+     */
+    private /* @Nullable */ ImageComparison comparison;
+
+    private int width;
+    private int height;
+
+    /**
+     * Pixels of the previous expected frame, in row-major order.
+     */
+    private int[] previousExpected;
+
+    /**
+     * Pixels of the previous actual frame, in row-major order.
+     */
+    private int[] previousActual;
+
+    /**
+     * Color model of the data of the previous expected frame, if it was kept as is, or {@code null} if its RGB
+     * values were kept.
+     */
+    private /* @Nullable */ ColorModel previousExpectedModel;
+
+    /**
+     * Color model of the data of the previous actual frame, if it was kept as is, or {@code null} if its RGB
+     * values were kept.
+     */
+    private /* @Nullable */ ColorModel previousActualModel;
+
+    /**
+     * Buffer for a row of the current frame, if its data can't be read in place.
+     */
+    private int[] row;
+
+    /**
+     * Flags of the tiles which changed since the previous frame, in row-major order.
+     */
+    private boolean[] changedTiles;
+
+    /**
+     * Result of the previous pair of frames, or {@code null} before the first one.
+     */
+    private /* @Nullable */ ImageComparisonResult previousResult;
+
+    /**
+     * Create a new instance of {@link SequenceComparison} for the given sequences of frames.
+     *
+     * @param expectedFrames the frames of the expected sequence.
+     * @param actualFrames   the frames of the actual sequence.
+     */
+    public SequenceComparison(Stream<BufferedImage> expectedFrames, Stream<BufferedImage> actualFrames) {
+        this(expectedFrames.iterator(), actualFrames.iterator());
+    }
+
+    /**
+     * Create a new instance of {@link SequenceComparison} for the given sequences of frames.
+     *
+     * @param expectedFrames the frames of the expected sequence.
+     * @param actualFrames   the frames of the actual sequence.
+     */
+    public SequenceComparison(Iterator<BufferedImage> expectedFrames, Iterator<BufferedImage> actualFrames) {
+        this.expectedFrames = expectedFrames;
+        this.actualFrames = actualFrames;
+    }
+
+    /**
+     * Compare the sequences frame by frame, while the stream is consumed. The stream ends with the shorter
+     * sequence and can be consumed only once.
+     *
+     * @return the ordered stream of the {@link ImageComparisonResult} of every pair of frames.
+     */
+    public Stream<ImageComparisonResult> compareFrames() {
+        Iterator<ImageComparisonResult> results = new Iterator<ImageComparisonResult>() {
+            @Override
+            public boolean hasNext() {
+                return expectedFrames.hasNext() && actualFrames.hasNext();
+            }
+
+            @Override
+            public ImageComparisonResult next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return compareFrame(expectedFrames.next(), actualFrames.next());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(results,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Compare the next pair of frames.
+     *
+     * @param expected the expected frame.
+     * @param actual   the actual frame.
+     * @return the {@link ImageComparisonResult} of the frames.
+     */
+    private ImageComparisonResult compareFrame(BufferedImage expected, BufferedImage actual) {
+        if (comparison == null) {
+            comparison = new ImageComparison(expected, actual);
+            comparisonSettings.accept(comparison);
+        } else {
+            comparison.setImages(expected, actual);
+        }
+        List<Rectangle> changedAreas = findChangedAreas(expected, actual);
+        ImageComparisonResult result = changedAreas == null
+                ? comparison.compareImages()
+                : comparison.compareImages(changedAreas, previousResult);
+        previousResult = result;
+        return result;
+    }
+
+    /**
+     * Find the tiles which changed in any of both frames since the previous ones and keep the pixels of the frames
+     * for the next ones.
+     *
+     * @param expected the expected frame.
+     * @param actual   the actual frame.
+     * @return the collection of the {@link Rectangle}s covering the changed tiles, adjacent tiles of the same row
+     * of tiles are joined, or {@code null} if the frames need to be compared completely.
+     */
+    private /* @Nullable */ List<Rectangle> findChangedAreas(BufferedImage expected, BufferedImage actual) {
+        if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
+            previousExpected = null;
+            return null;
+        }
+        int[] expectedData = ImageComparisonUtil.getPackedPixelData(expected);
+        int[] actualData = ImageComparisonUtil.getPackedPixelData(actual);
+        ColorModel expectedModel = expectedData != null ? expected.getColorModel() : null;
+        ColorModel actualModel = actualData != null ? actual.getColorModel() : null;
+        // the kept pixels can only be compared with pixels of the same size and data layout.
+        if (previousExpected == null || expected.getWidth() != width || expected.getHeight() != height
+                || !Objects.equals(expectedModel, previousExpectedModel)
+                || !Objects.equals(actualModel, previousActualModel)) {
+            if (previousExpected == null || expected.getWidth() != width || expected.getHeight() != height) {
+                width = expected.getWidth();
+                height = expected.getHeight();
+                previousExpected = new int[width * height];
+                previousActual = new int[width * height];
+                row = new int[width];
+                changedTiles = new boolean[getTileCount(width) * getTileCount(height)];
+            }
+            previousExpectedModel = expectedModel;
+            previousActualModel = actualModel;
+            keepPixels(expected, expectedData, previousExpected);
+            keepPixels(actual, actualData, previousActual);
+            return null;
+        }
+        int tilesX = getTileCount(width);
+        markChangedTiles(expected, expectedData, previousExpected, tilesX);
+        markChangedTiles(actual, actualData, previousActual, tilesX);
+        List<Rectangle> changedAreas = new ArrayList<>();
+        for (int tileY = 0; tileY < getTileCount(height); tileY++) {
+            int tileX = 0;
+            while (tileX < tilesX) {
+                if (!changedTiles[tileY * tilesX + tileX]) {
+                    tileX++;
+                    continue;
+                }
+                int firstTileX = tileX;
+                while (tileX < tilesX && changedTiles[tileY * tilesX + tileX]) {
+                    changedTiles[tileY * tilesX + tileX] = false;
+                    tileX++;
+                }
+                changedAreas.add(new Rectangle(firstTileX * TILE_SIZE, tileY * TILE_SIZE,
+                        Math.min(width, tileX * TILE_SIZE) - 1, Math.min(height, (tileY + 1) * TILE_SIZE) - 1));
+            }
+        }
+        return changedAreas;
+    }
+
+    /**
+     * Keep the pixels of the frame, its data if it can be read in place, its RGB values otherwise.
+     */
+    private void keepPixels(BufferedImage frame, /* @Nullable */ int[] data, int[] previous) {
+        if (data != null) {
+            System.arraycopy(data, 0, previous, 0, width * height);
+            return;
+        }
+        for (int y = 0; y < height; y++) {
+            ImageComparisonUtil.readRow(frame, 0, y, width, previous, y * width);
+        }
+    }
+
+    /**
+     * Mark the tiles, where the frame differs from the previous pixels, and replace the previous pixels.
+     *
+     * @param frame    the frame.
+     * @param data     the data of the frame, if it can be read in place, or {@code null}.
+     * @param previous the previous pixels, kept like the pixels of the frame.
+     * @param tilesX   the count of the tiles in a row of tiles.
+     */
+    private void markChangedTiles(BufferedImage frame, /* @Nullable */ int[] data, int[] previous, int tilesX) {
+        for (int y = 0; y < height; y++) {
+            int[] pixels = data;
+            int offset = y * width;
+            int pixelOffset = offset;
+            if (data == null) {
+                ImageComparisonUtil.readRow(frame, 0, y, width, row, 0);
+                pixels = row;
+                pixelOffset = 0;
+            }
+            int tileOffset = (y / TILE_SIZE) * tilesX;
+            for (int x = 0; x < width; x++) {
+                if (pixels[pixelOffset + x] != previous[offset + x]) {
+                    changedTiles[tileOffset + x / TILE_SIZE] = true;
+                    previous[offset + x] = pixels[pixelOffset + x];
+                }
+            }
+        }
+    }
+
+    private static int getTileCount(int size) {
+        return (size + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    public SequenceComparison setComparisonSettings(Consumer<ImageComparison> comparisonSettings) {
+        this.comparisonSettings = comparisonSettings;
+        return this;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.exception.ImageComparisonException;
+import com.github.romankh3.image.comparison.model.ExcludedAreas;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Comparison of very large images, which reads both images row by row instead of loading them completely.
+ * At most {@link #bandHeight} decoded rows of every image are held at once, so the peak memory is bounded by the
+ * band height and the image width.
+ * <p>
+ * The {@link ImageComparisonResult} contains the state, the difference percent and the rectangles of the
+ * differences, but no images. The different pixels are grouped by a {@link RegionLabeler}, which joins neighbouring
+ * pixels in any direction, so touching differences can form fewer and bigger rectangles than in
+ * {@link ImageComparison}. For images of different sizes, the difference percent is the one of their overlapping
+ * area, see {@link ImageComparisonUtil#getOverlapDifferencePercent(BufferedImage, BufferedImage)}.
+ * Both images are read in bands of source regions. Some readers decode more rows than the band for every band, e.g.
+ * the PNG reader decodes the whole image, so for them a bigger band height trades memory for speed.
+ * <p>
+ * If only the {@link ImageComparisonState} is needed, {@link #compareState()} stops decoding both images as soon as
+ * the verdict is known, at most a band of rows after the deciding row, for readers which decode only the band.
+ */
+public class StreamingImageComparison {
+
+    /**
+     * Default count of the decoded rows of every image which are held at once.
+     */
+    public static final int DEFAULT_BAND_HEIGHT = 256;
+
+    /**
+     * File of the expected image.
+     */
+    private final File expected;
+
+    /**
+     * File of the actual image.
+     */
+    private final File actual;
+
+    /**
+     * Count of the decoded rows of every image which are held at once.
+     */
+    private int bandHeight = DEFAULT_BAND_HEIGHT;
+
+    /**
+     * The threshold which means the max distance between non-equal pixels.
+     */
+    private int threshold = 5;
+
+    /**
+     * The number of the minimal rectangle size. Count as (width x height).
+     */
+    private int minimalRectangleSize = 1;
+
+    /**
+     * Level of the pixel tolerance. By default, it's 0.1 -> 10% difference.
+     */
+    private double pixelToleranceLevel = 0.1;
+
+    /**
+     * Constant using for counting the level of the difference.
+     */
+    private double differenceConstant = ImageComparisonUtil.calculateDifferenceConstant(pixelToleranceLevel);
+
+    /**
+     * The percent of the allowing pixels to be different to stay {@link ImageComparisonState#MATCH} for comparison.
+     */
+    private double allowingPercentOfDifferentPixels = 0.0;
+
+    /**
+     * ExcludedAreas contains a List of {@link Rectangle}s to be ignored when comparing images.
+     */
+    private ExcludedAreas excludedAreas = new ExcludedAreas();
+
+    /**
+     * Create a new instance of {@link StreamingImageComparison} that can compare the given image files.
+     *
+     * @param expected expected image file to be compared
+     * @param actual   actual image file to be compared
+     */
+    public StreamingImageComparison(File expected, File actual) {
+        this.expected = expected;
+        this.actual = actual;
+    }
+
+    /**
+     * Compare the images row by row.
+     *
+     * @return the result of the comparison.
+     * @throws ImageComparisonException due to read the images.
+     */
+    public ImageComparisonResult compareImages() throws ImageComparisonException {
+        return withRowReaders(this::compareImages);
+    }
+
+    /**
+     * Compare the images only for the {@link ImageComparisonState}. Rows of both images are read in lockstep and
+     * reading stops as soon as the different pixels exceed {@link #allowingPercentOfDifferentPixels}, so a
+     * mismatch only costs the rows read up to the first big difference.
+     * Images with different sizes are detected without reading their pixels.
+     *
+     * @return the state of the comparison, equal to the state of the result of {@link #compareImages()}.
+     * @throws ImageComparisonException due to read the images.
+     */
+    public ImageComparisonState compareState() throws ImageComparisonException {
+        return withRowReaders(this::compareState);
+    }
+
+    /**
+     * Open the row readers of both images, apply the function and close them again.
+     */
+    private <T> T withRowReaders(RowReadersFunction<T> function) throws ImageComparisonException {
+        try (ImageRowReader expectedReader = ImageRowReader.open(expected, bandHeight);
+                ImageRowReader actualReader = ImageRowReader.open(actual, bandHeight)) {
+            return function.apply(expectedReader, actualReader);
+        } catch (IOException e) {
+            throw new ImageComparisonException(String.format("Cannot read images, expected=%s, actual=%s",
+                    expected.getPath(), actual.getPath()), e);
+        }
+    }
+
+    /**
+     * Compare the images of the provided row readers only for the {@link ImageComparisonState}.
+     */
+    ImageComparisonState compareState(ImageRowReader expectedReader, ImageRowReader actualReader)
+            throws IOException {
+        int width = expectedReader.getWidth();
+        int height = expectedReader.getHeight();
+        if (width != actualReader.getWidth() || height != actualReader.getHeight()) {
+            return ImageComparisonState.SIZE_MISMATCH;
+        }
+
+        // every different pixel forms a region of at least the minimal size, so the regions are only needed
+        // for bigger minimal sizes.
+        RegionLabeler labeler = minimalRectangleSize > 1 ? new RegionLabeler(width, threshold) : null;
+        int[] expectedRow = new int[width];
+        int[] actualRow = new int[width];
+        long countOfDifferentPixels = 0;
+        for (int y = 0; y < height; y++) {
+            expectedReader.readRow(y, expectedRow);
+            actualReader.readRow(y, actualRow);
+            if (labeler != null) {
+                labeler.startRow(y);
+            }
+            for (int x = 0; x < width; x++) {
+                if (!excludedAreas.contains(x, y) && ImageComparisonUtil.isDifferentPixels(
+                        expectedRow[x], actualRow[x], pixelToleranceLevel, differenceConstant)) {
+                    if (labeler != null) {
+                        labeler.add(x);
+                    }
+                    countOfDifferentPixels++;
+                }
+            }
+            if (countOfDifferentPixels > 0
+                    && !isAllowedPercentOfDifferentPixels(countOfDifferentPixels, width, height)
+                    && (labeler == null || labeler.getLargestRegionSize() >= minimalRectangleSize)) {
+                return ImageComparisonState.MISMATCH;
+            }
+        }
+        return ImageComparisonState.MATCH;
+    }
+
+    private ImageComparisonResult compareImages(ImageRowReader expectedReader, ImageRowReader actualReader)
+            throws IOException {
+        int width = expectedReader.getWidth();
+        int height = expectedReader.getHeight();
+        if (width != actualReader.getWidth() || height != actualReader.getHeight()) {
+            return ImageComparisonResult.defaultSizeMisMatchResult(null, null,
+                    getOverlapDifferencePercent(expectedReader, actualReader));
+        }
+
+        RegionLabeler labeler = new RegionLabeler(width, threshold);
+        int[] expectedRow = new int[width];
+        int[] actualRow = new int[width];
+        long countOfDifferentPixels = 0;
+        long diff = 0;
+        for (int y = 0; y < height; y++) {
+            expectedReader.readRow(y, expectedRow);
+            actualReader.readRow(y, actualRow);
+            labeler.startRow(y);
+            for (int x = 0; x < width; x++) {
+                diff += ImageComparisonUtil.pixelDiff(expectedRow[x], actualRow[x]);
+                if (!excludedAreas.contains(x, y) && ImageComparisonUtil.isDifferentPixels(
+                        expectedRow[x], actualRow[x], pixelToleranceLevel, differenceConstant)) {
+                    labeler.add(x);
+                    countOfDifferentPixels++;
+                }
+            }
+        }
+
+        RectangleList rectangles = labeler.finish();
+        if (countOfDifferentPixels == 0 || isAllowedPercentOfDifferentPixels(countOfDifferentPixels, width, height)) {
+            return ImageComparisonResult.defaultMatchResult(null, null);
+        }
+        rectangles.removeSmallerThan(minimalRectangleSize);
+        if (rectangles.isEmpty()) {
+            return ImageComparisonResult.defaultMatchResult(null, null);
+        }
+        rectangles.merge();
+        rectangles.merge();
+        float differencePercent = (float) (100.0 * diff / (4L * 255 * width * height));
+        return ImageComparisonResult.defaultMisMatchResult(null, null, differencePercent)
+                .setRectangles(rectangles.toRectangles());
+    }
+
+    /**
+     * Compute the difference percent of images of different sizes row by row, like
+     * {@link ImageComparisonUtil#getOverlapDifferencePercent(BufferedImage, BufferedImage)}.
+     */
+    private static float getOverlapDifferencePercent(ImageRowReader expectedReader, ImageRowReader actualReader)
+            throws IOException {
+        int width = Math.min(expectedReader.getWidth(), actualReader.getWidth());
+        int height = Math.min(expectedReader.getHeight(), actualReader.getHeight());
+        int[] expectedRow = new int[expectedReader.getWidth()];
+        int[] actualRow = new int[actualReader.getWidth()];
+        long diff = 0;
+        for (int y = 0; y < height; y++) {
+            expectedReader.readRow(y, expectedRow);
+            actualReader.readRow(y, actualRow);
+            for (int x = 0; x < width; x++) {
+                diff += ImageComparisonUtil.pixelDiff(expectedRow[x], actualRow[x]);
+            }
+        }
+        long overlapPixels = (long) width * height;
+        long pixels = (long) expectedReader.getWidth() * expectedReader.getHeight()
+                + (long) actualReader.getWidth() * actualReader.getHeight() - overlapPixels;
+        diff += 4L * 255 * (pixels - overlapPixels);
+        return (float) (100.0 * diff / (4L * 255 * pixels));
+    }
+
+    /**
+     * Say if provided count of different pixels is allowed for {@link ImageComparisonState#MATCH} state.
+     */
+    private boolean isAllowedPercentOfDifferentPixels(long countOfDifferentPixels, int width, int height) {
+        double totalPixelCount = (double) width * height;
+        return countOfDifferentPixels / totalPixelCount * 100 <= allowingPercentOfDifferentPixels;
+    }
+
+    /**
+     * Function of the opened row readers of both images.
+     */
+    private interface RowReadersFunction<T> {
+
+        T apply(ImageRowReader expectedReader, ImageRowReader actualReader) throws IOException;
+    }
+
+    public File getExpected() {
+        return expected;
+    }
+
+    public File getActual() {
+        return actual;
+    }
+
+    public int getBandHeight() {
+        return bandHeight;
+    }
+
+    public StreamingImageComparison setBandHeight(int bandHeight) {
+        if (bandHeight > 0) {
+            this.bandHeight = bandHeight;
+        }
+        return this;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public StreamingImageComparison setThreshold(int threshold) {
+        this.threshold = threshold;
+        return this;
+    }
+
+    public int getMinimalRectangleSize() {
+        return minimalRectangleSize;
+    }
+
+    public StreamingImageComparison setMinimalRectangleSize(int minimalRectangleSize) {
+        this.minimalRectangleSize = minimalRectangleSize;
+        return this;
+    }
+
+    public double getPixelToleranceLevel() {
+        return pixelToleranceLevel;
+    }
+
+    public StreamingImageComparison setPixelToleranceLevel(double pixelToleranceLevel) {
+        if (0.0 <= pixelToleranceLevel && pixelToleranceLevel < 1) {
+            this.pixelToleranceLevel = pixelToleranceLevel;
+            differenceConstant = ImageComparisonUtil.calculateDifferenceConstant(pixelToleranceLevel);
+        }
+        return this;
+    }
+
+    public double getAllowingPercentOfDifferentPixels() {
+        return allowingPercentOfDifferentPixels;
+    }
+
+    public StreamingImageComparison setAllowingPercentOfDifferentPixels(double allowingPercentOfDifferentPixels) {
+        if (0.0 <= allowingPercentOfDifferentPixels && allowingPercentOfDifferentPixels <= 100) {
+            this.allowingPercentOfDifferentPixels = allowingPercentOfDifferentPixels;
+        }
+        return this;
+    }
+
+    public StreamingImageComparison setExcludedAreas(List<Rectangle> excludedAreas) {
+        this.excludedAreas = new ExcludedAreas(excludedAreas);
+        return this;
+    }
+}
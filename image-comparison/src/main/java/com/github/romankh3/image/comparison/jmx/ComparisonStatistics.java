@@ -0,0 +1,295 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.github.romankh3.image.comparison.exception.ImageComparisonException;
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+
+/**
+ * Statistics of all comparisons of the JVM, published as {@link ComparisonStatisticsMXBean}.
+ * <p>
+ * Nothing is recorded until {@link #register()} is called. Afterwards every comparison is recorded with lock-free
+ * counters, so concurrent comparisons never contend.
+ */
+public class ComparisonStatistics implements ComparisonStatisticsMXBean {
+
+    /**
+     * Name of the registered MBean.
+     */
+    public static final String OBJECT_NAME = "com.github.romankh3.image.comparison:type=ComparisonStatistics";
+
+    /**
+     * Upper bounds of the buckets of the image sizes in pixels, the last bucket is unbounded.
+     */
+    private static final long[] SIZE_BUCKET_BOUNDS = {1L << 18, 1L << 20, 1L << 22, 1L << 24};
+
+    private static final String[] SIZE_BUCKET_NAMES = {"<0.25MP", "<1MP", "<4MP", "<16MP", ">=16MP"};
+
+    /**
+     * Count of the seconds averaged by {@link #getComparisonsPerSecond()}.
+     */
+    private static final int RATE_SECONDS = 60;
+
+    /**
+     * Count of the slots of the ring of counts per second, a power of two bigger than {@link #RATE_SECONDS}.
+     */
+    private static final int RATE_SLOTS = 64;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * The registered instance, or {@code null} if the statistics aren't registered.
+     */
+    private static volatile /* @Nullable */ ComparisonStatistics registered;
+
+    /**
+     * Source of the current time in nanoseconds.
+     */
+    private final LongSupplier nanoTime;
+
+    private final LongAdder comparisonCount = new LongAdder();
+
+    /**
+     * Count of the comparisons of every {@link ImageComparisonState}, indexed by its ordinal.
+     */
+    private final LongAdder[] stateCounts = new LongAdder[ImageComparisonState.values().length];
+
+    /**
+     * Latencies of the comparisons of every size bucket.
+     */
+    private final LatencyHistogram[] latencies = new LatencyHistogram[SIZE_BUCKET_NAMES.length];
+
+    private final LongAdder bufferBytesAllocated = new LongAdder();
+
+    private final LongAdder fingerprintChecks = new LongAdder();
+
+    private final LongAdder fingerprintMatches = new LongAdder();
+
+    /**
+     * The second of the counts of every slot.
+     */
+    private final AtomicLongArray slotSeconds = new AtomicLongArray(RATE_SLOTS);
+
+    /**
+     * Count of the comparisons of every slot.
+     */
+    private final LongAdder[] slotCounts = new LongAdder[RATE_SLOTS];
+
+    /**
+     * Create instance of the {@link ComparisonStatistics}.
+     */
+    public ComparisonStatistics() {
+        this(System::nanoTime);
+    }
+
+    ComparisonStatistics(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        for (int i = 0; i < stateCounts.length; i++) {
+            stateCounts[i] = new LongAdder();
+        }
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < RATE_SLOTS; i++) {
+            slotSeconds.set(i, Long.MIN_VALUE);
+            slotCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Register the statistics in the platform {@link MBeanServer} under the {@link #OBJECT_NAME}, so every following
+     * comparison is recorded.
+     *
+     * @return the registered {@link ComparisonStatistics}, the existing one if already registered.
+     * @throws ImageComparisonException if the MBean can't be registered.
+     */
+    public static synchronized ComparisonStatistics register() throws ImageComparisonException {
+        if (registered == null) {
+            ComparisonStatistics statistics = new ComparisonStatistics();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                server.registerMBean(statistics, new ObjectName(OBJECT_NAME));
+            } catch (JMException e) {
+                throw new ImageComparisonException(String.format("Cannot register MBean, name=%s", OBJECT_NAME), e);
+            }
+            registered = statistics;
+        }
+        return registered;
+    }
+
+    /**
+     * Unregister the statistics, so comparisons aren't recorded anymore.
+     *
+     * @throws ImageComparisonException if the MBean can't be unregistered.
+     */
+    public static synchronized void unregister() throws ImageComparisonException {
+        if (registered == null) {
+            return;
+        }
+        registered = null;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new ImageComparisonException(String.format("Cannot unregister MBean, name=%s", OBJECT_NAME), e);
+        }
+    }
+
+    /**
+     * The registered statistics.
+     *
+     * @return the registered {@link ComparisonStatistics}, or {@code null} if they aren't registered.
+     */
+    public static /* @Nullable */ ComparisonStatistics getRegistered() {
+        return registered;
+    }
+
+    /**
+     * Record a comparison.
+     *
+     * @param state      the {@link ImageComparisonState} of the result.
+     * @param pixelCount the count of the pixels of the actual image.
+     * @param metrics    the {@link ImageComparisonMetrics} of the comparison.
+     */
+    public void record(ImageComparisonState state, long pixelCount, ImageComparisonMetrics metrics) {
+        comparisonCount.increment();
+        stateCounts[state.ordinal()].increment();
+        latencies[sizeBucket(pixelCount)].record(metrics.getTotalNanos());
+        bufferBytesAllocated.add(metrics.getBytesAllocated());
+        if (metrics.getFingerprintChecks() > 0) {
+            fingerprintChecks.add(metrics.getFingerprintChecks());
+            fingerprintMatches.add(metrics.getFingerprintMatches());
+        }
+        countForRate();
+    }
+
+    @Override
+    public long getComparisonCount() {
+        return comparisonCount.sum();
+    }
+
+    @Override
+    public double getComparisonsPerSecond() {
+        long second = Math.floorDiv(nanoTime.getAsLong(), NANOS_PER_SECOND);
+        long count = 0;
+        for (int slot = 0; slot < RATE_SLOTS; slot++) {
+            long slotSecond = slotSeconds.get(slot);
+            // the current second isn't complete yet.
+            if (slotSecond < second && slotSecond >= second - RATE_SECONDS) {
+                count += slotCounts[slot].sum();
+            }
+        }
+        return (double) count / RATE_SECONDS;
+    }
+
+    @Override
+    public long getMatchCount() {
+        return stateCounts[ImageComparisonState.MATCH.ordinal()].sum();
+    }
+
+    @Override
+    public long getMismatchCount() {
+        return stateCounts[ImageComparisonState.MISMATCH.ordinal()].sum();
+    }
+
+    @Override
+    public long getSizeMismatchCount() {
+        return stateCounts[ImageComparisonState.SIZE_MISMATCH.ordinal()].sum();
+    }
+
+    @Override
+    public List<LatencySnapshot> getLatencies() {
+        List<LatencySnapshot> snapshots = new ArrayList<>(latencies.length);
+        for (int i = 0; i < latencies.length; i++) {
+            LatencyHistogram histogram = latencies[i];
+            snapshots.add(new LatencySnapshot(SIZE_BUCKET_NAMES[i], histogram.getCount(),
+                    histogram.getPercentile(0.5) / NANOS_PER_MILLI,
+                    histogram.getPercentile(0.99) / NANOS_PER_MILLI,
+                    histogram.getMax() / NANOS_PER_MILLI));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public long getBufferBytesAllocated() {
+        return bufferBytesAllocated.sum();
+    }
+
+    @Override
+    public double getFingerprintHitRate() {
+        long checks = fingerprintChecks.sum();
+        return checks == 0 ? 0 : (double) fingerprintMatches.sum() / checks;
+    }
+
+    @Override
+    public void reset() {
+        comparisonCount.reset();
+        for (LongAdder stateCount : stateCounts) {
+            stateCount.reset();
+        }
+        for (LatencyHistogram histogram : latencies) {
+            histogram.reset();
+        }
+        bufferBytesAllocated.reset();
+        fingerprintChecks.reset();
+        fingerprintMatches.reset();
+        for (LongAdder slotCount : slotCounts) {
+            slotCount.reset();
+        }
+    }
+
+    /**
+     * Count the comparison in the slot of the current second. A slot is reused after {@link #RATE_SLOTS} seconds,
+     * comparisons counted concurrently to that reuse may get lost.
+     */
+    private void countForRate() {
+        long second = Math.floorDiv(nanoTime.getAsLong(), NANOS_PER_SECOND);
+        int slot = (int) (second & (RATE_SLOTS - 1));
+        long slotSecond = slotSeconds.get(slot);
+        if (slotSecond != second && slotSeconds.compareAndSet(slot, slotSecond, second)) {
+            slotCounts[slot].reset();
+        }
+        slotCounts[slot].increment();
+    }
+
+    private static int sizeBucket(long pixelCount) {
+        for (int i = 0; i < SIZE_BUCKET_BOUNDS.length; i++) {
+            if (pixelCount < SIZE_BUCKET_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return SIZE_BUCKET_BOUNDS.length;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+import java.util.List;
+
+/**
+ * Management interface of the {@link ComparisonStatistics}.
+ */
+public interface ComparisonStatisticsMXBean {
+
+    /**
+     * @return the count of the comparisons since the start or the last reset.
+     */
+    long getComparisonCount();
+
+    /**
+     * @return the average count of the comparisons per second during the last minute.
+     */
+    double getComparisonsPerSecond();
+
+    long getMatchCount();
+
+    long getMismatchCount();
+
+    long getSizeMismatchCount();
+
+    /**
+     * @return the latencies of the comparisons, one entry for every bucket of image sizes.
+     */
+    List<LatencySnapshot> getLatencies();
+
+    /**
+     * @return the bytes allocated for the buffers of all comparisons, i.e. the matrices and the result images.
+     */
+    long getBufferBytesAllocated();
+
+    /**
+     * @return the share of the comparisons against fingerprints, which matched without decoding the expected image.
+     */
+    double getFingerprintHitRate();
+
+    /**
+     * Reset all statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,129 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies in nanoseconds.
+ * <p>
+ * Every power of two is split into four buckets, so percentiles are estimated with a relative error of at most 25%.
+ */
+final class LatencyHistogram {
+
+    /**
+     * Count of the sub buckets of every power of two.
+     */
+    private static final int SUB_BUCKETS = 4;
+
+    /**
+     * Count of the buckets, enough for every positive {@code long}.
+     */
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (Long.SIZE - 3) * SUB_BUCKETS;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucketIndex(value)].increment();
+        count.increment();
+        max.accumulate(value);
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estimate the percentile of the recorded latencies as the upper bound of the bucket containing it.
+     *
+     * @param percentile the percentile between 0 and 1.
+     * @return the estimated latency in nanoseconds, or zero if nothing was recorded.
+     */
+    long getPercentile(double percentile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        max.reset();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - 2) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = (index - SUB_BUCKETS) / SUB_BUCKETS + 2;
+        long subBucket = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lowerBound = (SUB_BUCKETS + subBucket) << (exponent - 2);
+        return lowerBound + (1L << (exponent - 2)) - 1;
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+/**
+ * Latencies of the comparisons of images in a size bucket, as exposed by the {@link ComparisonStatisticsMXBean}.
+ */
+public class LatencySnapshot {
+
+    /**
+     * Name of the size bucket, e.g. {@code <1MP}.
+     */
+    private final String sizeBucket;
+
+    /**
+     * Count of the comparisons.
+     */
+    private final long count;
+
+    private final double p50Millis;
+
+    private final double p99Millis;
+
+    private final double maxMillis;
+
+    public LatencySnapshot(String sizeBucket, long count, double p50Millis, double p99Millis, double maxMillis) {
+        this.sizeBucket = sizeBucket;
+        this.count = count;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getSizeBucket() {
+        return sizeBucket;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+}
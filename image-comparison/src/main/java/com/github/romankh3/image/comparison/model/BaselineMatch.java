@@ -0,0 +1,58 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.model;
+
+/**
+ * The expected image which matches the actual image best among several candidates, with the result of their
+ * comparison.
+ */
+public class BaselineMatch {
+
+    /**
+     * Index of the best matching expected image among the candidates.
+     */
+    private final int index;
+
+    /**
+     * {@link ImageComparisonResult} of the comparison with the best matching expected image.
+     */
+    private final ImageComparisonResult result;
+
+    /**
+     * Create instance of the {@link BaselineMatch}.
+     *
+     * @param index  the index of the best matching expected image among the candidates.
+     * @param result the {@link ImageComparisonResult} of the comparison with it.
+     */
+    public BaselineMatch(int index, ImageComparisonResult result) {
+        this.index = index;
+        this.result = result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public ImageComparisonResult getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.model;
+
+import com.github.romankh3.image.comparison.ImageComparisonUtil;
+
+/**
+ * Histogram of the squared distances between the pixels of two images, computed in a single scan by
+ * {@link com.github.romankh3.image.comparison.ImageComparison#createDistanceHistogram()}.
+ * <p>
+ * It tells in constant time how many pixels differ at any pixel tolerance level, so tolerances can be calibrated
+ * without comparing the images again for every candidate value.
+ */
+public class DistanceHistogram {
+
+    /**
+     * The biggest squared distance between two pixels, which differ in all four channels by 255.
+     */
+    public static final int MAX_SQUARED_DISTANCE = 4 * 255 * 255;
+
+    /**
+     * Count of the compared pixels with at least the squared distance of the index.
+     */
+    private final long[] atLeast;
+
+    /**
+     * Count of all pixels of the compared area, including the excluded ones.
+     */
+    private final long pixelCount;
+
+    /**
+     * Count of the pixels inside the excluded areas.
+     */
+    private final long excludedPixelCount;
+
+    /**
+     * Create instance of the {@link DistanceHistogram}.
+     *
+     * @param counts             the counts of the compared pixels for every squared distance, from 0 to
+     *                           {@link #MAX_SQUARED_DISTANCE}. The array is taken over by the histogram.
+     * @param pixelCount         the count of all pixels of the compared area, including the excluded ones.
+     * @param excludedPixelCount the count of the pixels inside the excluded areas.
+     */
+    public DistanceHistogram(long[] counts, long pixelCount, long excludedPixelCount) {
+        if (counts.length != MAX_SQUARED_DISTANCE + 1) {
+            throw new IllegalArgumentException(String.format("Expected %d counts, but got %d",
+                    MAX_SQUARED_DISTANCE + 1, counts.length));
+        }
+        for (int distance = MAX_SQUARED_DISTANCE - 1; distance >= 0; distance--) {
+            counts[distance] += counts[distance + 1];
+        }
+        this.atLeast = counts;
+        this.pixelCount = pixelCount;
+        this.excludedPixelCount = excludedPixelCount;
+    }
+
+    /**
+     * Count of the pixels which differ at the pixel tolerance level, like
+     * {@link com.github.romankh3.image.comparison.ImageComparison#setPixelToleranceLevel(double)} defines them.
+     *
+     * @param pixelToleranceLevel the level of the pixel tolerance, from 0 inclusive to 1 exclusive.
+     * @return the count of the different pixels.
+     */
+    public long getDifferentPixelCount(double pixelToleranceLevel) {
+        if (pixelToleranceLevel < 0.0 || pixelToleranceLevel >= 1) {
+            throw new IllegalArgumentException("Pixel tolerance level must be in [0, 1), but was "
+                    + pixelToleranceLevel);
+        }
+        // pixels differ if their squared distance exceeds the difference constant.
+        double differenceConstant = ImageComparisonUtil.calculateDifferenceConstant(pixelToleranceLevel);
+        return getPixelCountAbove(differenceConstant);
+    }
+
+    /**
+     * Percent of the different pixels at the pixel tolerance level, among all pixels of the compared area. The
+     * images match if it doesn't exceed the allowing percent of different pixels, see
+     * {@link com.github.romankh3.image.comparison.ImageComparison#setAllowingPercentOfDifferentPixels(double)}.
+     *
+     * @param pixelToleranceLevel the level of the pixel tolerance, from 0 inclusive to 1 exclusive.
+     * @return the percent of the different pixels.
+     */
+    public double getDifferencePercent(double pixelToleranceLevel) {
+        if (pixelCount == 0) {
+            return 0;
+        }
+        return ((double) getDifferentPixelCount(pixelToleranceLevel) / (double) pixelCount) * 100;
+    }
+
+    /**
+     * Count of the compared pixels with a squared distance above the limit.
+     *
+     * @param squaredDistance the limit of the squared distance.
+     * @return the count of the pixels.
+     */
+    public long getPixelCountAbove(double squaredDistance) {
+        if (squaredDistance < 0) {
+            return atLeast[0];
+        }
+        if (squaredDistance >= MAX_SQUARED_DISTANCE) {
+            return 0;
+        }
+        return atLeast[(int) squaredDistance + 1];
+    }
+
+    public long getPixelCount() {
+        return pixelCount;
+    }
+
+    public long getExcludedPixelCount() {
+        return excludedPixelCount;
+    }
+
+    /**
+     * Count of the compared pixels, which are not inside the excluded areas.
+     *
+     * @return the count of the compared pixels.
+     */
+    public long getComparedPixelCount() {
+        return atLeast[0];
+    }
+}
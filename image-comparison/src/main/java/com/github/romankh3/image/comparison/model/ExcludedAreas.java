@@ -24,6 +24,7 @@ package com.github.romankh3.image.comparison.model;
 import java.awt.Point;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * The area that will be excluded, masked, in the image.
@@ -63,6 +64,36 @@ public class ExcludedAreas {
         return excluded.stream().anyMatch(rectangle -> rectangle.containsPoint(point));
     }
 
+    /**
+     * Check if the point with the provided coordinates contains in the {@link ExcludedAreas#excluded}
+     * collection of the {@link Rectangle}.
+     *
+     * @param x the X-coordinate of the point.
+     * @param y the Y-coordinate of the point.
+     *
+     * @return {@code true} if the point contains in areas from {@link ExcludedAreas#excluded}.
+     */
+    public boolean contains(int x, int y) {
+        if (excluded.isEmpty()) {
+            return false;
+        }
+        if (excluded instanceof RandomAccess) {
+            // called for every pixel of the comparison, so avoid allocating an iterator.
+            for (int i = 0; i < excluded.size(); i++) {
+                if (excluded.get(i).containsPoint(x, y)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (Rectangle rectangle : excluded) {
+            if (rectangle.containsPoint(x, y)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Getter for excluded rectangles.
      *
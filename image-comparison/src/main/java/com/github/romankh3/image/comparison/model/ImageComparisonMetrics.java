@@ -0,0 +1,217 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.model;
+
+import java.util.Locale;
+
+/**
+ * Timings and counters of a single comparison, attached to the {@link ImageComparisonResult} if metrics are enabled.
+ */
+public class ImageComparisonMetrics {
+
+    /**
+     * Stage of the comparison.
+     */
+    public enum Stage {
+        /**
+         * Reading the expected image, if the comparison reads it lazily.
+         */
+        DECODING,
+        /**
+         * Checking fingerprints and populating the matrix of the differences.
+         */
+        SCANNING,
+        /**
+         * Grouping the different pixels into regions.
+         */
+        LABELING,
+        /**
+         * Merging overlapping rectangles.
+         */
+        MERGING,
+        /**
+         * Drawing the rectangles on the result image.
+         */
+        DRAWING,
+        /**
+         * Saving the result image to the destination.
+         */
+        SAVING
+    }
+
+    /**
+     * Nanoseconds spent in every {@link Stage}, indexed by its ordinal.
+     */
+    private final long[] stageNanos = new long[Stage.values().length];
+
+    /**
+     * Nanoseconds spent in the whole comparison.
+     */
+    private long totalNanos;
+
+    /**
+     * Count of the compared pixels.
+     */
+    private long pixelsScanned;
+
+    /**
+     * Count of the pixels skipped, because they are excluded.
+     */
+    private long pixelsExcluded;
+
+    /**
+     * Count of the different pixels.
+     */
+    private long differentPixels;
+
+    /**
+     * Count of the regions found by the labeling, including the regions smaller than the minimal rectangle size.
+     */
+    private long regionCount;
+
+    /**
+     * Count of the rectangles removed by merging them into overlapping ones.
+     */
+    private long mergeCount;
+
+    /**
+     * Bytes allocated for the buffers of the comparison, i.e. the matrix of the differences and the result image.
+     */
+    private long bytesAllocated;
+
+    /**
+     * Count of the checks of the actual image against the fingerprint of the expected image.
+     */
+    private long fingerprintChecks;
+
+    /**
+     * Count of the fingerprint checks, which matched without decoding the expected image.
+     */
+    private long fingerprintMatches;
+
+    public long getNanos(Stage stage) {
+        return stageNanos[stage.ordinal()];
+    }
+
+    public ImageComparisonMetrics addNanos(Stage stage, long nanos) {
+        stageNanos[stage.ordinal()] += nanos;
+        return this;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public ImageComparisonMetrics setTotalNanos(long totalNanos) {
+        this.totalNanos = totalNanos;
+        return this;
+    }
+
+    public long getPixelsScanned() {
+        return pixelsScanned;
+    }
+
+    public ImageComparisonMetrics addPixelsScanned(long pixelsScanned) {
+        this.pixelsScanned += pixelsScanned;
+        return this;
+    }
+
+    public long getPixelsExcluded() {
+        return pixelsExcluded;
+    }
+
+    public ImageComparisonMetrics addPixelsExcluded(long pixelsExcluded) {
+        this.pixelsExcluded += pixelsExcluded;
+        return this;
+    }
+
+    public long getDifferentPixels() {
+        return differentPixels;
+    }
+
+    public ImageComparisonMetrics addDifferentPixels(long differentPixels) {
+        this.differentPixels += differentPixels;
+        return this;
+    }
+
+    public long getRegionCount() {
+        return regionCount;
+    }
+
+    public ImageComparisonMetrics addRegionCount(long regionCount) {
+        this.regionCount += regionCount;
+        return this;
+    }
+
+    public long getMergeCount() {
+        return mergeCount;
+    }
+
+    public ImageComparisonMetrics addMergeCount(long mergeCount) {
+        this.mergeCount += mergeCount;
+        return this;
+    }
+
+    public long getBytesAllocated() {
+        return bytesAllocated;
+    }
+
+    public ImageComparisonMetrics addBytesAllocated(long bytesAllocated) {
+        this.bytesAllocated += bytesAllocated;
+        return this;
+    }
+
+    public long getFingerprintChecks() {
+        return fingerprintChecks;
+    }
+
+    public ImageComparisonMetrics addFingerprintChecks(long fingerprintChecks) {
+        this.fingerprintChecks += fingerprintChecks;
+        return this;
+    }
+
+    public long getFingerprintMatches() {
+        return fingerprintMatches;
+    }
+
+    public ImageComparisonMetrics addFingerprintMatches(long fingerprintMatches) {
+        this.fingerprintMatches += fingerprintMatches;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("ImageComparisonMetrics{totalNanos=").append(totalNanos);
+        for (Stage stage : Stage.values()) {
+            builder.append(", ").append(stage.name().toLowerCase(Locale.ROOT)).append("Nanos=").append(getNanos(stage));
+        }
+        return builder.append(", pixelsScanned=").append(pixelsScanned)
+                .append(", pixelsExcluded=").append(pixelsExcluded)
+                .append(", differentPixels=").append(differentPixels)
+                .append(", regionCount=").append(regionCount)
+                .append(", mergeCount=").append(mergeCount)
+                .append(", bytesAllocated=").append(bytesAllocated)
+                .append(", fingerprintChecks=").append(fingerprintChecks)
+                .append(", fingerprintMatches=").append(fingerprintMatches)
+                .append('}').toString();
+    }
+}
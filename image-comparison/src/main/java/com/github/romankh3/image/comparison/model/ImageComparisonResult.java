@@ -25,6 +25,7 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 import com.github.romankh3.image.comparison.ImageComparisonUtil;
 
@@ -58,11 +59,22 @@ public class ImageComparisonResult {
      */
     private float differencePercent;
 
+    /**
+     * Lazy calculation of the {@link #differencePercent} of a {@link ImageComparisonState#SIZE_MISMATCH}, which is
+     * run on the first call of {@link #getDifferencePercent()}.
+     */
+    private /* @Nullable */ Supplier<Float> differencePercentCalculation;
+
     /**
      * Rectangles of the differences
      */
     private List<Rectangle> rectangles;
 
+    /**
+     * Timings and counters of the comparison, if metrics are enabled.
+     */
+    private /* @Nullable */ ImageComparisonMetrics metrics;
+
     /**
      * Create default instance of the {@link ImageComparisonResult} with {@link ImageComparisonState#SIZE_MISMATCH}.
      *
@@ -82,6 +94,36 @@ public class ImageComparisonResult {
                 .setRectangles(Collections.emptyList());
     }
 
+    /**
+     * Create default instance of the {@link ImageComparisonResult} with {@link ImageComparisonState#SIZE_MISMATCH}.
+     * The difference percent is calculated on the first call of {@link #getDifferencePercent()}, by comparing the
+     * expected image with the actual image resized to the size of the expected one.
+     *
+     * @param expected          expected {@link BufferedImage} object.
+     * @param actual            actual {@link BufferedImage} object.
+     * @return instance of the {@link ImageComparisonResult} object.
+     */
+    public static ImageComparisonResult defaultSizeMisMatchResult(BufferedImage expected, BufferedImage actual) {
+        return defaultSizeMisMatchResult(expected, actual, 0)
+                .setDifferencePercent(() -> ImageComparisonUtil.getDifferencePercent(
+                        ImageComparisonUtil.resize(actual, expected.getWidth(), expected.getHeight()), expected));
+    }
+
+    /**
+     * Create instance of the {@link ImageComparisonResult} with {@link ImageComparisonState#SIZE_MISMATCH} for
+     * images compared on their overlapping area.
+     * The difference percent is calculated on the first call of {@link #getDifferencePercent()}, see
+     * {@link ImageComparisonUtil#getOverlapDifferencePercent(BufferedImage, BufferedImage)}.
+     *
+     * @param expected expected {@link BufferedImage} object.
+     * @param actual   actual {@link BufferedImage} object.
+     * @return instance of the {@link ImageComparisonResult} object.
+     */
+    public static ImageComparisonResult overlapSizeMisMatchResult(BufferedImage expected, BufferedImage actual) {
+        return defaultSizeMisMatchResult(expected, actual, 0)
+                .setDifferencePercent(() -> ImageComparisonUtil.getOverlapDifferencePercent(actual, expected));
+    }
+
     /**
      * Create default instance of the {@link ImageComparisonResult} with {@link ImageComparisonState#MISMATCH}.
      *
@@ -164,11 +206,21 @@ public class ImageComparisonResult {
     }
 
     public float getDifferencePercent() {
+        if (differencePercentCalculation != null) {
+            differencePercent = differencePercentCalculation.get();
+            differencePercentCalculation = null;
+        }
         return differencePercent;
     }
 
     ImageComparisonResult setDifferencePercent(float differencePercent) {
         this.differencePercent = differencePercent;
+        this.differencePercentCalculation = null;
+        return this;
+    }
+
+    ImageComparisonResult setDifferencePercent(Supplier<Float> differencePercentCalculation) {
+        this.differencePercentCalculation = differencePercentCalculation;
         return this;
     }
 
@@ -180,4 +232,13 @@ public class ImageComparisonResult {
         this.rectangles = rectangles;
         return this;
     }
+
+    public ImageComparisonMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ImageComparisonResult setMetrics(ImageComparisonMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
 }
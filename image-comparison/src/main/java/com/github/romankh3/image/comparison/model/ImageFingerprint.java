@@ -0,0 +1,177 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact representation of an image, which can stand in for the image itself when checking for equality.
+ * It holds the dimensions of the image, a hash over all of its pixels and a hash for every tile of
+ * {@link #getTileSize()} x {@link #getTileSize()} pixels.
+ * <p>
+ * Two images with equal fingerprints are considered to be pixel-wise equal.
+ */
+public class ImageFingerprint {
+
+    /**
+     * Default edge length of the tiles in pixels.
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    /**
+     * Width of the image.
+     */
+    private final int width;
+
+    /**
+     * Height of the image.
+     */
+    private final int height;
+
+    /**
+     * Edge length of the tiles in pixels.
+     */
+    private final int tileSize;
+
+    /**
+     * Hash of all pixels of the image.
+     */
+    private final long imageHash;
+
+    /**
+     * Hashes of the tiles, in row-major order.
+     */
+    private final long[] tileHashes;
+
+    /**
+     * Create instance of the {@link ImageFingerprint}.
+     *
+     * @param width      the width of the image.
+     * @param height     the height of the image.
+     * @param tileSize   the edge length of the tiles.
+     * @param imageHash  the hash of all pixels of the image.
+     * @param tileHashes the hashes of the tiles, in row-major order.
+     */
+    public ImageFingerprint(int width, int height, int tileSize, long imageHash, long[] tileHashes) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Tile size must be positive, but was " + tileSize);
+        }
+        if (tileHashes.length != getTileCount(width, tileSize) * getTileCount(height, tileSize)) {
+            throw new IllegalArgumentException(String.format("Expected %d tile hashes for %dx%d image, but got %d",
+                    getTileCount(width, tileSize) * getTileCount(height, tileSize), width, height,
+                    tileHashes.length));
+        }
+        this.width = width;
+        this.height = height;
+        this.tileSize = tileSize;
+        this.imageHash = imageHash;
+        this.tileHashes = tileHashes.clone();
+    }
+
+    /**
+     * Count of the tiles needed to cover the provided length.
+     *
+     * @param length   the length to be covered.
+     * @param tileSize the edge length of the tiles.
+     * @return the count of the tiles.
+     */
+    public static int getTileCount(int length, int tileSize) {
+        return (length + tileSize - 1) / tileSize;
+    }
+
+    /**
+     * Check if this fingerprint describes the same image as that.
+     *
+     * @param that the {@link ImageFingerprint} to be checked.
+     * @return {@code true} if dimensions and all hashes are equal, {@code false} otherwise.
+     */
+    public boolean matches(ImageFingerprint that) {
+        return width == that.width
+                && height == that.height
+                && tileSize == that.tileSize
+                && imageHash == that.imageHash
+                && Arrays.equals(tileHashes, that.tileHashes);
+    }
+
+    /**
+     * Collect the tiles where this and that fingerprint differ. Pixels outside of these tiles are equal in both
+     * images. Both fingerprints need to have the same dimensions and tile size.
+     *
+     * @param that the {@link ImageFingerprint} to compare with.
+     * @return the collection of the {@link Rectangle}s covering the differing tiles.
+     */
+    public List<Rectangle> getDifferentTiles(ImageFingerprint that) {
+        if (width != that.width || height != that.height || tileSize != that.tileSize) {
+            throw new IllegalArgumentException("Fingerprints of different layout can't be compared tile-wise");
+        }
+        int tilesX = getTileCount(width, tileSize);
+        List<Rectangle> tiles = new ArrayList<>();
+        for (int i = 0; i < tileHashes.length; i++) {
+            if (tileHashes[i] != that.tileHashes[i]) {
+                int minX = (i % tilesX) * tileSize;
+                int minY = (i / tilesX) * tileSize;
+                tiles.add(new Rectangle(minX, minY,
+                        Math.min(minX + tileSize, width) - 1,
+                        Math.min(minY + tileSize, height) - 1));
+            }
+        }
+        return tiles;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    public long getImageHash() {
+        return imageHash;
+    }
+
+    public long[] getTileHashes() {
+        return tileHashes.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return matches((ImageFingerprint) o);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(imageHash);
+    }
+}
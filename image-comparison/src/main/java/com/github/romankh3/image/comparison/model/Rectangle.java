@@ -25,7 +25,6 @@ import static java.lang.Integer.max;
 import static java.lang.Integer.min;
 
 import java.awt.Point;
-import java.util.Objects;
 
 /**
  * Object contained data for a rectangle.
@@ -177,7 +176,18 @@ public class Rectangle {
      * @return {@code true} if provided {@link Point} contains, {@code false} - otherwise.
      */
     boolean containsPoint(Point point) {
-        return point.x >= minPoint.x && point.x <= maxPoint.x && point.y >= minPoint.y && point.y <= maxPoint.y;
+        return containsPoint(point.x, point.y);
+    }
+
+    /**
+     * Check if the point with the provided coordinates contains in the {@link Rectangle}.
+     *
+     * @param x the X-coordinate of the point.
+     * @param y the Y-coordinate of the point.
+     * @return {@code true} if the point contains, {@code false} - otherwise.
+     */
+    boolean containsPoint(int x, int y) {
+        return x >= minPoint.x && x <= maxPoint.x && y >= minPoint.y && y <= maxPoint.y;
     }
 
     public Point getMinPoint() {
@@ -205,12 +215,15 @@ public class Rectangle {
             return false;
         }
         Rectangle rectangle = (Rectangle) o;
-        return minPoint.equals(rectangle.minPoint) &&
-                maxPoint.equals(rectangle.maxPoint);
+        return minPoint.x == rectangle.minPoint.x && minPoint.y == rectangle.minPoint.y &&
+                maxPoint.x == rectangle.maxPoint.x && maxPoint.y == rectangle.maxPoint.y;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(minPoint, maxPoint);
+        int result = minPoint.x;
+        result = 31 * result + minPoint.y;
+        result = 31 * result + maxPoint.x;
+        return 31 * result + maxPoint.y;
     }
 }
@@ -0,0 +1,263 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.Workload;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+/**
+ * Allocation budgets of the stages of the comparison, measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}. The budgets allow the allocations the
+ * stages need, like the matrix of the differences, plus a constant, so that an allocation per pixel, or per
+ * rectangle in a pixel loop, makes them fail.
+ */
+@DisplayName("Allocation budgets of the comparison stages.")
+public class AllocationBudgetUnitTest {
+
+    /**
+     * The sizes of the images the budgets are checked for.
+     */
+    private static final int[] SIZES = {256, 1024};
+
+    /**
+     * The bytes every stage may allocate independently of the image size and of the count of the regions.
+     */
+    private static final long CONSTANT_BUDGET = 16 * 1024;
+
+    /**
+     * The bytes every stage may allocate for every row, like the data element array of a bulk read of a row.
+     */
+    private static final long ROW_BUDGET = 128;
+
+    /**
+     * The bytes the rectangle building may allocate for every region.
+     */
+    private static final long REGION_BUDGET = 128;
+
+    /**
+     * The count of the areas excluded from the scan.
+     */
+    private static final int EXCLUDED_AREAS = 8;
+
+    private static final int WARM_UP_RUNS = 3;
+
+    private static final int MEASURED_RUNS = 5;
+
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @DisplayName("Should not allocate per pixel while scanning, apart from the matrix of the differences")
+    @Test
+    public void shouldScanWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            Workload workload = workload(size, DifferencePattern.SPARSE_NOISE);
+            ImageComparison comparison = new ImageComparison(workload.getExpected(), workload.getActual())
+                    .setExcludedAreas(new ArrayList<>(workload.getExcludedAreas().subList(0, EXCLUDED_AREAS)));
+
+            // when
+            long allocated = allocatedBytes(() -> { }, () -> comparison.populateTheMatrixOfTheDifferences(null));
+
+            // then
+            assertWithinBudget("scan of " + size + "px", allocated, matrixBytes(size, size) + rowBytes(size));
+        }
+    }
+
+    @DisplayName("Should allocate O(regions) while building the rectangles")
+    @Test
+    public void shouldBuildRectanglesWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            Workload workload = workload(size, DifferencePattern.TEXT_CLUSTERS);
+            ImageComparison comparison = new ImageComparison(workload.getExpected(), workload.getActual());
+            comparison.populateTheMatrixOfTheDifferences(null);
+            int regions = comparison.groupRegions().size();
+
+            // when
+            long allocated = allocatedBytes(() -> comparison.populateTheMatrixOfTheDifferences(null), () -> {
+                RectangleList rectangles = comparison.groupRegions();
+                rectangles.merge();
+                rectangles.merge();
+            });
+
+            // then
+            assertTrue(regions > 10, "regions " + regions);
+            assertWithinBudget("rectangles of " + size + "px", allocated, REGION_BUDGET * regions);
+        }
+    }
+
+    @DisplayName("Should allocate only the matrix of the differences when comparing equal images")
+    @Test
+    public void shouldCompareEqualImagesWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            Workload workload = workload(size, DifferencePattern.SPARSE_NOISE);
+            ImageComparison comparison = new ImageComparison(workload.getExpected(), workload.getExpected());
+
+            // when
+            long allocated = allocatedBytes(() -> { }, () -> assertTrue(
+                    comparison.compareImages().getImageComparisonState() == ImageComparisonState.MATCH));
+
+            // then
+            assertWithinBudget("comparison of " + size + "px", allocated, matrixBytes(size, size) + rowBytes(size));
+        }
+    }
+
+    @DisplayName("Should allocate only the matrix of the dirty areas when comparing them again")
+    @Test
+    public void shouldCompareDirtyAreasWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            BufferedImage expected = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            BufferedImage previousActual = ImageComparisonUtil.deepCopy(expected);
+            Rectangle dirtyArea = new Rectangle(size / 2, size / 2, size / 2 + 10, size / 2 + 10);
+            for (int y = dirtyArea.getMinPoint().y; y <= dirtyArea.getMaxPoint().y; y++) {
+                for (int x = dirtyArea.getMinPoint().x; x <= dirtyArea.getMaxPoint().x; x++) {
+                    previousActual.setRGB(x, y, Color.WHITE.getRGB());
+                }
+            }
+            ImageComparisonResult previous = new ImageComparison(expected, previousActual).compareImages();
+            ImageComparison comparison = new ImageComparison(expected, expected);
+
+            // when
+            long allocated = allocatedBytes(() -> { }, () -> assertTrue(comparison
+                    .compareImages(Collections.singletonList(dirtyArea), previous)
+                    .getImageComparisonState() == ImageComparisonState.MATCH));
+
+            // then
+            // the matrix covers the dirty area, expanded by the threshold of 5 pixels.
+            assertWithinBudget("dirty areas of " + size + "px", allocated, matrixBytes(21, 21) + rowBytes(21));
+        }
+    }
+
+    @DisplayName("Should allocate only the matrix of the changed tiles for every frame of a sequence")
+    @Test
+    public void shouldCompareFramesWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            Workload workload = workload(size, DifferencePattern.SPARSE_NOISE);
+            BufferedImage changedFrame = ImageComparisonUtil.deepCopy(workload.getExpected());
+            for (int y = 100; y < 108; y++) {
+                for (int x = 100; x < 108; x++) {
+                    changedFrame.setRGB(x, y, ~changedFrame.getRGB(x, y));
+                }
+            }
+            BufferedImage[] frames = {workload.getExpected(), changedFrame};
+            Iterator<ImageComparisonResult> results = new SequenceComparison(
+                    Stream.iterate(0, i -> i + 1).map(i -> frames[i % 2]),
+                    Stream.iterate(0, i -> i + 1).map(i -> frames[i % 2]))
+                    .setComparisonSettings(comparison -> comparison.setExcludedAreas(
+                            new ArrayList<>(workload.getExcludedAreas().subList(0, EXCLUDED_AREAS))))
+                    .compareFrames()
+                    .iterator();
+
+            // when
+            long allocated = allocatedBytes(() -> { }, () -> assertTrue(
+                    results.next().getImageComparisonState() == ImageComparisonState.MATCH));
+
+            // then
+            // the changed tile of 16 pixels, expanded by the threshold of 5 pixels.
+            assertWithinBudget("frame of " + size + "px", allocated, matrixBytes(26, 26) + rowBytes(26));
+        }
+    }
+
+    @DisplayName("Should not allocate per pixel while calculating the difference percent")
+    @Test
+    public void shouldCalculateDifferencePercentWithinBudget() {
+        for (int size : SIZES) {
+            // given
+            Workload workload = workload(size, DifferencePattern.SPARSE_NOISE);
+
+            // when
+            long allocated = allocatedBytes(() -> { },
+                    () -> ImageComparisonUtil.getDifferencePercent(workload.getExpected(), workload.getActual()));
+
+            // then
+            assertWithinBudget("difference percent of " + size + "px", allocated, rowBytes(size));
+        }
+    }
+
+    private static Workload workload(int size, DifferencePattern pattern) {
+        return new WorkloadGenerator(size)
+                .setSize(size, size)
+                .setImageType(BufferedImage.TYPE_INT_RGB)
+                .setPattern(pattern)
+                .setDensity(0.1)
+                .generate();
+    }
+
+    /**
+     * Measure the bytes allocated by the action, after some runs to load the classes and warm up the JIT.
+     *
+     * @return the least bytes allocated by one of the measured runs.
+     */
+    private static long allocatedBytes(Runnable setUp, Runnable action) {
+        long threadId = Thread.currentThread().getId();
+        long least = Long.MAX_VALUE;
+        for (int run = 0; run < WARM_UP_RUNS + MEASURED_RUNS; run++) {
+            setUp.run();
+            long before = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId);
+            action.run();
+            long allocated = THREAD_MX_BEAN.getThreadAllocatedBytes(threadId) - before;
+            if (run >= WARM_UP_RUNS) {
+                least = Math.min(least, allocated);
+            }
+        }
+        return least;
+    }
+
+    /**
+     * The bytes of the {@code int[height][width]} matrix, with 16 bytes of header and padding for every array.
+     */
+    private static long matrixBytes(int width, int height) {
+        return 16 + 8L * height + height * (16 + 4L * width);
+    }
+
+    /**
+     * The bytes of two row buffers of the size, plus {@link #ROW_BUDGET} for every row.
+     */
+    private static long rowBytes(int size) {
+        return 2 * (16 + 4L * size) + ROW_BUDGET * size;
+    }
+
+    private static void assertWithinBudget(String stage, long allocated, long budget) {
+        assertTrue(allocated <= budget + CONSTANT_BUDGET,
+                String.format("%s allocated %d bytes, budget is %d bytes", stage, allocated, budget + CONSTANT_BUDGET));
+    }
+}
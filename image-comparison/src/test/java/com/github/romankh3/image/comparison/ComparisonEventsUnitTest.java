@@ -0,0 +1,96 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+@DisplayName("Unit-level testing for {@link ComparisonEvents} object.")
+public class ComparisonEventsUnitTest {
+
+    @DisplayName("Should record the events of saving, reading and comparing images")
+    @Test
+    public void shouldRecordEvents(@TempDir Path tempDir) throws IOException {
+        // given
+        BufferedImage expected = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(5, 5, 0xFFFFFF);
+        actual.setRGB(30, 20, 0xFFFFFF);
+        File file = tempDir.resolve("actual.png").toFile();
+        Path recordingFile = tempDir.resolve("recording.jfr");
+
+        // when
+        try (Recording recording = new Recording()) {
+            recording.enable("com.github.romankh3.image.comparison.CompareImages");
+            recording.enable("com.github.romankh3.image.comparison.ReadImage");
+            recording.enable("com.github.romankh3.image.comparison.SaveImage");
+            recording.start();
+            ImageComparisonUtil.saveImage(file, actual);
+            new ImageComparison(expected, ImageComparisonUtil.readImageFromResources(file.getPath())).compareImages();
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        assertEquals(asNames("SaveImage", "ReadImage", "CompareImages"),
+                events.stream().map(event -> event.getEventType().getName()).collect(Collectors.toList()));
+        assertEquals(file.length(), events.get(0).getLong("outputSize"));
+        assertEquals(40, events.get(1).getInt("width"));
+        RecordedEvent compareEvent = events.get(2);
+        assertEquals("MISMATCH", compareEvent.getString("state"));
+        assertEquals(30, compareEvent.getInt("actualHeight"));
+        assertEquals(2, compareEvent.getLong("differentPixels"));
+        assertEquals(2, compareEvent.getLong("regionCount"));
+        assertEquals(2, compareEvent.getInt("rectangleCount"));
+    }
+
+    @DisplayName("Should not begin the events without a recording")
+    @Test
+    public void shouldNotBeginEventsWithoutRecording() {
+        assertNull(ComparisonEvents.beginCompareImages());
+        assertNull(ComparisonEvents.beginReadImage());
+        assertNull(ComparisonEvents.beginSaveImage());
+    }
+
+    private List<String> asNames(String... names) {
+        return Arrays.stream(names)
+                .map(name -> "com.github.romankh3.image.comparison." + name)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.Workload;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+@DisplayName("Unit-level testing for {@link DistanceMap} object.")
+public class DistanceMapUnitTest {
+
+    @DisplayName("Should compare from the cached map like from the images, whatever the settings")
+    @Test
+    public void shouldCompareFromMapLikeFromImages() {
+        // given
+        Workload workload = new WorkloadGenerator(3)
+                .setSize(200, 150)
+                .setPattern(DifferencePattern.ALPHA_GRADIENT)
+                .setDensity(0.2)
+                .generate();
+        ImageComparison cached = new ImageComparison(workload.getExpected(), workload.getActual())
+                .setDistanceMapCaching(true);
+        cached.compareImages();
+        List<Rectangle> excludedAreas = Collections.singletonList(new Rectangle(20, 10, 120, 90));
+
+        for (double tolerance : new double[] {0.0, 0.05, 0.2}) {
+            for (int threshold : new int[] {1, 5}) {
+                // when
+                ImageComparisonResult fromMap = configure(cached, tolerance, threshold, excludedAreas)
+                        .compareImages();
+                ImageComparisonResult fromImages = configure(
+                        new ImageComparison(workload.getExpected(), workload.getActual()), tolerance, threshold,
+                        excludedAreas)
+                        .compareImages();
+
+                // then
+                assertEquals(fromImages.getImageComparisonState(), fromMap.getImageComparisonState());
+                assertEquals(fromImages.getRectangles(), fromMap.getRectangles());
+            }
+        }
+    }
+
+    @DisplayName("Should not read the images again while the map is cached")
+    @Test
+    public void shouldNotReadImagesWhileMapIsCached() {
+        // given
+        BufferedImage expected = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xffffff);
+        ImageComparison comparison = new ImageComparison(expected, actual).setDistanceMapCaching(true);
+        comparison.compareImages();
+
+        // when
+        actual.setRGB(10, 10, 0);
+        ImageComparisonResult fromMap = comparison.setThreshold(3).compareImages();
+        ImageComparisonResult fromImages = comparison.setDistanceMapCaching(false).compareImages();
+
+        // then
+        assertEquals(ImageComparisonState.MISMATCH, fromMap.getImageComparisonState());
+        assertEquals(ImageComparisonState.MATCH, fromImages.getImageComparisonState());
+    }
+
+    @DisplayName("Should build the same map from overlapping scan areas")
+    @Test
+    public void shouldBuildSameMapFromOverlappingScanAreas() {
+        // given
+        Workload workload = new WorkloadGenerator(9)
+                .setSize(64, 48)
+                .setPattern(DifferencePattern.SPARSE_NOISE)
+                .setDensity(0.1)
+                .generate();
+        List<Rectangle> scanAreas = asList(new Rectangle(30, 0, 63, 47), new Rectangle(0, 0, 40, 47));
+
+        // when
+        DistanceMap whole = DistanceMap.of(workload.getExpected(), workload.getActual(), 64, 48, null);
+        DistanceMap areas = DistanceMap.of(workload.getExpected(), workload.getActual(), 64, 48, scanAreas);
+
+        // then
+        assertTrue(whole.size() > 0);
+        assertEquals(whole.size(), areas.size());
+        int[][] wholeMatrix = new int[48][64];
+        int[][] areasMatrix = new int[48][64];
+        assertEquals(whole.populate(wholeMatrix, 100, null),
+                areas.populate(areasMatrix, 100, null));
+        for (int y = 0; y < 48; y++) {
+            assertArrayEquals(wholeMatrix[y], areasMatrix[y]);
+        }
+    }
+
+    @DisplayName("Should take a bit for every equal pixel")
+    @Test
+    public void shouldTakeBitForEveryEqualPixel() {
+        // given
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+
+        // when
+        DistanceMap map = DistanceMap.of(image, image, 640, 480, null);
+
+        // then
+        assertEquals(0, map.size());
+        assertEquals(640 * 480 / 8, map.getBytes());
+    }
+
+    @DisplayName("Should take four bytes for every differing pixel in addition to the bits")
+    @Test
+    public void shouldTakeFourBytesForEveryDifferingPixel() {
+        // given
+        Workload workload = new WorkloadGenerator(5)
+                .setSize(300, 200)
+                .setPattern(DifferencePattern.SPARSE_NOISE)
+                .setDensity(0.1)
+                .generate();
+        int differingPixels = 0;
+        for (int y = 0; y < 200; y++) {
+            for (int x = 0; x < 300; x++) {
+                if (workload.getExpected().getRGB(x, y) != workload.getActual().getRGB(x, y)) {
+                    differingPixels++;
+                }
+            }
+        }
+
+        // when
+        DistanceMap map = DistanceMap.of(workload.getExpected(), workload.getActual(), 300, 200, null);
+
+        // then
+        assertTrue(differingPixels > 0);
+        assertEquals(differingPixels, map.size());
+        // the bits are stored in whole longs.
+        assertEquals(8 * ((300 * 200 + 63) / 64) + 4L * differingPixels, map.getBytes());
+    }
+
+    @DisplayName("Should drop the cached map when comparing dirty areas")
+    @Test
+    public void shouldDropMapWhenComparingDirtyAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xffffff);
+        ImageComparison comparison = new ImageComparison(expected, actual).setDistanceMapCaching(true);
+        ImageComparisonResult previous = comparison.compareImages();
+
+        // when
+        actual.setRGB(10, 10, 0);
+        actual.setRGB(40, 40, 0xffffff);
+        ImageComparisonResult dirty = comparison.compareImages(
+                asList(new Rectangle(10, 10, 10, 10), new Rectangle(40, 40, 40, 40)), previous);
+        ImageComparisonResult fromMap = comparison.setThreshold(3).compareImages();
+
+        // then
+        assertEquals(Collections.singletonList(new Rectangle(40, 40, 40, 40)), dirty.getRectangles());
+        assertEquals(dirty.getRectangles(), fromMap.getRectangles());
+    }
+
+    private static ImageComparison configure(ImageComparison comparison, double tolerance, int threshold,
+            List<Rectangle> excludedAreas) {
+        return comparison.setPixelToleranceLevel(tolerance)
+                .setThreshold(threshold)
+                .setExcludedAreas(excludedAreas);
+    }
+}
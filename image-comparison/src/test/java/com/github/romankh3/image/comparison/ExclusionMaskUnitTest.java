@@ -0,0 +1,151 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Polygon;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.ExcludedAreas;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link ExclusionMask} object.")
+public class ExclusionMaskUnitTest {
+
+    @DisplayName("Should contain the same pixels as the excluded areas")
+    @Test
+    public void shouldContainSamePixelsAsExcludedAreas() {
+        // given
+        List<Rectangle> areas = asList(new Rectangle(0, 0, 0, 0), new Rectangle(63, 2, 64, 5),
+                new Rectangle(10, 10, 140, 12), new Rectangle(127, 20, 128, 30), new Rectangle(190, 35, 250, 50));
+        ExcludedAreas excludedAreas = new ExcludedAreas(areas);
+
+        // when
+        ExclusionMask mask = ExclusionMask.of(areas, 200, 40);
+
+        // then
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 200; x++) {
+                assertEquals(excludedAreas.contains(x, y), mask.contains(x, y), "x = " + x + ", y = " + y);
+            }
+        }
+        assertFalse(mask.contains(200, 0));
+        assertFalse(mask.contains(-1, 0));
+    }
+
+    @DisplayName("Should exclude the pixels of the mask image which are neither black nor transparent")
+    @Test
+    public void shouldExcludeMaskImagePixels() {
+        // given
+        BufferedImage maskImage = new BufferedImage(100, 3, BufferedImage.TYPE_INT_ARGB);
+        maskImage.setRGB(0, 0, 0xFFFFFFFF);
+        maskImage.setRGB(70, 1, 0x80FF0000);
+        maskImage.setRGB(99, 2, 0xFF000000);
+        maskImage.setRGB(50, 2, 0x00FFFFFF);
+
+        // when
+        ExclusionMask mask = ExclusionMask.of(maskImage);
+
+        // then
+        assertTrue(mask.contains(0, 0));
+        assertTrue(mask.contains(70, 1));
+        assertFalse(mask.contains(99, 2));
+        assertFalse(mask.contains(50, 2));
+        assertEquals(2, mask.getExcludedPixelCount());
+    }
+
+    @DisplayName("Should exclude the pixels whose centers are inside the polygon")
+    @Test
+    public void shouldExcludePolygonPixels() {
+        // given
+        Polygon triangle = new Polygon(new int[] {0, 80, 0}, new int[] {0, 0, 80}, 3);
+
+        // when
+        ExclusionMask mask = new ExclusionMask(100, 100).add(triangle);
+
+        // then
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 100; x++) {
+                assertEquals(x + y < 79, mask.contains(x, y), "x = " + x + ", y = " + y);
+            }
+        }
+    }
+
+    @DisplayName("Should clip the added mask to its own size")
+    @Test
+    public void shouldClipAddedMask() {
+        // given
+        ExclusionMask wide = new ExclusionMask(200, 10).add(new Rectangle(0, 0, 199, 9));
+        ExclusionMask mask = new ExclusionMask(70, 5);
+
+        // when
+        mask.addAll(wide);
+
+        // then
+        assertEquals(70 * 5, mask.getExcludedPixelCount());
+    }
+
+    @DisplayName("Should throw an exception for an empty mask")
+    @Test
+    public void shouldThrowForEmptyMask() {
+        assertThrows(IllegalArgumentException.class, () -> new ExclusionMask(0, 10));
+    }
+
+    @DisplayName("Should ignore the differences inside the exclusion mask")
+    @Test
+    public void shouldIgnoreDifferencesInsideExclusionMask() {
+        // given
+        BufferedImage expected = new BufferedImage(150, 60, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(150, 60, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = actual.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillOval(10, 10, 30, 30);
+        graphics.fillRect(100, 20, 10, 10);
+        graphics.dispose();
+        ExclusionMask mask = new ExclusionMask(150, 60).add(new Polygon(new int[] {5, 45, 45, 5},
+                new int[] {5, 5, 45, 45}, 4));
+
+        // when
+        ImageComparison comparison = new ImageComparison(expected, actual).setExclusionMask(mask);
+        List<Rectangle> rectangles = comparison.compareImages().getRectangles();
+        long scanned = comparison.populateTheMatrixOfTheDifferences(null);
+
+        // then
+        assertEquals(1, rectangles.size());
+        assertEquals(new Rectangle(100, 20, 109, 29), rectangles.get(0));
+        assertEquals(100, scanned);
+        assertEquals(ImageComparisonState.MATCH, comparison.setExcludedAreas(asList(new Rectangle(95, 15, 120, 40)))
+                .compareImages().getImageComparisonState());
+    }
+}
@@ -29,6 +29,8 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -36,12 +38,16 @@ import java.awt.Color;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
 import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.ImageFingerprint;
 import com.github.romankh3.image.comparison.model.Rectangle;
 
 @DisplayName("Unit-level testing for {@link ImageComparison} object.")
@@ -544,6 +550,502 @@ public class ImageComparisonUnitTest {
         assertTrue(differenceLessThan2);
     }
 
+    @DisplayName("Should match fingerprint without reading the expected image")
+    @Test
+    public void shouldMatchFingerprintWithoutReadingExpected() {
+        // given
+        BufferedImage actual = readImageFromResources("expected.png");
+        ImageFingerprint expectedFingerprint = ImageComparisonUtil.createFingerprint(actual);
+
+        // when
+        ImageComparisonResult imageComparisonResult =
+                new ImageComparison(expectedFingerprint, "not-existing.png", actual).compareImages();
+
+        // then
+        assertEquals(MATCH, imageComparisonResult.getImageComparisonState());
+        assertNull(imageComparisonResult.getExpected());
+        assertEquals(0, imageComparisonResult.getRectangles().size());
+    }
+
+    @DisplayName("Should read the expected image if fingerprints differ")
+    @Test
+    public void shouldCompareWithExpectedIfFingerprintsDiffer() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        BufferedImage actual = readImageFromResources("actual.png");
+        BufferedImage expectedResultImage = readImageFromResources("result.png");
+        ImageFingerprint expectedFingerprint = ImageComparisonUtil.createFingerprint(expected);
+
+        // when
+        ImageComparisonResult imageComparisonResult =
+                new ImageComparison(expectedFingerprint, "expected.png", actual).compareImages();
+
+        // then
+        assertEquals(MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertNotNull(imageComparisonResult.getExpected());
+        assertEquals(new ImageComparison(expected, actual).compareImages().getRectangles(),
+                imageComparisonResult.getRectangles());
+        assertImagesEqual(expectedResultImage, imageComparisonResult.getResult());
+    }
+
+    @DisplayName("Should find the same rectangles with the pyramid comparison")
+    @Test
+    public void shouldFindSameRectanglesWithPyramidComparison() {
+        // given
+        BufferedImage expectedResultImage = readImageFromResources("result#98WithExcludedAreas.png");
+        List<Rectangle> excludedAreas = asList(
+                new Rectangle(80, 388, 900, 514),
+                new Rectangle(410, 514, 900, 565),
+                new Rectangle(410, 636, 900, 754));
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison("expected#98.png", "actual#98.png")
+                .setExcludedAreas(excludedAreas)
+                .setRectangleLineWidth(5)
+                .setDrawExcludedRectangles(true)
+                .setPyramidComparison(true)
+                .compareImages();
+
+        // then
+        assertEquals(MATCH, imageComparisonResult.getImageComparisonState());
+        assertImagesEqual(expectedResultImage, imageComparisonResult.getResult());
+        assertEquals(new ImageComparison("expected.png", "actual.png").compareImages().getRectangles(),
+                new ImageComparison("expected.png", "actual.png").setPyramidComparison(true).compareImages()
+                        .getRectangles());
+    }
+
+    @DisplayName("Should not lose single pixel differences with the pyramid comparison")
+    @Test
+    public void shouldNotLoseSinglePixelDifferencesWithPyramidComparison() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        // swapped pixels keep the average of the block.
+        expected.setRGB(40, 40, 0xFFFFFF);
+        actual.setRGB(41, 40, 0xFFFFFF);
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setPyramidComparison(true)
+                .compareImages();
+
+        // then
+        assertEquals(MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertEquals(singletonList(new Rectangle(40, 40, 41, 40)), imageComparisonResult.getRectangles());
+    }
+
+    @DisplayName("Should scan only around the changed blocks and keep the pyramid with the pyramid comparison")
+    @Test
+    public void shouldScanOnlyChangedBlocksWithPyramidComparison() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        BufferedImage actual = ImageComparisonUtil.deepCopy(expected);
+        actual.setRGB(100, 100, ~actual.getRGB(100, 100));
+        ImageComparison imageComparison = new ImageComparison(expected, actual)
+                .setPyramidComparison(true)
+                .setMetricsEnabled(true);
+
+        // when
+        ImageComparisonResult first = imageComparison.compareImages();
+        ImagePyramid pyramid = imageComparison.getExpectedPyramid(expected, expected.getWidth(), expected.getHeight());
+        ImageComparisonResult second = imageComparison.compareImages();
+
+        // then
+        assertEquals(singletonList(new Rectangle(100, 100, 100, 100)), second.getRectangles());
+        assertEquals(first.getRectangles(), second.getRectangles());
+        // the differing block padded by one block for the threshold of 5 pixels is scanned, not the whole image.
+        assertEquals(9 * ImagePyramid.BLOCK_SIZE * ImagePyramid.BLOCK_SIZE, second.getMetrics().getPixelsScanned());
+        assertSame(pyramid,
+                imageComparison.getExpectedPyramid(expected, expected.getWidth(), expected.getHeight()));
+    }
+
+    @DisplayName("Should compare the overlapping area of images with different sizes")
+    @Test
+    public void shouldCompareOverlappingAreaOfDifferentSizes() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 80, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(120, 60, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xFFFFFF);
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setOverlapComparison(true)
+                .setMinimalRectangleSize(1)
+                .compareImages();
+
+        // then
+        assertEquals(SIZE_MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertEquals(asList(new Rectangle(10, 10, 10, 10),
+                        new Rectangle(100, 0, 119, 59),
+                        new Rectangle(0, 60, 99, 79)),
+                imageComparisonResult.getRectangles());
+        assertEquals(120, imageComparisonResult.getResult().getWidth());
+        // 1 white pixel in the overlap, 20 * 60 + 100 * 20 of 9200 pixels only in one of the images.
+        float expectedPercent = (float) (100.0 * (3 * 255 + 4 * 255 * 3200) / (4 * 255 * 9200));
+        assertEquals(expectedPercent, imageComparisonResult.getDifferencePercent(), 0.0001);
+    }
+
+    @DisplayName("Should report only the strips for matching overlapping areas")
+    @Test
+    public void shouldReportOnlyStripsForMatchingOverlap() {
+        // given
+        BufferedImage expected = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(60, 70, BufferedImage.TYPE_INT_RGB);
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setOverlapComparison(true)
+                .compareImages();
+
+        // then
+        assertEquals(SIZE_MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertEquals(asList(new Rectangle(50, 0, 59, 69), new Rectangle(0, 50, 49, 69)),
+                imageComparisonResult.getRectangles());
+    }
+
+    @DisplayName("Should deliver every region with its pixel count to the region listener")
+    @Test
+    public void shouldDeliverRegionsToRegionListener() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xFFFFFF);
+        actual.setRGB(11, 10, 0xFFFFFF);
+        actual.setRGB(50, 60, 0xFFFFFF);
+        List<Rectangle> regions = new ArrayList<>();
+        List<Long> pixelCounts = new ArrayList<>();
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setRegionListener((rectangle, pixelCount) -> {
+                    regions.add(rectangle);
+                    pixelCounts.add(pixelCount);
+                    return true;
+                })
+                .compareImages();
+
+        // then
+        assertEquals(MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertEquals(asList(new Rectangle(10, 10, 11, 10), new Rectangle(50, 60, 50, 60)), regions);
+        assertEquals(asList(2L, 1L), pixelCounts);
+        assertEquals(regions, imageComparisonResult.getRectangles());
+    }
+
+    @DisplayName("Should stop the comparison when the region listener returns false")
+    @Test
+    public void shouldStopWhenRegionListenerReturnsFalse() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xFFFFFF);
+        actual.setRGB(50, 60, 0xFFFFFF);
+        actual.setRGB(90, 90, 0xFFFFFF);
+        List<Rectangle> regions = new ArrayList<>();
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setRegionListener((rectangle, pixelCount) -> regions.add(rectangle) && regions.size() < 2)
+                .compareImages();
+
+        // then
+        assertEquals(MISMATCH, imageComparisonResult.getImageComparisonState());
+        assertEquals(asList(new Rectangle(10, 10, 10, 10), new Rectangle(50, 60, 50, 60)),
+                imageComparisonResult.getRectangles());
+    }
+
+    @DisplayName("Should deliver regions to the region listener while the images are scanned")
+    @Test
+    public void shouldDeliverRegionsWhileScanning() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 1000, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 1000, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xFFFFFF);
+        actual.setRGB(50, 900, 0xFFFFFF);
+        List<Rectangle> regions = new ArrayList<>();
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setMetricsEnabled(true)
+                .setRegionListener((rectangle, pixelCount) -> !regions.add(rectangle))
+                .compareImages();
+
+        // then
+        assertEquals(singletonList(new Rectangle(10, 10, 10, 10)), regions);
+        assertEquals(regions, imageComparisonResult.getRectangles());
+        // the rows below the first region aren't scanned after the listener stopped the comparison.
+        assertTrue(imageComparisonResult.getMetrics().getPixelsScanned() < 100 * 1000 / 10);
+    }
+
+    @DisplayName("Should deliver regions spanning several bands of rows to the region listener as a whole")
+    @Test
+    public void shouldDeliverRegionsSpanningBandsAsWhole() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 300, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 300, BufferedImage.TYPE_INT_RGB);
+        for (int y = 20; y < 250; y += 4) {
+            actual.setRGB(30 + y % 8, y, 0xFFFFFF);
+        }
+        actual.setRGB(90, 60, 0xFFFFFF);
+        List<Rectangle> regions = new ArrayList<>();
+        List<Long> pixelCounts = new ArrayList<>();
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setRegionListener((rectangle, pixelCount) -> {
+                    regions.add(rectangle);
+                    pixelCounts.add(pixelCount);
+                    return true;
+                })
+                .compareImages();
+
+        // then
+        assertEquals(asList(new Rectangle(30, 20, 34, 248), new Rectangle(90, 60, 90, 60)), regions);
+        assertEquals(asList(58L, 1L), pixelCounts);
+        assertEquals(new ImageComparison(expected, actual).compareImages().getRectangles(),
+                imageComparisonResult.getRectangles());
+    }
+
+    @DisplayName("Should attach the metrics of the comparison to the result if enabled")
+    @Test
+    public void shouldAttachMetricsIfEnabled() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 10, 0xFFFFFF);
+        actual.setRGB(11, 10, 0xFFFFFF);
+        actual.setRGB(60, 40, 0xFFFFFF);
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(expected, actual)
+                .setExcludedAreas(singletonList(new Rectangle(0, 0, 9, 9)))
+                .setMetricsEnabled(true)
+                .compareImages();
+
+        // then
+        ImageComparisonMetrics metrics = imageComparisonResult.getMetrics();
+        assertNotNull(metrics);
+        assertEquals(100 * 50 - 100, metrics.getPixelsScanned());
+        assertEquals(100, metrics.getPixelsExcluded());
+        assertEquals(3, metrics.getDifferentPixels());
+        assertEquals(2, metrics.getRegionCount());
+        assertEquals(0, metrics.getMergeCount());
+        assertEquals(2 * 4 * 100 * 50, metrics.getBytesAllocated());
+        assertTrue(metrics.getTotalNanos() >= metrics.getNanos(ImageComparisonMetrics.Stage.SCANNING));
+    }
+
+    @DisplayName("Should not attach metrics by default")
+    @Test
+    public void shouldNotAttachMetricsByDefault() {
+        // given
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+        // when
+        ImageComparisonResult imageComparisonResult = new ImageComparison(image, image).compareImages();
+
+        // then
+        assertNull(imageComparisonResult.getMetrics());
+    }
+
+    @DisplayName("Should find the same rectangles as a full comparison when rescanning only the dirty areas")
+    @Test
+    public void shouldRescanOnlyDirtyAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage previousActual = ImageComparisonUtil.deepCopy(expected);
+        fill(previousActual, 10, 10, 20, 20);
+        fill(previousActual, 100, 50, 120, 60);
+        ImageComparisonResult previous = new ImageComparison(expected, previousActual).compareImages();
+        BufferedImage actual = ImageComparisonUtil.deepCopy(previousActual);
+        fill(actual, 124, 55, 130, 70);
+        fill(actual, 170, 80, 180, 90);
+
+        // when
+        ImageComparisonResult hinted = new ImageComparison(expected, actual)
+                .compareImages(asList(new Rectangle(124, 55, 130, 70), new Rectangle(170, 80, 180, 90)), previous);
+        ImageComparisonResult full = new ImageComparison(expected, actual).compareImages();
+
+        // then
+        assertEquals(MISMATCH, hinted.getImageComparisonState());
+        assertEquals(3, hinted.getRectangles().size());
+        assertEquals(new HashSet<>(full.getRectangles()), new HashSet<>(hinted.getRectangles()));
+    }
+
+    @DisplayName("Should find the same rectangles as a full comparison when a dropped region grows in a dirty area")
+    @Test
+    public void shouldRescanDroppedRegionsGrowingInDirtyAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage previousActual = ImageComparisonUtil.deepCopy(expected);
+        fill(previousActual, 18, 20, 21, 21);
+        ImageComparisonResult previous = new ImageComparison(expected, previousActual)
+                .setMinimalRectangleSize(10)
+                .compareImages();
+        BufferedImage actual = ImageComparisonUtil.deepCopy(previousActual);
+        fill(actual, 26, 20, 28, 21);
+
+        // when
+        ImageComparisonResult hinted = new ImageComparison(expected, actual)
+                .setMinimalRectangleSize(10)
+                .compareImages(singletonList(new Rectangle(26, 20, 28, 21)), previous);
+        ImageComparisonResult full = new ImageComparison(expected, actual)
+                .setMinimalRectangleSize(10)
+                .compareImages();
+
+        // then
+        assertEquals(MATCH, previous.getImageComparisonState());
+        assertEquals(singletonList(new Rectangle(18, 20, 28, 21)), full.getRectangles());
+        assertEquals(full.getRectangles(), hinted.getRectangles());
+    }
+
+    @DisplayName("Should match when the dirty areas remove all differences")
+    @Test
+    public void shouldMatchWhenDirtyAreasRemoveAllDifferences() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage previousActual = ImageComparisonUtil.deepCopy(expected);
+        fill(previousActual, 40, 40, 60, 60);
+        ImageComparisonResult previous = new ImageComparison(expected, previousActual).compareImages();
+
+        // when
+        ImageComparisonResult hinted = new ImageComparison(expected, expected)
+                .compareImages(singletonList(new Rectangle(45, 45, 50, 50)), previous);
+
+        // then
+        assertEquals(MATCH, hinted.getImageComparisonState());
+    }
+
+    @DisplayName("Should compare only the included areas")
+    @Test
+    public void shouldCompareOnlyIncludedAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        fill(actual, 10, 10, 14, 14);
+        fill(actual, 60, 60, 69, 69);
+        // overlapping areas of 1200 pixels, with 25 different pixels.
+        List<Rectangle> includedAreas = asList(new Rectangle(0, 0, 29, 29), new Rectangle(20, 20, 39, 39));
+
+        // when
+        ImageComparisonResult result = new ImageComparison(expected, actual)
+                .setIncludedAreas(includedAreas)
+                .compareImages();
+
+        // then
+        assertEquals(MISMATCH, result.getImageComparisonState());
+        assertEquals(singletonList(new Rectangle(10, 10, 14, 14)), result.getRectangles());
+        assertEquals(100.0 * 25 * 3 * 255 / (4 * 255 * 1200), result.getDifferencePercent(), 0.0001);
+    }
+
+    @DisplayName("Should calculate the difference percent of a mismatch during the comparison")
+    @Test
+    public void shouldCalculateDifferencePercentOfMismatchEagerly() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB);
+        fill(expected, 0, 0, 99, 99);
+        fill(actual, 0, 0, 99, 99);
+        actual.setRGB(10, 10, Color.BLACK.getRGB());
+        // a difference below the pixel tolerance level and an excluded one.
+        actual.setRGB(50, 50, 0xFFFEFEFE);
+        actual.setRGB(80, 80, Color.BLACK.getRGB());
+        float expectedPercent = ImageComparisonUtil.getDifferencePercent(actual, expected);
+
+        for (boolean pyramidComparison : new boolean[] {false, true}) {
+            BufferedImage changedActual = ImageComparisonUtil.deepCopy(actual);
+            ImageComparisonResult result = new ImageComparison(expected, changedActual)
+                    .setExcludedAreas(singletonList(new Rectangle(70, 70, 89, 89)))
+                    .setPyramidComparison(pyramidComparison)
+                    .compareImages();
+
+            // when
+            fill(changedActual, 0, 0, 99, 99);
+
+            // then
+            assertEquals(MISMATCH, result.getImageComparisonState());
+            assertEquals(expectedPercent, result.getDifferencePercent(), 0.0001);
+        }
+    }
+
+    @DisplayName("Should calculate the allowed percent relative to the included areas")
+    @Test
+    public void shouldAllowPercentOfIncludedAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        fill(actual, 10, 10, 14, 14);
+        ImageComparison comparison = new ImageComparison(expected, actual)
+                .setIncludedAreas(asList(new Rectangle(0, 0, 29, 29), new Rectangle(20, 20, 39, 39)));
+
+        // when
+        ImageComparisonState belowPercent = comparison.setAllowingPercentOfDifferentPixels(2.0)
+                .compareImages().getImageComparisonState();
+        ImageComparisonState abovePercent = comparison.setAllowingPercentOfDifferentPixels(2.1)
+                .compareImages().getImageComparisonState();
+
+        // then
+        assertEquals(MISMATCH, belowPercent);
+        assertEquals(MATCH, abovePercent);
+        assertEquals(1200, comparison.createDistanceHistogram().getPixelCount());
+        assertEquals(25, comparison.createDistanceHistogram().getDifferentPixelCount(0.0));
+    }
+
+    @DisplayName("Should ignore colour differences of equal luma in the luma comparison")
+    @Test
+    public void shouldIgnoreColourDifferencesOfEqualLuma() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 50; y++) {
+            for (int x = 0; x < 100; x++) {
+                // pure blue and a dark green have the same luma.
+                expected.setRGB(x, y, 0x0000FF);
+                actual.setRGB(x, y, 0x003200);
+            }
+        }
+        fill(actual, 70, 10, 79, 19);
+
+        // when
+        ImageComparison comparison = new ImageComparison(expected, actual).setLumaComparison(true);
+        ImageComparisonResult result = comparison.compareImages();
+
+        // then
+        assertEquals(MISMATCH, result.getImageComparisonState());
+        assertEquals(singletonList(new Rectangle(70, 10, 79, 19)), result.getRectangles());
+        assertEquals(100, comparison.createDistanceHistogram().getDifferentPixelCount(0.1));
+        assertEquals(5000, comparison.setLumaComparison(false).createDistanceHistogram()
+                .getDifferentPixelCount(0.1));
+    }
+
+    @DisplayName("Should compare the luma of a prepared expected image like the one of the image")
+    @Test
+    public void shouldCompareLumaOfPreparedExpectedImage() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        BufferedImage actual = readImageFromResources("actual.png");
+        List<Rectangle> excludedAreas = singletonList(new Rectangle(80, 388, 900, 514));
+
+        // when
+        ImageComparisonResult direct = new ImageComparison(expected, actual)
+                .setExcludedAreas(excludedAreas)
+                .setLumaComparison(true)
+                .compareImages();
+        ImageComparisonResult prepared = new PreparedExpectedImage(expected, excludedAreas)
+                .setComparisonSettings(comparison -> comparison.setLumaComparison(true))
+                .compareImages(actual);
+
+        // then
+        assertEquals(MISMATCH, direct.getImageComparisonState());
+        assertEquals(new HashSet<>(direct.getRectangles()), new HashSet<>(prepared.getRectangles()));
+    }
+
+    private static void fill(BufferedImage image, int minX, int minY, int maxX, int maxY) {
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                image.setRGB(x, y, Color.WHITE.getRGB());
+            }
+        }
+    }
+
     private void assertImagesEqual(BufferedImage expected, BufferedImage actual) {
         if (expected.getWidth() != actual.getWidth() || expected.getHeight() != actual.getHeight()) {
             fail("Images have different dimensions");
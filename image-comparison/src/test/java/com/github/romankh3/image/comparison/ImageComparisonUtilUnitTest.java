@@ -22,9 +22,12 @@
 package com.github.romankh3.image.comparison;
 
 import static com.github.romankh3.image.comparison.ImageComparisonUtil.readImageFromResources;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -35,6 +38,7 @@ import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -42,6 +46,9 @@ import org.junit.jupiter.api.io.TempDir;
 
 import com.github.romankh3.image.comparison.exception.ImageComparisonException;
 import com.github.romankh3.image.comparison.exception.ImageNotFoundException;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageFingerprint;
+import com.github.romankh3.image.comparison.model.Rectangle;
 
 @DisplayName("Unit-level testing for {@link ImageComparisonUtil} object.")
 public class ImageComparisonUtilUnitTest {
@@ -123,6 +130,66 @@ public class ImageComparisonUtilUnitTest {
     }
 
 
+    @DisplayName("Should average the covered area over white when resizing")
+    @Test
+    public void shouldAverageCoveredAreaWhenResizing() {
+        // given
+        BufferedImage image = new BufferedImage(4, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(0, 0, 0xFFFFFFFF);
+        image.setRGB(1, 0, 0xFFFFFFFF);
+        image.setRGB(0, 1, 0xFFFFFFFF);
+        image.setRGB(1, 1, 0xFF000000);
+        image.setRGB(2, 0, 0x80FF0000);
+        image.setRGB(3, 0, 0x80FF0000);
+        image.setRGB(2, 1, 0x80FF0000);
+        image.setRGB(3, 1, 0x80FF0000);
+
+        // when
+        BufferedImage resized = ImageComparisonUtil.resize(image, 2, 1);
+
+        // then
+        assertEquals(0xFFBFBFBF, resized.getRGB(0, 0));
+        // the half transparent red is composed over white.
+        assertEquals(0xFFFF7F7F, resized.getRGB(1, 0));
+    }
+
+    @DisplayName("Should resize like the smooth scaling of the toolkit")
+    @Test
+    public void shouldResizeLikeSmoothScaling() {
+        // given
+        BufferedImage actual = readImageFromResources("actualDifferentSize.png");
+
+        // when
+        BufferedImage resized = ImageComparisonUtil.resize(actual, 333, 555);
+        BufferedImage scaled = ImageComparisonUtil.toBufferedImage(
+                actual.getScaledInstance(333, 555, Image.SCALE_SMOOTH));
+
+        // then
+        for (int y = 0; y < 555; y++) {
+            for (int x = 0; x < 333; x++) {
+                for (int shift = 0; shift < 32; shift += 8) {
+                    int difference = ((resized.getRGB(x, y) >> shift) & 0xff) - ((scaled.getRGB(x, y) >> shift) & 0xff);
+                    // only the rounding differs.
+                    assertTrue(Math.abs(difference) <= 1);
+                }
+            }
+        }
+    }
+
+    @DisplayName("Should resize in parallel like sequentially")
+    @Test
+    public void shouldResizeInParallelLikeSequentially() {
+        // given
+        BufferedImage actual = readImageFromResources("actualDifferentSize.png");
+
+        // when
+        BufferedImage resized = ImageComparisonUtil.resize(actual, 333, 555);
+        BufferedImage resizedInParallel = ImageComparisonUtil.resize(actual, 333, 555, true);
+
+        // then
+        assertEquals(0.0f, ImageComparisonUtil.getDifferencePercent(resized, resizedInParallel));
+    }
+
     @DisplayName("Should properly map Image to BufferedImage")
     @Test
     public void shouldProperlyWorkToBufferedImage() {
@@ -214,4 +281,106 @@ public class ImageComparisonUtilUnitTest {
                 "Expected exception message to start with \"Cannot read image from the file, path=\", but is \""
                         + ex.getMessage() + "\"");
     }
+
+    @DisplayName("Should properly save and read fingerprint")
+    @Test
+    public void shouldProperlySaveAndReadFingerprint() {
+        // given
+        BufferedImage image = readImageFromResources("expected.png");
+        ImageFingerprint fingerprint = ImageComparisonUtil.createFingerprint(image, 32);
+        File path = new File("build/test/fingerprint/expected.fingerprint");
+
+        // when
+        ImageComparisonUtil.saveFingerprint(path, fingerprint);
+        ImageFingerprint readFingerprint = ImageComparisonUtil.readFingerprintFromResources(path.getPath());
+
+        // then
+        assertTrue(fingerprint.matches(readFingerprint));
+        assertEquals(image.getWidth(), readFingerprint.getWidth());
+        assertEquals(image.getHeight(), readFingerprint.getHeight());
+        assertEquals(32, readFingerprint.getTileSize());
+    }
+
+    @DisplayName("Should find different tiles of fingerprints")
+    @Test
+    public void shouldFindDifferentTilesOfFingerprints() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 70, BufferedImage.TYPE_INT_ARGB);
+        BufferedImage actual = new BufferedImage(100, 70, BufferedImage.TYPE_INT_ARGB);
+        actual.setRGB(90, 65, 0xFF00FF00);
+
+        // when
+        List<Rectangle> tiles = ImageComparisonUtil.createFingerprint(expected, 64)
+                .getDifferentTiles(ImageComparisonUtil.createFingerprint(actual, 64));
+
+        // then
+        assertEquals(1, tiles.size());
+        assertEquals(new Rectangle(64, 64, 99, 69), tiles.get(0));
+    }
+
+    @DisplayName("Should throw an exception when reading a fingerprint from an image")
+    @Test
+    public void shouldThrowAnExceptionWhenReadingFingerprintFromImage() {
+        // when-then
+        ImageComparisonException ex = assertThrows(ImageComparisonException.class,
+                () -> ImageComparisonUtil.readFingerprintFromResources("expected.png"));
+        assertTrue(ex.getMessage().startsWith("Not a fingerprint file, path="));
+    }
+
+    @DisplayName("Should normalize every layout into the same RGB values")
+    @Test
+    public void shouldNormalizeLayouts() {
+        // given
+        BufferedImage source = readImageFromResources("expected.png");
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+                BufferedImage.TYPE_BYTE_INDEXED, BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_INT_ARGB_PRE};
+        for (int type : types) {
+            BufferedImage image = new BufferedImage(source.getWidth(), source.getHeight(), type);
+            image.getGraphics().drawImage(source, 0, 0, null);
+            BufferedImage subimage = image.getSubimage(7, 3, 100, 50);
+
+            // when
+            BufferedImage normalized = ImageComparisonUtil.normalize(image);
+            BufferedImage normalizedSubimage = ImageComparisonUtil.normalize(subimage);
+
+            // then
+            assertEquals(BufferedImage.TYPE_INT_ARGB, normalized.getType());
+            assertTrue(ImageComparisonUtil.isNormalized(normalizedSubimage));
+            assertArrayEquals(getRGB(image), getRGB(normalized));
+            assertArrayEquals(getRGB(subimage), getRGB(normalizedSubimage));
+        }
+    }
+
+    @DisplayName("Should not normalize a normalized image again")
+    @Test
+    public void shouldNotNormalizeTwice() {
+        // given
+        BufferedImage normalized = ImageComparisonUtil.normalize(readImageFromResources("expected.png"));
+
+        // when-then
+        assertSame(normalized, ImageComparisonUtil.normalize(normalized));
+        assertNotNull(ImageComparisonUtil.getNormalizedPixels(normalized));
+        assertNull(ImageComparisonUtil.getNormalizedPixels(normalized.getSubimage(1, 1, 10, 10)));
+    }
+
+    @DisplayName("Should compare normalized images like the decoded ones")
+    @Test
+    public void shouldCompareNormalizedImagesLikeDecodedOnes() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        BufferedImage actual = readImageFromResources("actual.png");
+
+        // when
+        ImageComparisonResult decoded = new ImageComparison(expected, actual).compareImages();
+        ImageComparisonResult normalized = new ImageComparison(ImageComparisonUtil.normalize(expected),
+                ImageComparisonUtil.normalize(actual)).compareImages();
+
+        // then
+        assertEquals(decoded.getRectangles(), normalized.getRectangles());
+        assertEquals(decoded.getDifferencePercent(), normalized.getDifferencePercent());
+    }
+
+    private static int[] getRGB(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
 }
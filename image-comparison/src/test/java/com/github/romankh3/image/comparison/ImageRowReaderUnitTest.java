@@ -0,0 +1,146 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.romankh3.image.comparison.exception.ImageNotFoundException;
+
+@DisplayName("Unit-level testing for {@link ImageRowReader} object.")
+public class ImageRowReaderUnitTest {
+
+    @DisplayName("Should read the rows of sequential and interlaced images")
+    @Test
+    public void shouldReadRowsOfSequentialAndInterlacedImages(@TempDir Path tempDir) throws IOException {
+        // given
+        BufferedImage rgb = createImage(BufferedImage.TYPE_INT_RGB);
+        File[] files = {
+                write(rgb, "png", false, tempDir.resolve("sequential.png").toFile()),
+                write(rgb, "jpg", false, tempDir.resolve("sequential.jpg").toFile()),
+                write(rgb, "png", true, tempDir.resolve("interlaced.png").toFile()),
+                write(rgb, "jpg", true, tempDir.resolve("progressive.jpg").toFile()),
+                write(createImage(BufferedImage.TYPE_INT_ARGB), "png", false, tempDir.resolve("argb.png").toFile()),
+                write(createImage(BufferedImage.TYPE_BYTE_GRAY), "png", false, tempDir.resolve("gray.png").toFile()),
+                write(createImage(BufferedImage.TYPE_BYTE_BINARY), "png", false,
+                        tempDir.resolve("binary.png").toFile()),
+                write(createImage(BufferedImage.TYPE_BYTE_INDEXED), "png", false,
+                        tempDir.resolve("indexed.png").toFile())
+        };
+
+        for (File file : files) {
+            BufferedImage image = ImageIO.read(file);
+            int[] expectedRow = new int[image.getWidth()];
+            int[] row = new int[image.getWidth()];
+
+            // when
+            try (ImageRowReader reader = ImageRowReader.open(file, 7)) {
+
+                // then
+                assertEquals(image.getWidth(), reader.getWidth());
+                assertEquals(image.getHeight(), reader.getHeight());
+                for (int y = 0; y < image.getHeight(); y++) {
+                    reader.readRow(y, row);
+                    image.getRGB(0, y, image.getWidth(), 1, expectedRow, 0, image.getWidth());
+                    assertArrayEquals(expectedRow, row);
+                }
+            }
+        }
+    }
+
+    @DisplayName("Should read the rows in bands doubling up to the band height")
+    @Test
+    public void shouldReadRowsInDoublingBands(@TempDir Path tempDir) throws IOException {
+        // given
+        File file = write(createImage(BufferedImage.TYPE_INT_RGB), "png", false,
+                tempDir.resolve("sequential.png").toFile());
+        int[] row = new int[61];
+
+        try (ImageRowReader reader = ImageRowReader.open(file, 40)) {
+            // when
+            for (int y = 0; y < 16; y++) {
+                reader.readRow(y, row);
+            }
+
+            // then
+            assertEquals(1, reader.getBandCount());
+
+            // when
+            for (int y = 16; y < reader.getHeight(); y++) {
+                reader.readRow(y, row);
+            }
+
+            // then
+            // the bands of 16, 32, 40 and the remaining 9 rows.
+            assertEquals(4, reader.getBandCount());
+        }
+    }
+
+    @DisplayName("Should throw an exception for not existing images")
+    @Test
+    public void shouldThrowAnExceptionForNotExistingImages() {
+        // when-then
+        assertThrows(ImageNotFoundException.class, () -> ImageRowReader.open(new File("wrong-file-name.png"), 7));
+    }
+
+    private static BufferedImage createImage(int type) {
+        Random random = new Random(7);
+        BufferedImage image = new BufferedImage(61, 97, type);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static File write(BufferedImage image, String format, boolean progressive, File file)
+            throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersBySuffix(format).next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setProgressiveMode(progressive ? ImageWriteParam.MODE_DEFAULT : ImageWriteParam.MODE_DISABLED);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(file)) {
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return file;
+    }
+}
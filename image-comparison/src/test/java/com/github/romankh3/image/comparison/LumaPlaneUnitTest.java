@@ -0,0 +1,69 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+@DisplayName("Unit-level testing for {@link LumaPlane} object.")
+public class LumaPlaneUnitTest {
+
+    @DisplayName("Should calculate the luma of the primary colours")
+    @Test
+    public void shouldCalculateLuma() {
+        assertEquals(0, LumaPlane.luma(0xFF000000));
+        assertEquals(255, LumaPlane.luma(0xFFFFFFFF));
+        assertEquals(77, LumaPlane.luma(0xFFFF0000));
+        assertEquals(149, LumaPlane.luma(0xFF00FF00));
+        assertEquals(29, LumaPlane.luma(0xFF0000FF));
+        assertEquals(LumaPlane.luma(0xFF808080), LumaPlane.luma(0x00808080));
+    }
+
+    @DisplayName("Should convert the image and its pixels into the same plane")
+    @Test
+    public void shouldConvertImageAndPixelsEqually() {
+        // given
+        BufferedImage image = new WorkloadGenerator(7)
+                .setSize(70, 30)
+                .setPattern(DifferencePattern.SPARSE_NOISE)
+                .generate()
+                .getActual();
+
+        // when
+        LumaPlane fromImage = LumaPlane.of(image);
+        LumaPlane fromPixels = LumaPlane.of(image.getRGB(0, 0, 70, 30, null, 0, 70), 70, 30);
+
+        // then
+        assertEquals(70, fromImage.getWidth());
+        assertEquals(30, fromImage.getHeight());
+        assertArrayEquals(fromPixels.getLuma(), fromImage.getLuma());
+        assertEquals(LumaPlane.luma(image.getRGB(69, 29)), fromImage.getLuma()[30 * 70 - 1] & 0xff);
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.BaselineMatch;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link MultiBaselineComparison} object.")
+public class MultiBaselineComparisonUnitTest {
+
+    @DisplayName("Should find the matching candidate")
+    @Test
+    public void shouldFindMatchingCandidate() {
+        // given
+        BufferedImage actual = image(Color.BLACK);
+        BufferedImage matching = image(Color.BLACK);
+
+        // when
+        BaselineMatch match = new MultiBaselineComparison(asList(image(Color.WHITE), image(Color.BLUE, 10, 10, 5),
+                matching), actual).compareImages();
+
+        // then
+        assertEquals(2, match.getIndex());
+        assertEquals(ImageComparisonState.MATCH, match.getResult().getImageComparisonState());
+        assertSame(matching, match.getResult().getExpected());
+    }
+
+    @DisplayName("Should prefer the candidate with fewer different pixels within the allowing percent")
+    @Test
+    public void shouldPreferCandidateWithFewerDifferentPixels() {
+        // given
+        BufferedImage actual = image(Color.BLACK);
+
+        // when
+        BaselineMatch match = new MultiBaselineComparison(asList(image(Color.BLACK, 10, 10, 20),
+                image(Color.BLACK, 2, 2, 5), image(Color.WHITE)), actual)
+                .setComparisonSettings(comparison -> comparison.setAllowingPercentOfDifferentPixels(5))
+                .compareImages();
+
+        // then
+        assertEquals(1, match.getIndex());
+        assertEquals(ImageComparisonState.MATCH, match.getResult().getImageComparisonState());
+    }
+
+    @DisplayName("Should compare the candidate dropped last completely if none matches")
+    @Test
+    public void shouldCompareCandidateDroppedLastIfNoneMatches() {
+        // given
+        BufferedImage actual = image(Color.BLACK);
+        BufferedImage differentAtBottom = image(Color.BLACK, 90, 90, 5);
+        BufferedImage differentAtTop = image(Color.BLACK, 10, 10, 5);
+
+        // when
+        BaselineMatch match = new MultiBaselineComparison(asList(new BufferedImage(50, 50,
+                BufferedImage.TYPE_INT_RGB), differentAtTop, differentAtBottom), actual).compareImages();
+
+        // then
+        ImageComparisonResult independent = new ImageComparison(differentAtBottom, actual).compareImages();
+        assertEquals(2, match.getIndex());
+        assertEquals(ImageComparisonState.MISMATCH, match.getResult().getImageComparisonState());
+        assertEquals(independent.getRectangles(), match.getResult().getRectangles());
+    }
+
+    @DisplayName("Should count the different pixels only inside the included areas")
+    @Test
+    public void shouldCountDifferentPixelsInsideIncludedAreas() {
+        // given
+        BufferedImage actual = image(Color.BLACK);
+        BufferedImage differentOutside = image(Color.BLACK, 60, 60, 20);
+        BufferedImage differentInside = image(Color.BLACK, 5, 5, 3);
+        // 9 of the 400 included pixels differ, which exceeds 1 percent of them, but not of the image.
+        Consumer<ImageComparison> settings = comparison -> comparison
+                .setIncludedAreas(singletonList(new Rectangle(0, 0, 19, 19)))
+                .setAllowingPercentOfDifferentPixels(1);
+
+        // when
+        BaselineMatch match = new MultiBaselineComparison(asList(differentInside, differentOutside), actual)
+                .setComparisonSettings(settings)
+                .compareImages();
+
+        // then
+        ImageComparison independent = new ImageComparison(differentInside, actual);
+        settings.accept(independent);
+        assertEquals(ImageComparisonState.MISMATCH, independent.compareImages().getImageComparisonState());
+        assertEquals(1, match.getIndex());
+        assertEquals(ImageComparisonState.MATCH, match.getResult().getImageComparisonState());
+    }
+
+    @DisplayName("Should reject an empty collection of candidates")
+    @Test
+    public void shouldRejectEmptyCandidates() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new MultiBaselineComparison(Collections.emptyList(), image(Color.BLACK)));
+    }
+
+    private static BufferedImage image(Color background) {
+        BufferedImage image = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(background);
+        graphics.fillRect(0, 0, 100, 100);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * Create an image with a white square of the provided size at the provided position.
+     */
+    private static BufferedImage image(Color background, int x, int y, int size) {
+        BufferedImage image = image(background);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(x, y, size, size);
+        graphics.dispose();
+        return image;
+    }
+}
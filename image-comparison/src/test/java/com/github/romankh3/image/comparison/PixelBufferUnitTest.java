@@ -0,0 +1,172 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static com.github.romankh3.image.comparison.ImageComparisonUtil.readImageFromResources;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.PixelBuffer.ChannelOrder;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link PixelBuffer} object.")
+public class PixelBufferUnitTest {
+
+    private static final int ARGB = 0x80102030;
+
+    @DisplayName("Should read the ARGB values in every channel order")
+    @Test
+    public void shouldReadEveryChannelOrder() {
+        assertEquals(ARGB, readPixel(ChannelOrder.BGRA, new byte[] {0x30, 0x20, 0x10, (byte) 0x80}));
+        assertEquals(ARGB | 0xff000000, readPixel(ChannelOrder.BGRX, new byte[] {0x30, 0x20, 0x10, 0x00}));
+        assertEquals(ARGB, readPixel(ChannelOrder.RGBA, new byte[] {0x10, 0x20, 0x30, (byte) 0x80}));
+        assertEquals(ARGB | 0xff000000, readPixel(ChannelOrder.RGBX, new byte[] {0x10, 0x20, 0x30, 0x00}));
+        assertEquals(ARGB, readPixel(ChannelOrder.ARGB, new byte[] {(byte) 0x80, 0x10, 0x20, 0x30}));
+        assertEquals(ARGB, readPixel(ChannelOrder.ABGR, new byte[] {(byte) 0x80, 0x30, 0x20, 0x10}));
+    }
+
+    @DisplayName("Should view the pixels of a padded direct buffer as an image")
+    @Test
+    public void shouldViewPaddedDirectBuffer() {
+        // given
+        BufferedImage image = readImageFromResources("expected.png");
+        PixelBuffer pixels = toBgra(image, 16);
+
+        // when
+        BufferedImage view = pixels.asImage();
+        int[] row = new int[image.getWidth() - 10];
+        pixels.readRow(10, 7, row.length, row, 0);
+
+        // then
+        assertSame(view, pixels.asImage());
+        assertSame(pixels, PixelBuffer.getViewed(view));
+        assertArrayEquals(getRGB(image), getRGB(view));
+        assertArrayEquals(image.getRGB(10, 7, row.length, 1, null, 0, row.length), row);
+    }
+
+    @DisplayName("Should compare the buffers like the images")
+    @Test
+    public void shouldCompareBuffersLikeImages() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        BufferedImage actual = readImageFromResources("actual.png");
+
+        // when
+        ImageComparisonResult images = new ImageComparison(expected, actual).compareImages();
+        ImageComparisonResult buffers = new ImageComparison(toBgra(expected, 0), toBgra(actual, 8)).compareImages();
+
+        // then
+        assertEquals(images.getImageComparisonState(), buffers.getImageComparisonState());
+        assertEquals(images.getRectangles(), buffers.getRectangles());
+        assertEquals(images.getDifferencePercent(), buffers.getDifferencePercent());
+        assertArrayEquals(getRGB(images.getResult()), getRGB(buffers.getResult()));
+    }
+
+    @DisplayName("Should keep the percent and the drawn result of a mismatch when the buffer changes")
+    @Test
+    public void shouldKeepMismatchWhenBufferChanges() {
+        // given
+        BufferedImage expected = readImageFromResources("expected.png");
+        PixelBuffer actualPixels = toBgra(readImageFromResources("actual.png"), 0);
+        ImageComparisonResult result = new ImageComparison(toBgra(expected, 0), actualPixels).compareImages();
+        float differencePercent = result.getDifferencePercent();
+        int[] resultPixels = getRGB(result.getResult());
+
+        // when
+        actualPixels.asImage().setRGB(0, 0, expected.getWidth(), expected.getHeight(), getRGB(expected), 0,
+                expected.getWidth());
+
+        // then
+        assertEquals(differencePercent, result.getDifferencePercent());
+        assertArrayEquals(resultPixels, getRGB(result.getResult()));
+        // the actual image of the result views the changed buffer.
+        assertArrayEquals(getRGB(expected), getRGB(result.getActual()));
+    }
+
+    @DisplayName("Should read the pixels of an int array in place")
+    @Test
+    public void shouldReadIntArrayInPlace() {
+        // given
+        int[] argb = new int[6 * 4];
+        argb[6 + 2] = ARGB;
+
+        // when
+        PixelBuffer pixels = PixelBuffer.of(argb, 6, 4, 6);
+        BufferedImage view = pixels.asImage();
+
+        // then
+        assertEquals(ARGB, view.getRGB(2, 1));
+        assertSame(argb, ImageComparisonUtil.getNormalizedPixels(view));
+        assertNull(PixelBuffer.getViewed(view));
+    }
+
+    @DisplayName("Should throw an exception for a buffer too small for the image")
+    @Test
+    public void shouldThrowForTooSmallBuffer() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PixelBuffer.of(new byte[4 * 10 * 10 - 1], 10, 10, 40, ChannelOrder.BGRA));
+        assertThrows(IllegalArgumentException.class,
+                () -> PixelBuffer.of(new byte[4 * 10 * 10], 10, 10, 39, ChannelOrder.BGRA));
+        assertEquals(10, PixelBuffer.of(new byte[4 * 10 * 10], 10, 10, 40, ChannelOrder.BGRA).getWidth());
+    }
+
+    private static int readPixel(ChannelOrder channelOrder, byte[] bytes) {
+        int[] row = new int[1];
+        PixelBuffer.of(bytes, 1, 1, 4, channelOrder).readRow(0, 0, 1, row, 0);
+        return row[0];
+    }
+
+    /**
+     * Copy the image into a direct buffer of BGRA bytes, whose rows are padded.
+     */
+    private static PixelBuffer toBgra(BufferedImage image, int padding) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int stride = 4 * width + padding;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(stride * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int argb = image.getRGB(x, y);
+                int index = y * stride + 4 * x;
+                buffer.put(index, (byte) argb);
+                buffer.put(index + 1, (byte) (argb >> 8));
+                buffer.put(index + 2, (byte) (argb >> 16));
+                buffer.put(index + 3, (byte) (argb >>> 24));
+            }
+        }
+        return PixelBuffer.of(buffer, width, height, stride, ChannelOrder.BGRA);
+    }
+
+    private static int[] getRGB(BufferedImage image) {
+        return image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+    }
+}
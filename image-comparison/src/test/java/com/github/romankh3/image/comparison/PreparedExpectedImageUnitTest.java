@@ -0,0 +1,103 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+import com.github.romankh3.image.comparison.model.Rectangle;
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.Workload;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+@DisplayName("Unit-level testing for {@link PreparedExpectedImage} object.")
+public class PreparedExpectedImageUnitTest {
+
+    @DisplayName("Should compare many actual images in parallel like independent comparisons")
+    @Test
+    public void shouldCompareManyActualImagesLikeIndependentComparisons() {
+        // given
+        BufferedImage expected = workload(DifferencePattern.SPARSE_NOISE).getExpected();
+        List<BufferedImage> actuals = new ArrayList<>();
+        for (DifferencePattern pattern : DifferencePattern.values()) {
+            actuals.add(workload(pattern).getActual());
+        }
+        List<Rectangle> excludedAreas = singletonList(new Rectangle(60, 0, 130, 40));
+
+        for (boolean pyramidComparison : new boolean[] {false, true}) {
+            // when
+            List<ImageComparisonResult> results = new PreparedExpectedImage(expected, excludedAreas)
+                    .setComparisonSettings(comparison -> comparison.setPyramidComparison(pyramidComparison))
+                    .compareImages(actuals, true);
+
+            // then
+            assertEquals(actuals.size(), results.size());
+            for (int i = 0; i < actuals.size(); i++) {
+                ImageComparisonResult independent = new ImageComparison(expected, actuals.get(i))
+                        .setExcludedAreas(excludedAreas)
+                        .setPyramidComparison(pyramidComparison)
+                        .compareImages();
+                assertEquals(independent.getImageComparisonState(), results.get(i).getImageComparisonState());
+                assertEquals(independent.getRectangles(), results.get(i).getRectangles());
+            }
+        }
+    }
+
+    @DisplayName("Should use the excluded areas of the comparison settings instead of the prepared ones")
+    @Test
+    public void shouldUseExcludedAreasOfSettings() {
+        // given
+        BufferedImage expected = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(100, 100, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(70, 70, 0xffffff);
+        PreparedExpectedImage prepared = new PreparedExpectedImage(expected,
+                singletonList(new Rectangle(64, 64, 80, 80)));
+
+        // when
+        ImageComparisonResult withPreparedAreas = prepared.compareImages(actual);
+        ImageComparisonResult withoutAreas = prepared
+                .setComparisonSettings(comparison -> comparison.setExcludedAreas(emptyList()))
+                .compareImages(actual);
+
+        // then
+        assertEquals(ImageComparisonState.MATCH, withPreparedAreas.getImageComparisonState());
+        assertEquals(ImageComparisonState.MISMATCH, withoutAreas.getImageComparisonState());
+    }
+
+    private static Workload workload(DifferencePattern pattern) {
+        return new WorkloadGenerator(21)
+                .setSize(150, 100)
+                .setPattern(pattern)
+                .setDensity(0.2)
+                .generate();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link RectangleList} object.")
+public class RectangleListUnitTest {
+
+    @DisplayName("Should merge overlapping rectangles")
+    @Test
+    public void shouldMergeOverlappingRectangles() {
+        // given
+        RectangleList rectangles = new RectangleList();
+        rectangles.add(0, 0, 10, 10);
+        rectangles.add(20, 20, 30, 30);
+        rectangles.add(5, 5, 25, 15);
+        rectangles.add(50, 50, 60, 60);
+
+        // when
+        rectangles.merge();
+
+        // then
+        assertEquals(asList(new Rectangle(0, 0, 25, 15), new Rectangle(20, 20, 30, 30),
+                new Rectangle(50, 50, 60, 60)), rectangles.toRectangles());
+    }
+
+    @DisplayName("Should keep a single pixel rectangle at the origin while merging")
+    @Test
+    public void shouldKeepOriginRectangleWhileMerging() {
+        // given
+        RectangleList rectangles = new RectangleList();
+        rectangles.add(0, 0, 0, 0);
+        rectangles.add(5, 5, 6, 6);
+
+        // when
+        rectangles.merge();
+
+        // then
+        assertEquals(asList(new Rectangle(0, 0, 0, 0), new Rectangle(5, 5, 6, 6)), rectangles.toRectangles());
+    }
+
+    @DisplayName("Should remove rectangles smaller than the minimal size")
+    @Test
+    public void shouldRemoveSmallerRectangles() {
+        // given
+        RectangleList rectangles = new RectangleList(1);
+        rectangles.add(0, 0, 1, 1);
+        rectangles.add(10, 10, 10, 10);
+        rectangles.add(20, 20, 22, 22);
+
+        // when
+        rectangles.removeSmallerThan(4);
+
+        // then
+        assertEquals(asList(new Rectangle(0, 0, 1, 1), new Rectangle(20, 20, 22, 22)), rectangles.toRectangles());
+    }
+
+    @DisplayName("Should select the largest rectangles preferring the later ones of equal sizes")
+    @Test
+    public void shouldSelectLargestRectangles() {
+        // given
+        RectangleList rectangles = new RectangleList();
+        rectangles.add(0, 0, 1, 1);
+        rectangles.add(10, 10, 19, 19);
+        rectangles.add(30, 30, 31, 31);
+        rectangles.add(40, 40, 40, 40);
+
+        // when
+        RectangleList largest = rectangles.largest(2);
+
+        // then
+        assertEquals(asList(new Rectangle(10, 10, 19, 19), new Rectangle(30, 30, 31, 31)), largest.toRectangles());
+    }
+}
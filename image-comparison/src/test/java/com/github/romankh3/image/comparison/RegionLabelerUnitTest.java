@@ -0,0 +1,115 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link RegionLabeler} object.")
+public class RegionLabelerUnitTest {
+
+    @DisplayName("Should join pixels within the threshold")
+    @Test
+    public void shouldJoinPixelsWithinThreshold() {
+        // given
+        RegionLabeler labeler = new RegionLabeler(20, 2);
+
+        // when
+        labeler.startRow(0);
+        labeler.add(0);
+        labeler.add(2);
+        labeler.add(10);
+        labeler.startRow(1);
+        labeler.startRow(2);
+        labeler.add(12);
+        labeler.add(19);
+        List<Rectangle> rectangles = labeler.finish().toRectangles();
+
+        // then
+        assertEquals(3, rectangles.size());
+        assertEquals(new Rectangle(0, 0, 2, 0), rectangles.get(0));
+        assertEquals(new Rectangle(10, 0, 12, 2), rectangles.get(1));
+        assertEquals(new Rectangle(19, 2, 19, 2), rectangles.get(2));
+    }
+
+    @DisplayName("Should join pixels in any direction, unlike the in-memory comparison")
+    @Test
+    public void shouldJoinPixelsInAnyDirection() {
+        // given
+        BufferedImage expected = new BufferedImage(20, 5, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(20, 5, BufferedImage.TYPE_INT_RGB);
+        actual.setRGB(10, 0, 0xFFFFFF);
+        actual.setRGB(8, 1, 0xFFFFFF);
+        actual.setRGB(10, 3, 0xFFFFFF);
+        RegionLabeler labeler = new RegionLabeler(20, 5);
+
+        // when
+        labeler.startRow(0);
+        labeler.add(10);
+        labeler.startRow(1);
+        labeler.add(8);
+        labeler.startRow(2);
+        labeler.startRow(3);
+        labeler.add(10);
+        List<Rectangle> rectangles = labeler.finish().toRectangles();
+
+        // then
+        // (8, 1) reaches (10, 3) down-right, while (10, 3) is already grouped with (10, 0) in the in-memory
+        // comparison, which therefore starts a region of its own for (8, 1).
+        assertEquals(Collections.singletonList(new Rectangle(8, 0, 10, 3)), rectangles);
+        assertEquals(2, new ImageComparison(expected, actual).setThreshold(5).setMinimalRectangleSize(1)
+                .createMask().size());
+    }
+
+    @DisplayName("Should keep regions across compactions")
+    @Test
+    public void shouldKeepRegionsAcrossCompactions() {
+        // given
+        RegionLabeler labeler = new RegionLabeler(4, 1);
+
+        // when
+        for (int y = 0; y < 1000; y++) {
+            labeler.startRow(y);
+            if (y % 4 == 0) {
+                // an isolated pixel and a pixel touching the line.
+                labeler.add(0);
+                labeler.add(2);
+            }
+            // a vertical line spanning all rows.
+            labeler.add(3);
+        }
+        List<Rectangle> rectangles = labeler.finish().toRectangles();
+
+        // then
+        assertEquals(251, rectangles.size());
+        assertEquals(new Rectangle(0, 0, 0, 0), rectangles.get(0));
+        assertEquals(1, rectangles.stream().filter(r -> r.equals(new Rectangle(2, 0, 3, 999))).count());
+    }
+}
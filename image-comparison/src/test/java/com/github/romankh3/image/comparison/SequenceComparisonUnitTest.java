@@ -0,0 +1,165 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+
+@DisplayName("Unit-level testing for {@link SequenceComparison} object.")
+public class SequenceComparisonUnitTest {
+
+    private static final int FRAME_COUNT = 12;
+
+    @DisplayName("Should compare every pair of frames like an independent comparison")
+    @Test
+    public void shouldCompareFramesLikeIndependentComparisons() {
+        // given
+        Stream<BufferedImage> expectedFrames = IntStream.range(0, FRAME_COUNT).mapToObj(i -> frame(i, false));
+        Stream<BufferedImage> actualFrames = IntStream.range(0, FRAME_COUNT).mapToObj(i -> frame(i, true));
+
+        // when
+        List<ImageComparisonResult> results = new SequenceComparison(expectedFrames, actualFrames)
+                .setComparisonSettings(comparison -> comparison.setThreshold(3))
+                .compareFrames()
+                .collect(Collectors.toList());
+
+        // then
+        assertFramesLikeIndependentComparisons(results);
+    }
+
+    @DisplayName("Should compare frames drawn into the same images again and again")
+    @Test
+    public void shouldCompareFramesDrawnIntoSameImages() {
+        // given
+        BufferedImage expected = new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB);
+        Stream<BufferedImage> expectedFrames = IntStream.range(0, FRAME_COUNT).mapToObj(i -> draw(expected, i, false));
+        Stream<BufferedImage> actualFrames = IntStream.range(0, FRAME_COUNT).mapToObj(i -> draw(actual, i, true));
+
+        // when
+        List<ImageComparisonResult> results = new SequenceComparison(expectedFrames, actualFrames)
+                .setComparisonSettings(comparison -> comparison.setThreshold(3))
+                .compareFrames()
+                .collect(Collectors.toList());
+
+        // then
+        assertFramesLikeIndependentComparisons(results);
+    }
+
+    @DisplayName("Should compare frames whose data layout changes within the sequence")
+    @Test
+    public void shouldCompareFramesOfChangingDataLayout() {
+        // given
+        int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR,
+                BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_INT_BGR};
+        Stream<BufferedImage> expectedFrames = IntStream.range(0, FRAME_COUNT)
+                .mapToObj(i -> convert(frame(i, false), types[i % types.length]));
+        Stream<BufferedImage> actualFrames = IntStream.range(0, FRAME_COUNT)
+                .mapToObj(i -> convert(frame(i, true), types[(i + 1) % types.length]));
+
+        // when
+        List<ImageComparisonResult> results = new SequenceComparison(expectedFrames, actualFrames)
+                .setComparisonSettings(comparison -> comparison.setThreshold(3))
+                .compareFrames()
+                .collect(Collectors.toList());
+
+        // then
+        assertFramesLikeIndependentComparisons(results);
+    }
+
+    @DisplayName("Should end with the shorter sequence")
+    @Test
+    public void shouldEndWithShorterSequence() {
+        // given
+        Stream<BufferedImage> expectedFrames = IntStream.range(0, 5).mapToObj(i -> frame(i, false));
+        Stream<BufferedImage> actualFrames = IntStream.range(0, 3).mapToObj(i -> frame(i, true));
+
+        // when
+        long count = new SequenceComparison(expectedFrames, actualFrames).compareFrames().count();
+
+        // then
+        assertEquals(3, count);
+    }
+
+    private static void assertFramesLikeIndependentComparisons(List<ImageComparisonResult> results) {
+        assertEquals(FRAME_COUNT, results.size());
+        for (int i = 0; i < FRAME_COUNT; i++) {
+            ImageComparisonResult independent = new ImageComparison(frame(i, false), frame(i, true))
+                    .setThreshold(3)
+                    .compareImages();
+            ImageComparisonResult result = results.get(i);
+            assertEquals(independent.getImageComparisonState(), result.getImageComparisonState(), "frame " + i);
+            if (independent.getImageComparisonState() == ImageComparisonState.MISMATCH) {
+                assertEquals(new HashSet<>(independent.getRectangles()), new HashSet<>(result.getRectangles()),
+                        "frame " + i);
+            }
+        }
+    }
+
+    private static BufferedImage frame(int index, boolean actual) {
+        return draw(new BufferedImage(120, 80, BufferedImage.TYPE_INT_RGB), index, actual);
+    }
+
+    private static BufferedImage convert(BufferedImage image, int type) {
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), type);
+        Graphics2D graphics = converted.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return converted;
+    }
+
+    /**
+     * Draw a frame with a square moving in both sequences, a static difference and a difference of the actual
+     * sequence appearing and disappearing again.
+     */
+    private static BufferedImage draw(BufferedImage image, int index, boolean actual) {
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLACK);
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(5 + index * 8, 30, 10, 10);
+        if (actual) {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(100, 5, 6, 6);
+            if (index >= 3 && index < 7) {
+                graphics.setColor(Color.GREEN);
+                graphics.fillRect(4 + index * 8, 34, 12, 30);
+            }
+        }
+        graphics.dispose();
+        return image;
+    }
+}
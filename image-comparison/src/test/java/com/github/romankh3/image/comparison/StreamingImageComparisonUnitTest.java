@@ -0,0 +1,186 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison;
+
+import static com.github.romankh3.image.comparison.model.ImageComparisonState.MATCH;
+import static com.github.romankh3.image.comparison.model.ImageComparisonState.MISMATCH;
+import static com.github.romankh3.image.comparison.model.ImageComparisonState.SIZE_MISMATCH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.github.romankh3.image.comparison.exception.ImageNotFoundException;
+import com.github.romankh3.image.comparison.model.ImageComparisonResult;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+
+@DisplayName("Unit-level testing for {@link StreamingImageComparison} object.")
+public class StreamingImageComparisonUnitTest {
+
+    private static final String RESOURCES = "build/resources/test/";
+
+    @DisplayName("Should find the rectangles of the in-memory comparison for separate differences")
+    @Test
+    public void shouldFindRectanglesOfInMemoryComparison() {
+        // given
+        ImageComparisonResult expectedResult = new ImageComparison("expected#98.png", "actual#98.png")
+                .compareImages();
+
+        // when
+        ImageComparisonResult result = new StreamingImageComparison(
+                new File(RESOURCES + "expected#98.png"), new File(RESOURCES + "actual#98.png"))
+                .setBandHeight(100)
+                .compareImages();
+
+        // then
+        assertEquals(MISMATCH, result.getImageComparisonState());
+        assertEquals(expectedResult.getRectangles(), result.getRectangles());
+        assertEquals(expectedResult.getDifferencePercent(), result.getDifferencePercent(), 0.0001);
+    }
+
+    @DisplayName("Should match equal images")
+    @Test
+    public void shouldMatchEqualImages() {
+        // when
+        ImageComparisonResult result = new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "expected.png"))
+                .compareImages();
+
+        // then
+        assertEquals(MATCH, result.getImageComparisonState());
+        assertEquals(0, result.getRectangles().size());
+    }
+
+    @DisplayName("Should allow less than one percent of image difference")
+    @Test
+    public void shouldAllowLessThanOnePercentDifference() {
+        // when
+        ImageComparisonResult result = new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "actual.png"))
+                .setAllowingPercentOfDifferentPixels(1)
+                .compareImages();
+
+        // then
+        assertEquals(MATCH, result.getImageComparisonState());
+    }
+
+    @DisplayName("Should properly work SIZE_MISMATCH state")
+    @Test
+    public void shouldProperlyWorkSizeMismatch() {
+        // when
+        ImageComparisonResult result = new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "actualDifferentSize.png"))
+                .compareImages();
+
+        // then
+        assertEquals(SIZE_MISMATCH, result.getImageComparisonState());
+        assertEquals(ImageComparisonUtil.getOverlapDifferencePercent(
+                ImageComparisonUtil.readImageFromResources(RESOURCES + "expected.png"),
+                ImageComparisonUtil.readImageFromResources(RESOURCES + "actualDifferentSize.png")),
+                result.getDifferencePercent(), 0.0001);
+    }
+
+    @DisplayName("Should throw an exception for not existing images")
+    @Test
+    public void shouldThrowAnExceptionForNotExistingImages() {
+        // when-then
+        ImageNotFoundException ex = assertThrows(ImageNotFoundException.class,
+                () -> new StreamingImageComparison(new File("wrong-file-name.png"),
+                        new File(RESOURCES + "actual.png")).compareImages());
+        assertTrue(ex.getMessage().startsWith("Image with path = wrong-file-name.png not found"));
+    }
+
+    @DisplayName("Should compare only the state")
+    @Test
+    public void shouldCompareOnlyState() {
+        // given
+        StreamingImageComparison comparison = new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "actual.png"));
+
+        // when-then
+        assertEquals(MISMATCH, comparison.compareState());
+        assertEquals(MATCH, comparison.setAllowingPercentOfDifferentPixels(1).compareState());
+        assertEquals(MATCH, new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "expected.png")).compareState());
+        assertEquals(SIZE_MISMATCH, new StreamingImageComparison(
+                new File(RESOURCES + "expected.png"), new File(RESOURCES + "actualDifferentSize.png"))
+                .compareState());
+    }
+
+    @DisplayName("Should respect the minimal rectangle size when comparing only the state")
+    @Test
+    public void shouldRespectMinimalRectangleSizeWhenComparingState() {
+        // given
+        StreamingImageComparison comparison = new StreamingImageComparison(
+                new File(RESOURCES + "expected#17.png"), new File(RESOURCES + "actual#17.png"));
+        int regionSize = comparison.compareImages().getRectangles().get(0).size();
+
+        // when-then
+        assertEquals(MISMATCH, comparison.setMinimalRectangleSize(regionSize).compareState());
+        assertEquals(MATCH, comparison.setMinimalRectangleSize(regionSize + 1).compareState());
+        assertEquals(MATCH, comparison.compareImages().getImageComparisonState());
+    }
+
+    @DisplayName("Should decide the state without reading the rows after the first band")
+    @Test
+    public void shouldDecideStateBeforeReadingTheRemainingRows(@TempDir Path tempDir) throws IOException {
+        // given
+        File expectedImage = writeImage(tempDir.resolve("expected.png").toFile(), 2_000);
+        BufferedImage actual = ImageIO.read(expectedImage);
+        actual.setRGB(10, 0, 0xFF00FF);
+        File actualImage = tempDir.resolve("actual.png").toFile();
+        ImageIO.write(actual, "png", actualImage);
+        StreamingImageComparison comparison = new StreamingImageComparison(expectedImage, actualImage);
+
+        try (ImageRowReader expectedReader = ImageRowReader.open(expectedImage, 256);
+                ImageRowReader actualReader = ImageRowReader.open(actualImage, 256)) {
+            // when
+            ImageComparisonState state = comparison.compareState(expectedReader, actualReader);
+
+            // then
+            assertEquals(MISMATCH, state);
+            assertEquals(1, expectedReader.getBandCount());
+            assertEquals(1, actualReader.getBandCount());
+        }
+    }
+
+    private static File writeImage(File file, int height) throws IOException {
+        BufferedImage image = new BufferedImage(500, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, (x * y) ^ y);
+            }
+        }
+        ImageIO.write(image, "png", file);
+        return file;
+    }
+}
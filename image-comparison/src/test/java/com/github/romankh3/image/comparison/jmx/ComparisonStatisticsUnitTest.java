@@ -0,0 +1,120 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.ImageComparison;
+import com.github.romankh3.image.comparison.model.ImageComparisonMetrics;
+import com.github.romankh3.image.comparison.model.ImageComparisonState;
+
+@DisplayName("Unit-level testing for {@link ComparisonStatistics} object.")
+public class ComparisonStatisticsUnitTest {
+
+    @DisplayName("Should record the state mix and the latencies by size bucket")
+    @Test
+    public void shouldRecordStatesAndLatencies() {
+        // given
+        ComparisonStatistics statistics = new ComparisonStatistics();
+
+        // when
+        statistics.record(ImageComparisonState.MATCH, 100, new ImageComparisonMetrics().setTotalNanos(2_000_000));
+        statistics.record(ImageComparisonState.MISMATCH, 100, new ImageComparisonMetrics().setTotalNanos(4_000_000)
+                .addBytesAllocated(400));
+        statistics.record(ImageComparisonState.SIZE_MISMATCH, 2_000_000, new ImageComparisonMetrics()
+                .addFingerprintChecks(1).addFingerprintMatches(1));
+        statistics.record(ImageComparisonState.MATCH, 2_000_000, new ImageComparisonMetrics()
+                .addFingerprintChecks(1));
+
+        // then
+        assertEquals(4, statistics.getComparisonCount());
+        assertEquals(2, statistics.getMatchCount());
+        assertEquals(1, statistics.getMismatchCount());
+        assertEquals(1, statistics.getSizeMismatchCount());
+        assertEquals(400, statistics.getBufferBytesAllocated());
+        assertEquals(0.5, statistics.getFingerprintHitRate());
+        List<LatencySnapshot> latencies = statistics.getLatencies();
+        assertEquals("<0.25MP", latencies.get(0).getSizeBucket());
+        assertEquals(2, latencies.get(0).getCount());
+        assertEquals(4.0, latencies.get(0).getMaxMillis());
+        assertEquals(2, latencies.get(2).getCount());
+    }
+
+    @DisplayName("Should average the comparisons per second over the last minute")
+    @Test
+    public void shouldAverageComparisonsPerSecond() {
+        // given
+        long[] now = {0};
+        ComparisonStatistics statistics = new ComparisonStatistics(() -> now[0]);
+
+        // when
+        for (int second = 0; second < 90; second++) {
+            now[0] = second * 1_000_000_000L;
+            for (int i = 0; i < 3; i++) {
+                statistics.record(ImageComparisonState.MATCH, 1, new ImageComparisonMetrics());
+            }
+        }
+
+        // then
+        assertEquals(3.0, statistics.getComparisonsPerSecond());
+        assertEquals(270, statistics.getComparisonCount());
+    }
+
+    @DisplayName("Should publish the MBean and record comparisons while registered")
+    @Test
+    public void shouldPublishMBeanWhileRegistered() throws Exception {
+        // given
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ComparisonStatistics.OBJECT_NAME);
+
+        // when
+        ComparisonStatistics statistics = ComparisonStatistics.register();
+        try {
+            new ImageComparison(image, image).compareImages();
+
+            // then
+            assertSame(statistics, ComparisonStatistics.register());
+            assertEquals(1L, server.getAttribute(name, "MatchCount"));
+            CompositeData[] latencies = (CompositeData[]) server.getAttribute(name, "Latencies");
+            assertEquals(1L, latencies[0].get("count"));
+        } finally {
+            ComparisonStatistics.unregister();
+        }
+        assertNull(ComparisonStatistics.getRegistered());
+        new ImageComparison(image, image).compareImages();
+        assertEquals(1, statistics.getComparisonCount());
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.jmx;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Unit-level testing for {@link LatencyHistogram} object.")
+public class LatencyHistogramUnitTest {
+
+    @DisplayName("Should put every value into the bucket bounding it")
+    @Test
+    public void shouldPutValuesIntoBoundingBuckets() {
+        for (long value : new long[] {0, 1, 3, 4, 5, 7, 8, 100, 1_000_000, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.upperBound(index) >= value, "value " + value);
+            assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value, "value " + value);
+        }
+    }
+
+    @DisplayName("Should estimate percentiles within a quarter of the value")
+    @Test
+    public void shouldEstimatePercentiles() {
+        // given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // when
+        for (long nanos = 1; nanos <= 1000; nanos++) {
+            histogram.record(nanos * 1000);
+        }
+
+        // then
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMax());
+        assertTrue(Math.abs(histogram.getPercentile(0.5) - 500_000) <= 125_000);
+        assertTrue(Math.abs(histogram.getPercentile(0.99) - 990_000) <= 247_500);
+        assertEquals(1_000_000, histogram.getPercentile(1));
+    }
+}
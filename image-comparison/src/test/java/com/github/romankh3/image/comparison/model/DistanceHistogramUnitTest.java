@@ -0,0 +1,153 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.ImageComparison;
+import com.github.romankh3.image.comparison.workload.DifferencePattern;
+import com.github.romankh3.image.comparison.workload.Workload;
+import com.github.romankh3.image.comparison.workload.WorkloadGenerator;
+
+@DisplayName("Unit-level testing for {@link DistanceHistogram} object.")
+public class DistanceHistogramUnitTest {
+
+    private static final double[] TOLERANCES = {0.0, 0.001, 0.01, 0.05, 0.1, 0.2, 0.5, 0.9, 0.999};
+
+    @DisplayName("Should count the same different pixels as the comparison at every tolerance")
+    @Test
+    public void shouldCountDifferentPixelsLikeComparison() {
+        for (DifferencePattern pattern : DifferencePattern.values()) {
+            // given
+            Workload workload = new WorkloadGenerator(11)
+                    .setSize(160, 120)
+                    .setPattern(pattern)
+                    .setDensity(0.3)
+                    .generate();
+
+            // when
+            DistanceHistogram histogram = new ImageComparison(workload.getExpected(), workload.getActual())
+                    .createDistanceHistogram();
+
+            // then
+            for (double tolerance : TOLERANCES) {
+                ImageComparisonMetrics metrics = new ImageComparison(workload.getExpected(), workload.getActual())
+                        .setPixelToleranceLevel(tolerance)
+                        .setMetricsEnabled(true)
+                        .compareImages()
+                        .getMetrics();
+                assertEquals(metrics.getDifferentPixels(), histogram.getDifferentPixelCount(tolerance),
+                        pattern + " at " + tolerance);
+            }
+        }
+    }
+
+    @DisplayName("Should tell the state of the comparison by the difference percent")
+    @Test
+    public void shouldTellStateByDifferencePercent() {
+        // given
+        Workload workload = new WorkloadGenerator(5)
+                .setSize(100, 100)
+                .setPattern(DifferencePattern.ALPHA_GRADIENT)
+                .generate();
+        DistanceHistogram histogram = new ImageComparison(workload.getExpected(), workload.getActual())
+                .createDistanceHistogram();
+
+        for (double tolerance : TOLERANCES) {
+            // when
+            double percent = histogram.getDifferencePercent(tolerance);
+            ImageComparisonState state = new ImageComparison(workload.getExpected(), workload.getActual())
+                    .setPixelToleranceLevel(tolerance)
+                    .setAllowingPercentOfDifferentPixels(10)
+                    .compareImages()
+                    .getImageComparisonState();
+
+            // then
+            assertEquals(percent <= 10 ? ImageComparisonState.MATCH : ImageComparisonState.MISMATCH, state,
+                    "tolerance " + tolerance);
+        }
+    }
+
+    @DisplayName("Should skip the excluded areas")
+    @Test
+    public void shouldSkipExcludedAreas() {
+        // given
+        BufferedImage expected = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+        BufferedImage actual = new BufferedImage(20, 10, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < 20; x++) {
+            actual.setRGB(x, 0, 0xffffff);
+        }
+
+        // when
+        DistanceHistogram histogram = new ImageComparison(expected, actual)
+                .setExcludedAreas(Collections.singletonList(new Rectangle(0, 0, 4, 9)))
+                .createDistanceHistogram();
+
+        // then
+        assertEquals(200, histogram.getPixelCount());
+        assertEquals(50, histogram.getExcludedPixelCount());
+        assertEquals(150, histogram.getComparedPixelCount());
+        assertEquals(15, histogram.getDifferentPixelCount(0.0));
+        assertEquals(15, histogram.getDifferentPixelCount(0.8));
+        assertEquals(0, histogram.getDifferentPixelCount(0.9));
+        assertEquals(7.5, histogram.getDifferencePercent(0.0));
+        assertEquals(15, histogram.getPixelCountAbove(3 * 255 * 255 - 1));
+        assertEquals(0, histogram.getPixelCountAbove(3 * 255 * 255));
+    }
+
+    @DisplayName("Should count more pixels than an int can hold")
+    @Test
+    public void shouldCountMorePixelsThanIntCanHold() {
+        // given
+        long[] counts = new long[DistanceHistogram.MAX_SQUARED_DISTANCE + 1];
+        counts[0] = Integer.MAX_VALUE;
+        counts[DistanceHistogram.MAX_SQUARED_DISTANCE] = Integer.MAX_VALUE;
+
+        // when
+        DistanceHistogram histogram = new DistanceHistogram(counts, 2L * Integer.MAX_VALUE, 0);
+
+        // then
+        assertEquals(2L * Integer.MAX_VALUE, histogram.getComparedPixelCount());
+        assertEquals(Integer.MAX_VALUE, histogram.getDifferentPixelCount(0.5));
+        assertEquals(50.0, histogram.getDifferencePercent(0.5));
+    }
+
+    @DisplayName("Should reject tolerance levels out of range")
+    @Test
+    public void shouldRejectToleranceOutOfRange() {
+        // given
+        DistanceHistogram histogram = new DistanceHistogram(new long[DistanceHistogram.MAX_SQUARED_DISTANCE + 1], 0, 0);
+
+        // then
+        assertThrows(IllegalArgumentException.class, () -> histogram.getDifferentPixelCount(-0.1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getDifferentPixelCount(1.0));
+        assertTrue(histogram.getDifferencePercent(0.5) == 0);
+    }
+}
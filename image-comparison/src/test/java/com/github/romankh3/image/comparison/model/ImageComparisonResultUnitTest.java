@@ -27,6 +27,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -65,4 +66,21 @@ public class ImageComparisonResultUnitTest {
         assertEquals(imageComparisonResult.getRectangles(), rectangles);
     }
 
+    @DisplayName("Should calculate the difference percent lazily")
+    @Test
+    public void shouldCalculateDifferencePercentLazily() {
+        // given
+        AtomicInteger calculations = new AtomicInteger();
+        ImageComparisonResult imageComparisonResult = new ImageComparisonResult()
+                .setDifferencePercent(() -> {
+                    calculations.incrementAndGet();
+                    return 42.0f;
+                });
+
+        // when-then
+        assertEquals(0, calculations.get());
+        assertEquals(42.0f, imageComparisonResult.getDifferencePercent());
+        assertEquals(42.0f, imageComparisonResult.getDifferencePercent());
+        assertEquals(1, calculations.get());
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.workload;
+
+import static com.github.romankh3.image.comparison.model.ImageComparisonState.MATCH;
+import static com.github.romankh3.image.comparison.model.ImageComparisonState.MISMATCH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.github.romankh3.image.comparison.ImageComparison;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+@DisplayName("Unit-level testing for {@link WorkloadGenerator} object.")
+public class WorkloadGeneratorUnitTest {
+
+    @DisplayName("Should generate the same images for the same seed")
+    @Test
+    public void shouldGenerateSameImagesForSameSeed() {
+        // given
+        WorkloadGenerator generator = new WorkloadGenerator(7)
+                .setSize(120, 80)
+                .setPattern(DifferencePattern.TEXT_CLUSTERS)
+                .setDensity(0.2);
+
+        // when
+        Workload first = generator.generate();
+        Workload second = generator.generate();
+
+        // then
+        assertPixelsEqual(first.getExpected(), second.getExpected());
+        assertPixelsEqual(first.getActual(), second.getActual());
+        assertEquals(first.getExcludedAreas(), second.getExcludedAreas());
+        assertFalse(first.getExcludedAreas().isEmpty());
+    }
+
+    @DisplayName("Should generate images of the configured size and type")
+    @Test
+    public void shouldGenerateConfiguredSizeAndType() {
+        // when
+        Workload workload = new WorkloadGenerator(1)
+                .setSize(50, 30)
+                .setImageType(BufferedImage.TYPE_3BYTE_BGR)
+                .generate();
+
+        // then
+        assertEquals(50, workload.getActual().getWidth());
+        assertEquals(30, workload.getActual().getHeight());
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, workload.getExpected().getType());
+        assertEquals(BufferedImage.TYPE_3BYTE_BGR, workload.getActual().getType());
+    }
+
+    @DisplayName("Should cover every injected difference by the excluded areas")
+    @Test
+    public void shouldCoverDifferencesByExcludedAreas() {
+        for (DifferencePattern pattern : DifferencePattern.values()) {
+            // given
+            Workload workload = new WorkloadGenerator(3)
+                    .setSize(200, 150)
+                    .setPattern(pattern)
+                    .setDensity(0.05)
+                    .generate();
+
+            // when
+            ImageComparison imageComparison = new ImageComparison(workload.getExpected(), workload.getActual());
+
+            // then
+            assertEquals(MISMATCH, imageComparison.compareImages().getImageComparisonState(), pattern.name());
+            assertEquals(MATCH, imageComparison.setExcludedAreas(workload.getExcludedAreas())
+                    .compareImages().getImageComparisonState(), pattern.name());
+            assertEquals(MATCH, new ImageComparison(workload.getExpected(), workload.getActual())
+                    .setExclusionMask(workload.getExclusionMask())
+                    .compareImages().getImageComparisonState(), pattern.name());
+        }
+    }
+
+    @DisplayName("Should exclude the sparse noise as spans of neighbouring pixels")
+    @Test
+    public void shouldExcludeSparseNoiseAsSpans() {
+        // given
+        WorkloadGenerator generator = new WorkloadGenerator(5)
+                .setSize(64, 64)
+                .setPattern(DifferencePattern.SPARSE_NOISE)
+                .setDensity(1);
+
+        // when
+        Workload workload = generator.generate();
+
+        // then
+        int noisyPixels = 0;
+        for (int y = 0; y < 64; y++) {
+            for (int x = 0; x < 64; x++) {
+                if (workload.getExpected().getRGB(x, y) != workload.getActual().getRGB(x, y)) {
+                    assertTrue(workload.getExclusionMask().contains(x, y));
+                    noisyPixels++;
+                }
+            }
+        }
+        assertTrue(workload.getExcludedAreas().size() < noisyPixels);
+        for (Rectangle area : workload.getExcludedAreas()) {
+            assertEquals(area.getMinPoint().y, area.getMaxPoint().y);
+        }
+    }
+
+    private void assertPixelsEqual(BufferedImage expected, BufferedImage actual) {
+        for (int y = 0; y < expected.getHeight(); y++) {
+            for (int x = 0; x < expected.getWidth(); x++) {
+                assertEquals(expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+}
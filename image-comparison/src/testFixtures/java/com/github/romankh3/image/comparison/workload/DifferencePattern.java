@@ -0,0 +1,55 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.workload;
+
+/**
+ * Pattern of the differences, which {@link WorkloadGenerator} injects into the actual image.
+ */
+public enum DifferencePattern {
+
+    /**
+     * Single inverted pixels at random positions. The density is the share of the inverted pixels.
+     */
+    SPARSE_NOISE,
+
+    /**
+     * Clusters of small glyph-like strokes arranged as words. The density is the share of the area covered by words.
+     */
+    TEXT_CLUSTERS,
+
+    /**
+     * Large solid blocks with sides between 1/16 and 1/4 of the image. The density is the share of the area covered
+     * by blocks.
+     */
+    LARGE_BLOCKS,
+
+    /**
+     * The whole content shifted by one pixel to the right and to the bottom. The density is ignored.
+     */
+    SHIFT,
+
+    /**
+     * The alpha channel falling linearly from opaque at the left edge to transparent at the right edge. The density is
+     * ignored. Only images with an alpha channel differ.
+     */
+    ALPHA_GRADIENT
+}
@@ -0,0 +1,91 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.workload;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.romankh3.image.comparison.ExclusionMask;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Pair of images created by the {@link WorkloadGenerator}.
+ */
+public final class Workload {
+
+    /**
+     * The expected image.
+     */
+    private final BufferedImage expected;
+
+    /**
+     * The actual image, containing the injected differences.
+     */
+    private final BufferedImage actual;
+
+    /**
+     * The areas covering every injected difference.
+     */
+    private final List<Rectangle> excludedAreas;
+
+    /**
+     * {@link ExclusionMask} of the excluded areas, which is rasterised on first use.
+     */
+    private /* @Nullable */ ExclusionMask exclusionMask;
+
+    Workload(BufferedImage expected, BufferedImage actual, List<Rectangle> excludedAreas) {
+        this.expected = expected;
+        this.actual = actual;
+        this.excludedAreas = Collections.unmodifiableList(excludedAreas);
+    }
+
+    public BufferedImage getExpected() {
+        return expected;
+    }
+
+    public BufferedImage getActual() {
+        return actual;
+    }
+
+    /**
+     * The areas covering every injected difference, so the images match if these areas are excluded.
+     *
+     * @return the collection of the excluded {@link Rectangle}s.
+     */
+    public List<Rectangle> getExcludedAreas() {
+        return excludedAreas;
+    }
+
+    /**
+     * The pixels of every injected difference as a mask, which is cheaper to apply than many excluded areas, e.g.
+     * for {@link DifferencePattern#SPARSE_NOISE}.
+     *
+     * @return the {@link ExclusionMask} of the excluded areas.
+     */
+    public ExclusionMask getExclusionMask() {
+        if (exclusionMask == null) {
+            exclusionMask = ExclusionMask.of(excludedAreas, expected.getWidth(), expected.getHeight());
+        }
+        return exclusionMask;
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * MIT License
+ *
+ * Copyright (c) 2024 Jannis Weis
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy of this software and
+ * associated documentation files (the "Software"), to deal in the Software without restriction,
+ * including without limitation the rights to use, copy, modify, merge, publish, distribute,
+ * sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all copies or
+ * substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT
+ * NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND
+ * NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM,
+ * DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.romankh3.image.comparison.workload;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import com.github.romankh3.image.comparison.ImageComparisonUtil;
+import com.github.romankh3.image.comparison.model.Rectangle;
+
+/**
+ * Deterministic generator of image pairs for benchmarks and scalability tests. The same seed and settings always
+ * generate the same pixels, so no binary images need to be stored.
+ * <p>
+ * The expected image contains smooth gradients with a little noise. The actual image is a copy with the differences
+ * of the {@link DifferencePattern} injected. Images are written row by row, so even gigapixel images only need the
+ * memory of their rasters.
+ */
+public final class WorkloadGenerator {
+
+    /**
+     * Width and height of a glyph of {@link DifferencePattern#TEXT_CLUSTERS}, including the spacing.
+     */
+    private static final int GLYPH_WIDTH = 7;
+    private static final int GLYPH_HEIGHT = 11;
+
+    /**
+     * Color of the glyph strokes.
+     */
+    private static final int TEXT_COLOR = 0xFF101010;
+
+    /**
+     * Seed of the random generator.
+     */
+    private final long seed;
+
+    private int width = 1024;
+
+    private int height = 1024;
+
+    /**
+     * {@link BufferedImage} type of the generated images.
+     */
+    private int imageType = BufferedImage.TYPE_INT_ARGB;
+
+    private DifferencePattern pattern = DifferencePattern.SPARSE_NOISE;
+
+    /**
+     * Density of the differences between 0 and 1, see {@link DifferencePattern}.
+     */
+    private double density = 0.001;
+
+    /**
+     * Create instance of the {@link WorkloadGenerator}.
+     *
+     * @param seed the seed of the random generator.
+     */
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generate the pair of images.
+     *
+     * @return the {@link Workload} with the images and the areas of the differences.
+     */
+    public Workload generate() {
+        SplittableRandom random = new SplittableRandom(seed);
+        BufferedImage expected = createExpected(random);
+        BufferedImage actual = ImageComparisonUtil.deepCopy(expected);
+        List<Rectangle> excludedAreas = new ArrayList<>();
+        switch (pattern) {
+            case SPARSE_NOISE:
+                injectSparseNoise(actual, random, excludedAreas);
+                break;
+            case TEXT_CLUSTERS:
+                injectTextClusters(actual, random, excludedAreas);
+                break;
+            case LARGE_BLOCKS:
+                injectLargeBlocks(actual, random, excludedAreas);
+                break;
+            case SHIFT:
+                shift(expected, actual);
+                excludedAreas.add(new Rectangle(0, 0, width - 1, height - 1));
+                break;
+            case ALPHA_GRADIENT:
+                applyAlphaGradient(actual);
+                excludedAreas.add(new Rectangle(0, 0, width - 1, height - 1));
+                break;
+            default:
+                throw new IllegalStateException(String.format("Unsupported pattern, pattern=%s", pattern));
+        }
+        return new Workload(expected, actual, excludedAreas);
+    }
+
+    private BufferedImage createExpected(SplittableRandom random) {
+        BufferedImage image = new BufferedImage(width, height, imageType);
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            int green = (int) ((long) y * 255 / height);
+            for (int x = 0; x < width; x++) {
+                int red = (int) ((long) x * 255 / width);
+                int blue = (x ^ y) & 0xFF;
+                row[x] = (0xFF000000 | red << 16 | green << 8 | blue) ^ (random.nextInt() & 0x070707);
+            }
+            image.setRGB(0, y, width, 1, row, 0, width);
+        }
+        return image;
+    }
+
+    private void injectSparseNoise(BufferedImage actual, SplittableRandom random, List<Rectangle> excludedAreas) {
+        int count = (int) (density * width * height);
+        // the noisy pixels are excluded as spans of neighbouring pixels, not one by one.
+        long[] positions = new long[count];
+        for (int i = 0; i < count; i++) {
+            int x = random.nextInt(width);
+            int y = random.nextInt(height);
+            actual.setRGB(x, y, ~actual.getRGB(x, y) | 0xFF000000);
+            positions[i] = (long) y * width + x;
+        }
+        Arrays.sort(positions);
+        int i = 0;
+        while (i < count) {
+            int y = (int) (positions[i] / width);
+            int minX = (int) (positions[i] % width);
+            int maxX = minX;
+            while (i < count && positions[i] <= (long) y * width + maxX + 1 && positions[i] < (long) (y + 1) * width) {
+                maxX = (int) (positions[i] % width);
+                i++;
+            }
+            excludedAreas.add(new Rectangle(minX, y, maxX, y));
+        }
+    }
+
+    private void injectTextClusters(BufferedImage actual, SplittableRandom random, List<Rectangle> excludedAreas) {
+        long count = (long) (density * width * height / (6.5 * GLYPH_WIDTH * GLYPH_HEIGHT));
+        for (long i = 0; i < count; i++) {
+            int glyphs = 3 + random.nextInt(8);
+            int minX = random.nextInt(width);
+            int minY = random.nextInt(height);
+            int maxX = Math.min(width, minX + glyphs * GLYPH_WIDTH) - 1;
+            int maxY = Math.min(height, minY + GLYPH_HEIGHT) - 1;
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    // the last column and row of every glyph are the spacing.
+                    boolean spacing = (x - minX) % GLYPH_WIDTH == GLYPH_WIDTH - 1 || y - minY == GLYPH_HEIGHT - 1;
+                    if (!spacing && random.nextInt(3) == 0) {
+                        actual.setRGB(x, y, TEXT_COLOR);
+                    }
+                }
+            }
+            excludedAreas.add(new Rectangle(minX, minY, maxX, maxY));
+        }
+    }
+
+    private void injectLargeBlocks(BufferedImage actual, SplittableRandom random, List<Rectangle> excludedAreas) {
+        int minSide = Math.max(1, Math.min(width, height) / 16);
+        int maxSide = Math.max(minSide, Math.min(width, height) / 4);
+        double averageArea = Math.pow((minSide + maxSide) / 2.0, 2);
+        long count = Math.max(1, (long) (density * width * height / averageArea));
+        int[] row = new int[maxSide];
+        for (long i = 0; i < count; i++) {
+            int minX = random.nextInt(width);
+            int minY = random.nextInt(height);
+            int maxX = Math.min(width, minX + minSide + random.nextInt(maxSide - minSide + 1)) - 1;
+            int maxY = Math.min(height, minY + minSide + random.nextInt(maxSide - minSide + 1)) - 1;
+            int blockWidth = maxX - minX + 1;
+            Arrays.fill(row, 0, blockWidth, 0xFF000000 | random.nextInt());
+            for (int y = minY; y <= maxY; y++) {
+                actual.setRGB(minX, y, blockWidth, 1, row, 0, blockWidth);
+            }
+            excludedAreas.add(new Rectangle(minX, minY, maxX, maxY));
+        }
+    }
+
+    private void shift(BufferedImage expected, BufferedImage actual) {
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            expected.getRGB(0, Math.max(0, y - 1), width, 1, row, 0, width);
+            // shift to the right, repeating the first column.
+            System.arraycopy(row, 0, row, 1, width - 1);
+            actual.setRGB(0, y, width, 1, row, 0, width);
+        }
+    }
+
+    private void applyAlphaGradient(BufferedImage actual) {
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            actual.getRGB(0, y, width, 1, row, 0, width);
+            for (int x = 0; x < width; x++) {
+                int alpha = 255 - (int) ((long) x * 255 / Math.max(1, width - 1));
+                row[x] = alpha << 24 | (row[x] & 0xFFFFFF);
+            }
+            actual.setRGB(0, y, width, 1, row, 0, width);
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public WorkloadGenerator setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+        return this;
+    }
+
+    public int getImageType() {
+        return imageType;
+    }
+
+    public WorkloadGenerator setImageType(int imageType) {
+        this.imageType = imageType;
+        return this;
+    }
+
+    public DifferencePattern getPattern() {
+        return pattern;
+    }
+
+    public WorkloadGenerator setPattern(DifferencePattern pattern) {
+        this.pattern = pattern;
+        return this;
+    }
+
+    public double getDensity() {
+        return density;
+    }
+
+    public WorkloadGenerator setDensity(double density) {
+        this.density = density;
+        return this;
+    }
+}
@@ -11,6 +11,7 @@ pluginManagement {
         idv("com.github.vlsi.gradle-extensions", "com.github.vlsi.vlsi-release-plugins")
         idv("com.github.vlsi.license-gather", "com.github.vlsi.vlsi-release-plugins")
         idv("com.github.vlsi.stage-vote-release", "com.github.vlsi.vlsi-release-plugins")
+        idv("me.champeau.jmh")
     }
 }
 
@@ -45,3 +46,4 @@ dependencyResolutionManagement {
 }
 
 include("image-comparison")
+include("image-comparison-jmh")